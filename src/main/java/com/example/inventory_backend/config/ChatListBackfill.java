@@ -0,0 +1,63 @@
+package com.example.inventory_backend.config;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// Fills the denormalized chat list columns (last message on chats, unread counters on participants)
+// for chats that have messages but no last message yet, i.e. chats written before the columns
+// existed. New messages keep the columns current, so after the first run this finds nothing.
+@Component
+@DependsOn("entityManagerFactory")
+public class ChatListBackfill {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChatListBackfill.class);
+
+    private static final String PENDING_SQL =
+            "CREATE TEMP TABLE chat_backfill ON COMMIT DROP AS " +
+            "SELECT c.id FROM chats c WHERE c.last_message_id IS NULL " +
+            "AND EXISTS (SELECT 1 FROM chat_messages m WHERE m.chat_id = c.id)";
+
+    private static final String LAST_MESSAGE_SQL =
+            "UPDATE chats c SET last_message_id = m.id, last_message_content = m.content, " +
+            "last_message_sender_id = m.sender_id, last_message_at = m.timestamp " +
+            "FROM (SELECT DISTINCT ON (cm.chat_id) cm.chat_id, cm.id, cm.content, cm.sender_id, cm.timestamp " +
+            "FROM chat_messages cm WHERE cm.chat_id IN (SELECT id FROM chat_backfill) " +
+            "ORDER BY cm.chat_id, cm.id DESC) m " +
+            "WHERE c.id = m.chat_id";
+
+    private static final String UNREAD_COUNT_SQL =
+            "UPDATE chat_participants cp SET unread_count = (SELECT COUNT(*) FROM chat_messages m " +
+            "WHERE m.chat_id = cp.chat_id AND m.sender_id <> cp.user_id " +
+            "AND m.id > COALESCE(cp.last_read_message_id, 0)) " +
+            "WHERE cp.chat_id IN (SELECT id FROM chat_backfill)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PostConstruct
+    public void backfill() {
+        long start = System.currentTimeMillis();
+        Integer chats = new TransactionTemplate(transactionManager).execute(status -> {
+            jdbcTemplate.execute(PENDING_SQL);
+            int updated = jdbcTemplate.update(LAST_MESSAGE_SQL);
+            if (updated > 0) {
+                jdbcTemplate.update(UNREAD_COUNT_SQL);
+            }
+            return updated;
+        });
+
+        if (chats != null && chats > 0) {
+            logger.info("Backfilled chat list columns for {} chats in {} ms", chats, System.currentTimeMillis() - start);
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.inventory_backend.config;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// Converts notifications from one row per user with a read flag to shared company rows with per-user
+// watermarks. Runs once at startup, before the web server accepts requests, while the legacy "read"
+// column still exists.
+//
+// The copies of a company event are grouped by their content; a user's n-th copy of identical content
+// (e.g. two equal import summaries) belongs to the n-th event. The oldest copy becomes the shared row,
+// which keeps notification ids in their original order. Each user's watermark is placed just below
+// their oldest unread notification, read ones above it get receipts, and shared rows the user had
+// deleted get dismissal receipts.
+//
+// The old rows are copied to notifications_legacy first and the read column is kept, defaulting to false
+// for rows written afterwards, so a bad migration can be rolled back by restoring that table and starting
+// the previous release. Later starts see the copy and skip the migration. Once the migrated read state
+// has been checked, a start with app.notifications.drop-legacy-data=true drops the column and the copy.
+@Component
+@DependsOn("entityManagerFactory")
+public class NotificationMigration {
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificationMigration.class);
+
+    private static final String LEGACY_COLUMN_EXISTS_SQL =
+            "SELECT EXISTS (SELECT 1 FROM information_schema.columns " +
+            "WHERE table_schema = current_schema() AND table_name = 'notifications' AND column_name = 'read')";
+
+    private static final String BACKUP_EXISTS_SQL = "SELECT to_regclass('notifications_legacy') IS NOT NULL";
+
+    private static final String[] MIGRATION_SQL = {
+            "CREATE TABLE notifications_legacy AS SELECT * FROM notifications",
+
+            // Copies of company events, each mapped to the oldest copy of its event
+            "CREATE TEMP TABLE legacy_notifications ON COMMIT DROP AS " +
+            "SELECT id, user_id, read, MIN(id) OVER (PARTITION BY company_id, entity_type, entity_id, title, message, occurrence) AS shared_id " +
+            "FROM (SELECT id, user_id, read, company_id, entity_type, entity_id, title, message, " +
+            "ROW_NUMBER() OVER (PARTITION BY company_id, entity_type, entity_id, title, message, user_id ORDER BY id) AS occurrence " +
+            "FROM notifications WHERE user_id IS NOT NULL AND entity_type IS DISTINCT FROM 'user') copies",
+
+            // What each user could see before the migration, with its read flag
+            "CREATE TEMP TABLE legacy_visible ON COMMIT DROP AS " +
+            "SELECT user_id, shared_id AS notification_id, read FROM legacy_notifications " +
+            "UNION ALL SELECT user_id, id, read FROM notifications WHERE user_id IS NOT NULL AND entity_type = 'user'",
+
+            "DELETE FROM notifications n USING legacy_notifications l WHERE n.id = l.id AND l.id <> l.shared_id",
+
+            "UPDATE notifications SET user_id = NULL WHERE id IN (SELECT shared_id FROM legacy_notifications)",
+
+            "INSERT INTO notification_counters (company_id, shared_total, last_id) " +
+            "SELECT company_id, COUNT(*) FILTER (WHERE user_id IS NULL), MAX(id) FROM notifications GROUP BY company_id " +
+            "ON CONFLICT (company_id) DO UPDATE SET shared_total = EXCLUDED.shared_total, last_id = EXCLUDED.last_id",
+
+            // Users without any notification start at the newest one, like new users
+            "INSERT INTO notification_read_state (user_id, company_id, first_visible_id, last_read_id, " +
+            "shared_seen, personal_total, personal_seen, read_above) " +
+            "SELECT u.id, u.company_id, COALESCE(v.first_visible, c.last_id, 0), COALESCE(v.last_read, c.last_id, 0), 0, 0, 0, 0 " +
+            "FROM users u " +
+            "LEFT JOIN (SELECT user_id, MIN(notification_id) - 1 AS first_visible, " +
+            "COALESCE(MIN(notification_id) FILTER (WHERE NOT read) - 1, MAX(notification_id)) AS last_read " +
+            "FROM legacy_visible GROUP BY user_id) v ON v.user_id = u.id " +
+            "LEFT JOIN notification_counters c ON c.company_id = u.company_id " +
+            "ON CONFLICT (user_id) DO NOTHING",
+
+            "INSERT INTO notification_receipts (user_id, notification_id, dismissed) " +
+            "SELECT v.user_id, v.notification_id, false FROM legacy_visible v " +
+            "JOIN notification_read_state s ON s.user_id = v.user_id " +
+            "WHERE v.read AND v.notification_id > s.last_read_id " +
+            "ON CONFLICT (user_id, notification_id) DO NOTHING",
+
+            "INSERT INTO notification_receipts (user_id, notification_id, dismissed) " +
+            "SELECT s.user_id, n.id, true FROM notification_read_state s " +
+            "JOIN notifications n ON n.company_id = s.company_id AND n.user_id IS NULL AND n.id > s.first_visible_id " +
+            "WHERE NOT EXISTS (SELECT 1 FROM legacy_visible v WHERE v.user_id = s.user_id AND v.notification_id = n.id) " +
+            "ON CONFLICT (user_id, notification_id) DO NOTHING",
+
+            "UPDATE notification_read_state s SET " +
+            "shared_seen = (SELECT COUNT(*) FROM notifications n " +
+            "WHERE n.company_id = s.company_id AND n.user_id IS NULL AND n.id <= s.last_read_id), " +
+            "personal_total = (SELECT COUNT(*) FROM notifications n WHERE n.user_id = s.user_id), " +
+            "personal_seen = (SELECT COUNT(*) FROM notifications n WHERE n.user_id = s.user_id AND n.id <= s.last_read_id), " +
+            "read_above = (SELECT COUNT(*) FROM notification_receipts r " +
+            "WHERE r.user_id = s.user_id AND r.notification_id > s.last_read_id)",
+
+            // Rows written by this release leave the column out
+            "ALTER TABLE notifications ALTER COLUMN read SET DEFAULT false"
+    };
+
+    private static final String[] DROP_LEGACY_SQL = {
+            "ALTER TABLE notifications DROP COLUMN read",
+            "DROP TABLE notifications_legacy"
+    };
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.notifications.drop-legacy-data:false}")
+    private boolean dropLegacyData;
+
+    @PostConstruct
+    public void migrate() {
+        if (!exists(LEGACY_COLUMN_EXISTS_SQL)) {
+            return;
+        }
+
+        if (!exists(BACKUP_EXISTS_SQL)) {
+            migrateToSharedRows();
+        } else if (dropLegacyData) {
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                for (String sql : DROP_LEGACY_SQL) {
+                    jdbcTemplate.execute(sql);
+                }
+            });
+            logger.info("Dropped the legacy notification read column and notifications_legacy");
+        }
+    }
+
+    private void migrateToSharedRows() {
+        long start = System.currentTimeMillis();
+        Long before = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM notifications", Long.class);
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            for (String sql : MIGRATION_SQL) {
+                jdbcTemplate.execute(sql);
+            }
+        });
+
+        Long after = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM notifications", Long.class);
+        logger.info("Migrated notifications to shared rows: {} rows before, {} after, in {} ms",
+                before, after, System.currentTimeMillis() - start);
+    }
+
+    private boolean exists(String sql) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(sql, Boolean.class));
+    }
+}
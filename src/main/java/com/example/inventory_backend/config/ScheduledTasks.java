@@ -1,28 +1,46 @@
 package com.example.inventory_backend.config;
 
 import com.example.inventory_backend.model.Company;
-import com.example.inventory_backend.model.Inventory;
 import com.example.inventory_backend.model.StatsSnapshot;
 import com.example.inventory_backend.repository.CompanyRepository;
+import com.example.inventory_backend.repository.CompanyStatsAggregate;
 import com.example.inventory_backend.repository.StatsSnapshotRepository;
-import com.example.inventory_backend.service.CategoryService;
-import com.example.inventory_backend.service.InventoryService;
-import com.example.inventory_backend.service.ProductService;
-import com.example.inventory_backend.service.SupplierService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Component
 public class ScheduledTasks {
 
     private static final Logger logger = LoggerFactory.getLogger(ScheduledTasks.class);
 
+    // Tenants slower than this are logged individually
+    private static final long SLOW_TENANT_MS = 1000;
+
     @Autowired
     private CompanyRepository companyRepository;
 
@@ -30,54 +48,161 @@ public class ScheduledTasks {
     private StatsSnapshotRepository statsSnapshotRepository;
 
     @Autowired
-    private ProductService productService;
-
-    @Autowired
-    private CategoryService categoryService;
-
-    @Autowired
-    private SupplierService supplierService;
+    private MeterRegistry meterRegistry;
 
     @Autowired
-    private InventoryService inventoryService;
+    private PlatformTransactionManager transactionManager;
+
+    // Tenants aggregated at the same time; keep below the connection pool size
+    @Value("${app.stats.snapshot-concurrency:8}")
+    private int snapshotConcurrency;
+
+    @Value("${app.stats.snapshot-batch-size:500}")
+    private int snapshotBatchSize;
+
+    private final AtomicInteger tenantsTotal = new AtomicInteger();
+    private final AtomicInteger tenantsDone = new AtomicInteger();
+
+    private Timer jobTimer;
+    private Timer tenantTimer;
+    private Counter failureCounter;
+    private TransactionTemplate writeTemplate;
+
+    @PostConstruct
+    public void registerMetrics() {
+        // Each write is all or nothing, so a failed batch can be retried row by row without duplicates
+        writeTemplate = new TransactionTemplate(transactionManager);
+
+        jobTimer = Timer.builder("stats.snapshot.job.duration")
+                .description("Duration of the daily stats snapshot job")
+                .register(meterRegistry);
+        tenantTimer = Timer.builder("stats.snapshot.tenant.duration")
+                .description("Time spent aggregating one tenant's snapshot")
+                .register(meterRegistry);
+        failureCounter = Counter.builder("stats.snapshot.failures")
+                .description("Tenants whose daily snapshot could not be recorded")
+                .register(meterRegistry);
+        Gauge.builder("stats.snapshot.job.tenants.total", tenantsTotal, AtomicInteger::get)
+                .description("Tenants to snapshot in the current or last run")
+                .register(meterRegistry);
+        Gauge.builder("stats.snapshot.job.tenants.done", tenantsDone, AtomicInteger::get)
+                .description("Tenants processed so far in the current or last run")
+                .register(meterRegistry);
+    }
 
     // Run every day at midnight
     @Scheduled(cron = "0 0 0 * * ?")
     public void recordDailyStats() {
         logger.info("Starting daily stats snapshot recording...");
+        Timer.Sample jobSample = Timer.start(meterRegistry);
 
-        List<Company> companies = companyRepository.findAll();
         LocalDate today = LocalDate.now();
 
-        for (Company company : companies) {
-            try {
-                // Skip if snapshot already exists for today
-                if (statsSnapshotRepository.existsByCompanyAndSnapshotDate(company, today)) {
-                    logger.debug("Snapshot already exists for company {} on {}", company.getName(), today);
-                    continue;
+        // Skip tenants that already have a snapshot for today
+        Set<Long> alreadyRecorded = new HashSet<>(statsSnapshotRepository.findCompanyIdsBySnapshotDate(today));
+        List<Long> companyIds = companyRepository.findAllIds().stream()
+                .filter(id -> !alreadyRecorded.contains(id))
+                .toList();
+
+        tenantsTotal.set(companyIds.size());
+        tenantsDone.set(0);
+
+        // Aggregation is I/O bound, so each tenant gets a virtual thread and the semaphore caps
+        // how many of them hold a database connection at once
+        Semaphore permits = new Semaphore(snapshotConcurrency);
+        int recorded = 0;
+        int failed = 0;
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            CompletionService<StatsSnapshot> completions = new ExecutorCompletionService<>(executor);
+            for (Long companyId : companyIds) {
+                completions.submit(() -> {
+                    permits.acquire();
+                    try {
+                        return buildSnapshot(companyId, today);
+                    } finally {
+                        permits.release();
+                    }
+                });
+            }
+
+            // Collect results as they finish and write them in batches
+            List<StatsSnapshot> batch = new ArrayList<>(snapshotBatchSize);
+            for (int i = 0; i < companyIds.size(); i++) {
+                try {
+                    batch.add(completions.take().get());
+                } catch (ExecutionException e) {
+                    failed++;
+                    failureCounter.increment();
+                    logger.error("Failed to compute stats snapshot", e.getCause());
+                } finally {
+                    tenantsDone.incrementAndGet();
                 }
 
-                StatsSnapshot snapshot = new StatsSnapshot();
-                snapshot.setCompany(company);
-                snapshot.setSnapshotDate(today);
-                snapshot.setTotalProducts(productService.getAllProducts(company).size());
-                snapshot.setTotalCategories(categoryService.getAllCategories(company).size());
-                snapshot.setTotalSuppliers(supplierService.getAllSuppliers(company).size());
-                snapshot.setLowStockItems(inventoryService.getLowStockItems(company).size());
+                if (batch.size() >= snapshotBatchSize) {
+                    recorded += writeBatch(batch);
+                }
+            }
+            recorded += writeBatch(batch);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.warn("Daily stats snapshot recording interrupted");
+        }
 
-                int totalQuantity = inventoryService.getAllInventory(company).stream()
-                        .mapToInt(Inventory::getQuantity)
-                        .sum();
-                snapshot.setTotalInventoryQuantity(totalQuantity);
+        long elapsedNanos = jobSample.stop(jobTimer);
+        logger.info("Daily stats snapshot recording completed: {} recorded, {} failed, {} skipped in {} ms",
+                recorded, failed, alreadyRecorded.size(), elapsedNanos / 1_000_000);
+    }
 
-                statsSnapshotRepository.save(snapshot);
-                logger.info("Recorded stats snapshot for company: {}", company.getName());
+    private StatsSnapshot buildSnapshot(Long companyId, LocalDate date) {
+        long start = System.nanoTime();
+
+        // Counted in the database rather than by loading the tenant's rows
+        CompanyStatsAggregate stats = companyRepository.aggregateStatsByCompanyId(companyId)
+                .orElseThrow(() -> new IllegalStateException("Company not found: " + companyId));
+
+        Company company = new Company();
+        company.setId(companyId);
+
+        StatsSnapshot snapshot = new StatsSnapshot();
+        snapshot.setCompany(company);
+        snapshot.setSnapshotDate(date);
+        snapshot.setTotalProducts((int) stats.getTotalProducts());
+        snapshot.setTotalCategories((int) stats.getTotalCategories());
+        snapshot.setTotalSuppliers((int) stats.getTotalSuppliers());
+        snapshot.setLowStockItems((int) stats.getLowStockItems());
+        snapshot.setTotalInventoryQuantity((int) stats.getTotalQuantity());
+
+        long elapsedNanos = System.nanoTime() - start;
+        tenantTimer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+        if (elapsedNanos / 1_000_000 > SLOW_TENANT_MS) {
+            logger.warn("Stats snapshot for company {} took {} ms", companyId, elapsedNanos / 1_000_000);
+        }
+        return snapshot;
+    }
 
-            } catch (Exception e) {
-                logger.error("Failed to record stats snapshot for company: {}", company.getName(), e);
+    private int writeBatch(List<StatsSnapshot> batch) {
+        int size = batch.size();
+        try {
+            writeTemplate.executeWithoutResult(status -> statsSnapshotRepository.insertBatch(batch));
+            return size;
+        } catch (RuntimeException e) {
+            // A single bad row (e.g. its company was deleted meanwhile) must not lose the whole batch
+            logger.warn("Batch insert of {} stats snapshots failed, retrying one by one: {}", size, e.getMessage());
+            int written = 0;
+            for (StatsSnapshot snapshot : batch) {
+                try {
+                    writeTemplate.executeWithoutResult(status -> statsSnapshotRepository.insertBatch(List.of(snapshot)));
+                    written++;
+                } catch (RuntimeException rowError) {
+                    failureCounter.increment();
+                    logger.error("Failed to write stats snapshot for company {}: {}",
+                            snapshot.getCompany().getId(), rowError.getMessage());
+                }
             }
+            return written;
+        } finally {
+            batch.clear();
         }
-
-        logger.info("Daily stats snapshot recording completed");
     }
 }
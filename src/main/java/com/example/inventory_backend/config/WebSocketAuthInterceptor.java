@@ -1,6 +1,8 @@
 package com.example.inventory_backend.config;
 
-import com.example.inventory_backend.security.JwtUtils;
+import com.example.inventory_backend.security.JwtPrincipalResolver;
+import com.example.inventory_backend.security.StompAuthenticationToken;
+import com.example.inventory_backend.security.UserDetailsImpl;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -10,10 +12,7 @@ import org.springframework.messaging.simp.stomp.StompCommand;
 import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
 import org.springframework.messaging.support.ChannelInterceptor;
 import org.springframework.messaging.support.MessageHeaderAccessor;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
@@ -24,10 +23,7 @@ public class WebSocketAuthInterceptor implements ChannelInterceptor {
     private static final Logger logger = LoggerFactory.getLogger(WebSocketAuthInterceptor.class);
 
     @Autowired
-    private JwtUtils jwtUtils;
-
-    @Autowired
-    private UserDetailsService userDetailsService;
+    private JwtPrincipalResolver principalResolver;
 
     @Override
     public Message<?> preSend(Message<?> message, MessageChannel channel) {
@@ -45,21 +41,16 @@ public class WebSocketAuthInterceptor implements ChannelInterceptor {
                     token = token.substring(7);
                 }
 
-                if (jwtUtils.validateJwtToken(token)) {
-                    String username = jwtUtils.getUserNameFromJwtToken(token);
-                    logger.debug("JWT valid, username: {}", username);
-                    UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+                UserDetailsImpl userDetails = principalResolver.resolve(token);
+                if (userDetails != null) {
+                    logger.debug("JWT valid, user id: {}", userDetails.getId());
 
-                    UsernamePasswordAuthenticationToken authentication =
-                        new UsernamePasswordAuthenticationToken(
-                            userDetails,
-                            null,
-                            userDetails.getAuthorities()
-                        );
+                    // Named by user ID so that /user/queue/... messages reach exactly this user
+                    StompAuthenticationToken authentication = new StompAuthenticationToken(userDetails);
 
                     SecurityContextHolder.getContext().setAuthentication(authentication);
                     accessor.setUser(authentication);
-                    logger.info("WebSocket authenticated for user: {}", username);
+                    logger.info("WebSocket authenticated for user: {}", userDetails.getEmail());
                 } else {
                     logger.warn("Invalid JWT token for WebSocket connection");
                 }
@@ -12,6 +12,7 @@ import com.example.inventory_backend.dto.UserDTO;
 import com.example.inventory_backend.model.Company;
 import com.example.inventory_backend.model.User;
 import com.example.inventory_backend.security.SecurityUtils;
+import com.example.inventory_backend.security.TokenVersionService;
 import com.example.inventory_backend.service.CompanyService;
 import com.example.inventory_backend.service.NotificationService;
 import com.example.inventory_backend.service.UserService;
@@ -32,8 +33,11 @@ public class AdminUserController {
     @Autowired
     private NotificationService notificationService;
 
+    @Autowired
+    private TokenVersionService tokenVersionService;
+
     private Company getCurrentCompany() {
-        return companyService.getCompanyById(SecurityUtils.getCurrentCompanyId());
+        return companyService.getCompanyReference(SecurityUtils.getCurrentCompanyId());
     }
 
     @GetMapping
@@ -91,14 +95,20 @@ public class AdminUserController {
                     return ResponseEntity.badRequest().body(
                             "At least one administrator is required. Promote another user to admin before demoting this one.");
                 }
+                if (existingUser.getRole() != newRole) {
+                    // Tokens carry the role, so outstanding ones must not keep the old one
+                    tokenVersionService.revoke(existingUser);
+                }
                 existingUser.setRole(newRole);
             }
             
             if (userDTO.getPassword() != null && !userDTO.getPassword().isEmpty()) {
                 existingUser.setPassword(passwordEncoder.encode(userDTO.getPassword()));
+                tokenVersionService.revoke(existingUser);
             }
             
             User updatedUser = userService.createUser(existingUser);
+            tokenVersionService.evict(updatedUser.getId());
 
             return ResponseEntity.ok(convertToDTO(updatedUser));
         } catch (Exception e) {
@@ -123,6 +133,7 @@ public class AdminUserController {
             }
             
             userService.deleteUser(id);
+            tokenVersionService.evict(id);
             return ResponseEntity.noContent().build();
         } catch (Exception e) {
             return ResponseEntity.badRequest().body("Error deleting user: " + e.getMessage());
@@ -39,7 +39,7 @@ public class CategoryController {
     
     private Company getCurrentCompany() {
         Long companyId = SecurityUtils.getCurrentCompanyId();
-        return companyService.getCompanyById(companyId);
+        return companyService.getCompanyReference(companyId);
     }
 
     @GetMapping
@@ -81,7 +81,7 @@ public class CategoryController {
 
         // Broadcast to all users in the company
         CategoryDTO savedDTO = convertToDTO(savedCategory);
-        broadcastService.broadcastCreate(company.getId(), "CATEGORY", savedDTO);
+        broadcastService.broadcastCreate(company.getId(), "CATEGORY", savedDTO.getId(), savedDTO);
 
         return new ResponseEntity<>(savedDTO, HttpStatus.CREATED);
     }
@@ -99,7 +99,7 @@ public class CategoryController {
             CategoryDTO updatedDTO = convertToDTO(updatedCategory);
 
             // Broadcast to all users in the company
-            broadcastService.broadcastUpdate(company.getId(), "CATEGORY", updatedDTO);
+            broadcastService.broadcastUpdate(company.getId(), "CATEGORY", updatedDTO.getId(), updatedDTO);
 
             return ResponseEntity.ok(updatedDTO);
         } catch (RuntimeException e) {
@@ -6,6 +6,7 @@ import com.example.inventory_backend.security.SecurityUtils;
 import com.example.inventory_backend.service.ChatService;
 import com.example.inventory_backend.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -23,6 +24,9 @@ public class ChatController {
     @Autowired
     private UserService userService;
 
+    @Value("${app.chat.page-max-size:200}")
+    private int pageMaxSize;
+
     private User getCurrentUser() {
         return userService.getUserById(SecurityUtils.getCurrentUserId());
     }
@@ -85,6 +89,25 @@ public class ChatController {
         }
     }
     
+    // Cursor pages of history: the newest messages by default, then before=<oldest id> to scroll back
+    // or after=<newest id> to catch up; each page costs the same however long the chat is
+    @GetMapping("/{chatId}/messages/page")
+    public ResponseEntity<ChatMessagePageDTO> getChatMessagePage(
+            @PathVariable Long chatId,
+            @RequestParam(required = false) Long before,
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "50") int limit) {
+        try {
+            User currentUser = getCurrentUser();
+            int pageSize = Math.max(1, Math.min(limit, pageMaxSize));
+            return ResponseEntity.ok(chatService.getChatMessagePage(chatId, before, after, pageSize, currentUser));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+    
     @PostMapping("/{chatId}/messages")
     public ResponseEntity<ChatMessageDTO> sendMessage(
             @PathVariable Long chatId, 
@@ -1,17 +1,32 @@
 package com.example.inventory_backend.controller;
 
+import com.example.inventory_backend.dto.ExportJobDTO;
+import com.example.inventory_backend.dto.TransactionFilterDTO;
 import com.example.inventory_backend.model.Company;
+import com.example.inventory_backend.model.Transaction;
 import com.example.inventory_backend.service.CompanyService;
+import com.example.inventory_backend.service.CsvExportService;
 import com.example.inventory_backend.security.SecurityUtils;
+import com.example.inventory_backend.service.ExportJobService;
 import com.example.inventory_backend.service.ExportService;
+import com.example.inventory_backend.service.ExportService.ExportType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/api/export")
@@ -19,102 +34,191 @@ public class ExportController {
 
     private static final Logger log = LoggerFactory.getLogger(ExportController.class);
 
+    private static final MediaType EXCEL_MEDIA_TYPE =
+            MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
+    private static final MediaType CSV_MEDIA_TYPE = MediaType.parseMediaType("text/csv; charset=UTF-8");
+    private static final MediaType GZIP_MEDIA_TYPE = MediaType.parseMediaType("application/gzip");
+
     @Autowired
     private ExportService exportService;
 
+    @Autowired
+    private CsvExportService csvExportService;
+
+    @Autowired
+    private ExportJobService exportJobService;
+
     @Autowired
     private CompanyService companyService;
-    
+
     private Company getCurrentCompany() {
         Long companyId = SecurityUtils.getCurrentCompanyId();
-        return companyService.getCompanyById(companyId);
+        return companyService.getCompanyReference(companyId);
     }
 
     @GetMapping("/excel")
-    public ResponseEntity<byte[]> exportAll() {
-        try {
-            Company company = getCurrentCompany();
-            byte[] excelContent = exportService.exportAllToExcel(company);
-            
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"));
-            headers.setContentDispositionFormData("attachment", "inventory_export.xlsx");
-            headers.setCacheControl("must-revalidate, post-check=0, pre-check=0");
-            
-            return new ResponseEntity<>(excelContent, headers, HttpStatus.OK);
-        } catch (Throwable t) {
-            log.error("Export failed", t);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .contentType(MediaType.TEXT_PLAIN)
-                    .body(("Export failed: " + t.getClass().getSimpleName() + " - " + t.getMessage()).getBytes());
-        }
+    public ResponseEntity<StreamingResponseBody> exportAll() {
+        return excelResponse(ExportType.ALL);
     }
 
     @GetMapping("/products")
-    public ResponseEntity<byte[]> exportProducts() {
+    public ResponseEntity<StreamingResponseBody> exportProducts() {
+        return excelResponse(ExportType.PRODUCTS);
+    }
+
+    @GetMapping("/suppliers")
+    public ResponseEntity<StreamingResponseBody> exportSuppliers() {
+        return excelResponse(ExportType.SUPPLIERS);
+    }
+
+    @GetMapping("/inventory")
+    public ResponseEntity<StreamingResponseBody> exportInventory() {
+        return excelResponse(ExportType.INVENTORY);
+    }
+
+    @GetMapping("/categories")
+    public ResponseEntity<StreamingResponseBody> exportCategories() {
+        return excelResponse(ExportType.CATEGORIES);
+    }
+
+    @GetMapping("/products/csv")
+    public ResponseEntity<StreamingResponseBody> exportProductsCsv(@RequestParam(defaultValue = "false") boolean gzip) {
+        return csvResponse(ExportType.PRODUCTS, gzip);
+    }
+
+    @GetMapping("/suppliers/csv")
+    public ResponseEntity<StreamingResponseBody> exportSuppliersCsv(@RequestParam(defaultValue = "false") boolean gzip) {
+        return csvResponse(ExportType.SUPPLIERS, gzip);
+    }
+
+    @GetMapping("/inventory/csv")
+    public ResponseEntity<StreamingResponseBody> exportInventoryCsv(@RequestParam(defaultValue = "false") boolean gzip) {
+        return csvResponse(ExportType.INVENTORY, gzip);
+    }
+
+    @GetMapping("/categories/csv")
+    public ResponseEntity<StreamingResponseBody> exportCategoriesCsv(@RequestParam(defaultValue = "false") boolean gzip) {
+        return csvResponse(ExportType.CATEGORIES, gzip);
+    }
+
+    @GetMapping("/transactions/csv")
+    public ResponseEntity<StreamingResponseBody> exportTransactionsCsv(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
+            @RequestParam(required = false) String type,
+            @RequestParam(required = false) Long productId,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        TransactionFilterDTO filter = new TransactionFilterDTO();
+        filter.setStart(start);
+        filter.setEnd(end);
+        filter.setProductId(productId);
         try {
-            Company company = getCurrentCompany();
-            byte[] excelContent = exportService.exportProductsToExcel(company);
-            
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"));
-            headers.setContentDispositionFormData("attachment", "products.xlsx");
-            headers.setCacheControl("must-revalidate, post-check=0, pre-check=0");
-            
-            return new ResponseEntity<>(excelContent, headers, HttpStatus.OK);
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+            filter.setType(type != null ? Transaction.TransactionType.valueOf(type.toUpperCase()) : null);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         }
+
+        Company company = getCurrentCompany();
+        return csvResponse("transactions", gzip,
+                out -> csvExportService.exportTransactions(filter, company, out, gzip));
     }
 
-    @GetMapping("/suppliers")
-    public ResponseEntity<byte[]> exportSuppliers() {
+    @PostMapping("/jobs")
+    public ResponseEntity<ExportJobDTO> submitJob(@RequestParam(defaultValue = "all") String type) {
+        ExportType exportType;
+        try {
+            exportType = ExportType.valueOf(type.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+
         try {
-            Company company = getCurrentCompany();
-            byte[] excelContent = exportService.exportSuppliersToExcel(company);
-            
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"));
-            headers.setContentDispositionFormData("attachment", "suppliers.xlsx");
-            headers.setCacheControl("must-revalidate, post-check=0, pre-check=0");
-            
-            return new ResponseEntity<>(excelContent, headers, HttpStatus.OK);
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+            ExportJobDTO job = exportJobService.submit(exportType, getCurrentCompany());
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).build();
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
         }
     }
 
-    @GetMapping("/inventory")
-    public ResponseEntity<byte[]> exportInventory() {
+    @GetMapping("/jobs/{id}")
+    public ResponseEntity<ExportJobDTO> getJob(@PathVariable String id) {
         try {
-            Company company = getCurrentCompany();
-            byte[] excelContent = exportService.exportInventoryToExcel(company);
-            
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"));
-            headers.setContentDispositionFormData("attachment", "inventory.xlsx");
-            headers.setCacheControl("must-revalidate, post-check=0, pre-check=0");
-            
-            return new ResponseEntity<>(excelContent, headers, HttpStatus.OK);
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+            return ResponseEntity.ok(exportJobService.getJob(id, getCurrentCompany()));
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
         }
     }
 
-    @GetMapping("/categories")
-    public ResponseEntity<byte[]> exportCategories() {
+    // Range requests are answered with 206 partial content by Spring's resource handling, so interrupted
+    // downloads can resume. The file never changes once written, so the job ID doubles as the ETag.
+    @GetMapping("/jobs/{id}/download")
+    public ResponseEntity<Resource> downloadJob(@PathVariable String id) {
+        Company company = getCurrentCompany();
+        Path file;
+        ExportJobDTO job;
         try {
-            Company company = getCurrentCompany();
-            byte[] excelContent = exportService.exportCategoriesToExcel(company);
-            
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"));
-            headers.setContentDispositionFormData("attachment", "categories.xlsx");
-            headers.setCacheControl("must-revalidate, post-check=0, pre-check=0");
-            
-            return new ResponseEntity<>(excelContent, headers, HttpStatus.OK);
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+            job = exportJobService.getJob(id, company);
+            file = exportJobService.getJobFile(id, company);
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
         }
+
+        HttpHeaders headers = excelHeaders(job.getType());
+        headers.setETag("\"" + id + "\"");
+        headers.setContentLength(job.getFileSize());
+        return new ResponseEntity<>(new FileSystemResource(file), headers, HttpStatus.OK);
+    }
+
+    // The workbook is written straight to the response on the async request thread, so nothing is buffered
+    // here. The tenant is resolved up front because the security context is not available on that thread.
+    private ResponseEntity<StreamingResponseBody> excelResponse(ExportType type) {
+        Company company = getCurrentCompany();
+
+        StreamingResponseBody body = out -> {
+            try {
+                exportService.export(type, company, out);
+            } catch (IOException | RuntimeException e) {
+                // Rows are only sent once every sheet is built, so failures reading them still end in a 500
+                log.error("Export {} failed for company {}", type, company.getId(), e);
+                throw e;
+            }
+        };
+        return new ResponseEntity<>(body, excelHeaders(type), HttpStatus.OK);
+    }
+
+    private ResponseEntity<StreamingResponseBody> csvResponse(ExportType type, boolean gzip) {
+        Company company = getCurrentCompany();
+        return csvResponse(type.getBaseName(), gzip, out -> csvExportService.export(type, company, out, gzip));
+    }
+
+    // Gzipped exports are served as .csv.gz files rather than with Content-Encoding so clients keep them compressed
+    private ResponseEntity<StreamingResponseBody> csvResponse(String baseName, boolean gzip, StreamingResponseBody export) {
+        String filename = baseName + (gzip ? ".csv.gz" : ".csv");
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(gzip ? GZIP_MEDIA_TYPE : CSV_MEDIA_TYPE);
+        headers.setContentDispositionFormData("attachment", filename);
+        headers.setCacheControl("must-revalidate, post-check=0, pre-check=0");
+
+        StreamingResponseBody body = out -> {
+            try {
+                export.writeTo(out);
+            } catch (IOException | RuntimeException e) {
+                log.error("CSV export {} failed", filename, e);
+                throw e;
+            }
+        };
+        return new ResponseEntity<>(body, headers, HttpStatus.OK);
+    }
+
+    private HttpHeaders excelHeaders(ExportType type) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(EXCEL_MEDIA_TYPE);
+        headers.setContentDispositionFormData("attachment", type.getFilename());
+        headers.setCacheControl("must-revalidate, post-check=0, pre-check=0");
+        return headers;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,51 @@
+package com.example.inventory_backend.controller;
+
+import com.example.inventory_backend.dto.ImportReportDTO;
+import com.example.inventory_backend.dto.MessageResponse;
+import com.example.inventory_backend.model.Company;
+import com.example.inventory_backend.security.SecurityUtils;
+import com.example.inventory_backend.service.CompanyService;
+import com.example.inventory_backend.service.ProductImportService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+@RestController
+@RequestMapping("/api/import")
+public class ImportController {
+
+    private static final Logger log = LoggerFactory.getLogger(ImportController.class);
+
+    @Autowired
+    private ProductImportService productImportService;
+
+    @Autowired
+    private CompanyService companyService;
+
+    private Company getCurrentCompany() {
+        Long companyId = SecurityUtils.getCurrentCompanyId();
+        return companyService.getCompanyReference(companyId);
+    }
+
+    // Upserts products by SKU from a .csv or .xlsx file (header row required) and returns a per-row report
+    @PostMapping(value = "/products", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<?> importProducts(@RequestParam("file") MultipartFile file) {
+        Company company = getCurrentCompany();
+        try (InputStream input = file.getInputStream()) {
+            ImportReportDTO report = productImportService.importProducts(input, file.getOriginalFilename(), company);
+            return ResponseEntity.ok(report);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new MessageResponse("Error: " + e.getMessage()));
+        } catch (IOException e) {
+            log.warn("Could not read import file {}: {}", file.getOriginalFilename(), e.getMessage());
+            return ResponseEntity.badRequest().body(new MessageResponse("Error: Could not read file - " + e.getMessage()));
+        }
+    }
+}
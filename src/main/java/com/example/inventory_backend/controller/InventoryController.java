@@ -8,11 +8,14 @@ import com.example.inventory_backend.service.CompanyService;
 import com.example.inventory_backend.security.SecurityUtils;
 import com.example.inventory_backend.service.EntityBroadcastService;
 import com.example.inventory_backend.service.InventoryService;
+import com.example.inventory_backend.service.JsonStreamWriter;
 import com.example.inventory_backend.service.ProductService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import java.util.Map;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -30,6 +33,9 @@ public class InventoryController {
     @Autowired
     private EntityBroadcastService broadcastService;
 
+    @Autowired
+    private JsonStreamWriter jsonStreamWriter;
+
     @Autowired
     public InventoryController(InventoryService inventoryService, ProductService productService) {
         this.inventoryService = inventoryService;
@@ -38,14 +44,21 @@ public class InventoryController {
     
     private Company getCurrentCompany() {
         Long companyId = SecurityUtils.getCurrentCompanyId();
-        return companyService.getCompanyById(companyId);
+        return companyService.getCompanyReference(companyId);
     }
 
     @GetMapping
     public List<InventoryDTO> getAllInventory() {
         Company company = getCurrentCompany();
-        List<Inventory> inventoryList = inventoryService.getAllInventory(company);
-        return inventoryList.stream().map(this::convertToDTO).collect(Collectors.toList());
+        return inventoryService.getAllInventoryDTOs(company);
+    }
+
+    @GetMapping(params = "stream=true")
+    public ResponseEntity<StreamingResponseBody> streamAllInventory() {
+        Company company = getCurrentCompany();
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(jsonStreamWriter.writeArray(() -> inventoryService.streamAllInventory(company), this::convertToDTO));
     }
 
     @GetMapping("/{id}")
@@ -74,8 +87,7 @@ public class InventoryController {
     @GetMapping("/low-stock")
     public List<InventoryDTO> getLowStockItems() {
         Company company = getCurrentCompany();
-        List<Inventory> lowStockItems = inventoryService.getLowStockItems(company);
-        return lowStockItems.stream().map(this::convertToDTO).collect(Collectors.toList());
+        return inventoryService.getLowStockItemDTOs(company);
     }
     
     @GetMapping("/check-stock")
@@ -92,7 +104,7 @@ public class InventoryController {
             Inventory inventory = convertToEntity(inventoryDTO, company);
             Inventory savedInventory = inventoryService.saveInventory(inventory, company);
             InventoryDTO savedDTO = convertToDTO(savedInventory);
-            broadcastService.broadcastCreate(company.getId(), "INVENTORY", savedDTO);
+            broadcastService.broadcastCreate(company.getId(), "INVENTORY", savedDTO.getId(), savedDTO);
             return new ResponseEntity<>(savedDTO, HttpStatus.CREATED);
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().build();
@@ -112,7 +124,7 @@ public class InventoryController {
 
             Inventory updatedInventory = inventoryService.saveInventory(existingInventory, company);
             InventoryDTO updatedDTO = convertToDTO(updatedInventory);
-            broadcastService.broadcastUpdate(company.getId(), "INVENTORY", updatedDTO);
+            broadcastService.broadcastUpdate(company.getId(), "INVENTORY", updatedDTO.getId(), updatedDTO);
             return ResponseEntity.ok(updatedDTO);
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
@@ -131,7 +143,7 @@ public class InventoryController {
             }
             Inventory updatedInventory = inventoryService.updateQuantity(productId, quantityChange, company);
             InventoryDTO updatedDTO = convertToDTO(updatedInventory);
-            broadcastService.broadcastUpdate(company.getId(), "INVENTORY", updatedDTO);
+            broadcastService.broadcastUpdate(company.getId(), "INVENTORY", updatedDTO.getId(), updatedDTO);
             return ResponseEntity.ok(updatedDTO);
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
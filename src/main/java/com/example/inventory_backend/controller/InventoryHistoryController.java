@@ -23,7 +23,7 @@ public class InventoryHistoryController {
     
     private Company getCurrentCompany() {
         Long companyId = SecurityUtils.getCurrentCompanyId();
-        return companyService.getCompanyById(companyId);
+        return companyService.getCompanyReference(companyId);
     }
 
     @GetMapping
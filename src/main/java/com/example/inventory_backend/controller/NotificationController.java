@@ -39,7 +39,8 @@ public class NotificationController {
     
     @PutMapping("/{id}/read")
     public ResponseEntity<Void> markAsRead(@PathVariable Long id) {
-        notificationService.markAsRead(id);
+        Long userId = SecurityUtils.getCurrentUserId();
+        notificationService.markAsRead(id, userId);
         return ResponseEntity.ok().build();
     }
     
@@ -52,7 +53,8 @@ public class NotificationController {
     
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteNotification(@PathVariable Long id) {
-        notificationService.deleteNotification(id);
+        Long userId = SecurityUtils.getCurrentUserId();
+        notificationService.deleteNotification(id, userId);
         return ResponseEntity.noContent().build();
     }
 }
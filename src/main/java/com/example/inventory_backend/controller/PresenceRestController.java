@@ -49,7 +49,7 @@ public class PresenceRestController {
         Map<String, Object> presence = new HashMap<>();
         presence.put("userId", userId);
         presence.put("online", userPresenceService.isUserOnline(userId));
-        presence.put("lastSeen", targetUser.getLastSeen());
+        presence.put("lastSeen", userPresenceService.getLastSeen(userId, targetUser.getLastSeen()));
 
         return ResponseEntity.ok(presence);
     }
@@ -57,9 +57,9 @@ public class PresenceRestController {
     @PostMapping("/heartbeat")
     public ResponseEntity<?> heartbeat(Authentication authentication) {
         UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
-        User currentUser = userService.getUserById(userDetails.getId());
 
-        userPresenceService.updateHeartbeat(currentUser);
+        // The authenticated principal already carries the ID, so the heartbeat needs no user lookup
+        userPresenceService.updateHeartbeat(userDetails.getId());
 
         Map<String, Object> response = new HashMap<>();
         response.put("status", "ok");
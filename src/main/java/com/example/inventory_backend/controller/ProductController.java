@@ -9,13 +9,16 @@ import com.example.inventory_backend.service.CompanyService;
 import com.example.inventory_backend.security.SecurityUtils;
 import com.example.inventory_backend.service.CategoryService;
 import com.example.inventory_backend.service.EntityBroadcastService;
+import com.example.inventory_backend.service.JsonStreamWriter;
 import com.example.inventory_backend.service.NotificationService;
 import com.example.inventory_backend.service.ProductService;
 import com.example.inventory_backend.service.SupplierService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.math.BigDecimal;
 import java.util.List;
@@ -38,6 +41,9 @@ public class ProductController {
     @Autowired
     private EntityBroadcastService broadcastService;
 
+    @Autowired
+    private JsonStreamWriter jsonStreamWriter;
+
     @Autowired
     public ProductController(ProductService productService, CategoryService categoryService, SupplierService supplierService) {
         this.productService = productService;
@@ -47,14 +53,21 @@ public class ProductController {
     
     private Company getCurrentCompany() {
         Long companyId = SecurityUtils.getCurrentCompanyId();
-        return companyService.getCompanyById(companyId);
+        return companyService.getCompanyReference(companyId);
     }
     
     @GetMapping
     public List<ProductDTO> getAllProducts() {
         Company company = getCurrentCompany();
-        List<Product> products = productService.getAllProducts(company);
-        return products.stream().map(this::convertToDTO).collect(Collectors.toList());
+        return productService.getAllProductDTOs(company);
+    }
+
+    @GetMapping(params = "stream=true")
+    public ResponseEntity<StreamingResponseBody> streamAllProducts() {
+        Company company = getCurrentCompany();
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(jsonStreamWriter.writeArray(() -> productService.streamAllProducts(company), this::convertToDTO));
     }
 
     @GetMapping("/{id}")
@@ -126,7 +139,7 @@ public class ProductController {
         notificationService.notifyNewProduct(savedProduct.getId(), savedProduct.getName(), company);
 
         ProductDTO savedDTO = convertToDTO(savedProduct);
-        broadcastService.broadcastCreate(company.getId(), "PRODUCT", savedDTO);
+        broadcastService.broadcastCreate(company.getId(), "PRODUCT", savedDTO.getId(), savedDTO);
 
         return new ResponseEntity<>(savedDTO, HttpStatus.CREATED);
     }
@@ -158,7 +171,7 @@ public class ProductController {
             
             Product updatedProduct = productService.saveProduct(existingProduct, company);
             ProductDTO updatedDTO = convertToDTO(updatedProduct);
-            broadcastService.broadcastUpdate(company.getId(), "PRODUCT", updatedDTO);
+            broadcastService.broadcastUpdate(company.getId(), "PRODUCT", updatedDTO.getId(), updatedDTO);
             return ResponseEntity.ok(updatedDTO);
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
@@ -2,8 +2,8 @@ package com.example.inventory_backend.controller;
 
 import com.example.inventory_backend.dto.InventoryHistoryDTO;
 import com.example.inventory_backend.dto.StatsSnapshotDTO;
+import com.example.inventory_backend.dto.StatsSummaryDTO;
 import com.example.inventory_backend.model.Company;
-import com.example.inventory_backend.model.Inventory;
 import com.example.inventory_backend.model.StatsSnapshot;
 import com.example.inventory_backend.security.SecurityUtils;
 import com.example.inventory_backend.service.*;
@@ -21,16 +21,7 @@ import java.util.Map;
 public class StatsController {
 
     @Autowired
-    private ProductService productService;
-
-    @Autowired
-    private CategoryService categoryService;
-
-    @Autowired
-    private SupplierService supplierService;
-
-    @Autowired
-    private InventoryService inventoryService;
+    private StatsCounterService statsCounterService;
 
     @Autowired
     private InventoryHistoryService historyService;
@@ -42,23 +33,24 @@ public class StatsController {
     private StatsSnapshotService statsSnapshotService;
 
     private Company getCurrentCompany() {
-        return companyService.getCompanyById(SecurityUtils.getCurrentCompanyId());
+        return companyService.getCompanyReference(SecurityUtils.getCurrentCompanyId());
     }
 
     @GetMapping("/summary")
     public ResponseEntity<Map<String, Object>> getSummaryStats() {
         Company company = getCurrentCompany();
         
-        Map<String, Object> stats = new HashMap<>();
-        stats.put("totalProducts", productService.getAllProducts(company).size());
-        stats.put("totalCategories", categoryService.getAllCategories(company).size());
-        stats.put("totalSuppliers", supplierService.getAllSuppliers(company).size());
-        stats.put("lowStockItems", inventoryService.getLowStockItems(company).size());
+        StatsSummaryDTO summary = statsCounterService.getSummary(company);
         
-        int totalInventory = inventoryService.getAllInventory(company).stream()
-                .mapToInt(Inventory::getQuantity)
-                .sum();
-        stats.put("totalInventoryValue", totalInventory);
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("totalProducts", summary.getTotalProducts());
+        stats.put("totalCategories", summary.getTotalCategories());
+        stats.put("totalSuppliers", summary.getTotalSuppliers());
+        stats.put("lowStockItems", summary.getLowStockItems());
+        // Historically the summed quantity; kept under this key for existing clients
+        stats.put("totalInventoryValue", summary.getTotalQuantity());
+        stats.put("totalInventoryQuantity", summary.getTotalQuantity());
+        stats.put("totalStockValue", summary.getTotalValue());
         
         return ResponseEntity.ok(stats);
     }
@@ -100,15 +92,12 @@ public class StatsController {
     }
 
     private void updateSnapshotData(StatsSnapshot snapshot, Company company) {
-        snapshot.setTotalProducts(productService.getAllProducts(company).size());
-        snapshot.setTotalCategories(categoryService.getAllCategories(company).size());
-        snapshot.setTotalSuppliers(supplierService.getAllSuppliers(company).size());
-        snapshot.setLowStockItems(inventoryService.getLowStockItems(company).size());
-
-        int totalQuantity = inventoryService.getAllInventory(company).stream()
-                .mapToInt(Inventory::getQuantity)
-                .sum();
-        snapshot.setTotalInventoryQuantity(totalQuantity);
+        StatsSummaryDTO summary = statsCounterService.getSummary(company);
+        snapshot.setTotalProducts((int) summary.getTotalProducts());
+        snapshot.setTotalCategories((int) summary.getTotalCategories());
+        snapshot.setTotalSuppliers((int) summary.getTotalSuppliers());
+        snapshot.setLowStockItems((int) summary.getLowStockItems());
+        snapshot.setTotalInventoryQuantity((int) summary.getTotalQuantity());
     }
 
     private StatsSnapshotDTO convertToDTO(StatsSnapshot snapshot) {
@@ -38,7 +38,7 @@ public class SupplierController {
     
     private Company getCurrentCompany() {
         Long companyId = SecurityUtils.getCurrentCompanyId();
-        return companyService.getCompanyById(companyId);
+        return companyService.getCompanyReference(companyId);
     }
 
     @GetMapping
@@ -77,7 +77,7 @@ public class SupplierController {
         notificationService.notifyNewSupplier(savedSupplier.getId(), savedSupplier.getName(), company);
 
         SupplierDTO savedDTO = convertToDTO(savedSupplier);
-        broadcastService.broadcastCreate(company.getId(), "SUPPLIER", savedDTO);
+        broadcastService.broadcastCreate(company.getId(), "SUPPLIER", savedDTO.getId(), savedDTO);
 
         return new ResponseEntity<>(savedDTO, HttpStatus.CREATED);
     }
@@ -96,7 +96,7 @@ public class SupplierController {
 
             Supplier updatedSupplier = supplierService.saveSupplier(existingSupplier, company);
             SupplierDTO updatedDTO = convertToDTO(updatedSupplier);
-            broadcastService.broadcastUpdate(company.getId(), "SUPPLIER", updatedDTO);
+            broadcastService.broadcastUpdate(company.getId(), "SUPPLIER", updatedDTO.getId(), updatedDTO);
             return ResponseEntity.ok(updatedDTO);
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
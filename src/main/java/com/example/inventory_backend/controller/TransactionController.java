@@ -1,16 +1,24 @@
 package com.example.inventory_backend.controller;
 
+import com.example.inventory_backend.dto.CursorPageDTO;
+import com.example.inventory_backend.dto.TransactionBatchRequestDTO;
+import com.example.inventory_backend.dto.TransactionBatchResponseDTO;
 import com.example.inventory_backend.dto.TransactionDTO;
+import com.example.inventory_backend.dto.TransactionFilterDTO;
 import com.example.inventory_backend.model.Company;
 import com.example.inventory_backend.model.Transaction;
 import com.example.inventory_backend.service.CompanyService;
 import com.example.inventory_backend.security.SecurityUtils;
+import com.example.inventory_backend.service.JsonStreamWriter;
 import com.example.inventory_backend.service.TransactionService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -26,16 +34,62 @@ public class TransactionController {
     @Autowired
     private CompanyService companyService;
     
+    @Autowired
+    private JsonStreamWriter jsonStreamWriter;
+    
+    @Value("${app.transactions.batch-max-size:5000}")
+    private int batchMaxSize;
+    
+    @Value("${app.transactions.page-max-size:500}")
+    private int pageMaxSize;
+    
     private Company getCurrentCompany() {
         Long companyId = SecurityUtils.getCurrentCompanyId();
-        return companyService.getCompanyById(companyId);
+        return companyService.getCompanyReference(companyId);
     }
 
     @GetMapping
     public List<TransactionDTO> getAllTransactions() {
         Company company = getCurrentCompany();
-        List<Transaction> transactions = transactionService.getAllTransactions(company);
-        return transactions.stream().map(this::convertToDTO).collect(Collectors.toList());
+        return transactionService.getAllTransactionDTOs(company);
+    }
+
+    @GetMapping(params = "stream=true")
+    public ResponseEntity<StreamingResponseBody> streamAllTransactions() {
+        Company company = getCurrentCompany();
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(jsonStreamWriter.writeArray(() -> transactionService.streamAllTransactions(company), this::convertToDTO));
+    }
+
+    @GetMapping("/page")
+    public ResponseEntity<CursorPageDTO<TransactionDTO>> getTransactionPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit,
+            @RequestParam(required = false) Long productId,
+            @RequestParam(required = false) String type,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
+            @RequestParam(required = false) Long userId,
+            @RequestParam(required = false) String referenceNumber) {
+        try {
+            Company company = getCurrentCompany();
+            
+            TransactionFilterDTO filter = new TransactionFilterDTO();
+            filter.setProductId(productId);
+            filter.setType(type != null ? Transaction.TransactionType.valueOf(type.toUpperCase()) : null);
+            filter.setStart(start);
+            filter.setEnd(end);
+            filter.setUserId(userId);
+            filter.setReferenceNumber(referenceNumber);
+            
+            int pageSize = Math.max(1, Math.min(limit, pageMaxSize));
+            CursorPageDTO<Transaction> page = transactionService.getTransactionPage(filter, cursor, pageSize, company);
+            List<TransactionDTO> items = page.getItems().stream().map(this::convertToDTO).collect(Collectors.toList());
+            return ResponseEntity.ok(new CursorPageDTO<>(items, page.getNextCursor()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     @GetMapping("/{id}")
@@ -89,6 +143,32 @@ public class TransactionController {
         }
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<TransactionBatchResponseDTO> createTransactions(@RequestBody TransactionBatchRequestDTO request) {
+        List<TransactionDTO> transactions = request.getTransactions();
+        if (transactions == null || transactions.isEmpty() || transactions.size() > batchMaxSize) {
+            return ResponseEntity.badRequest().build();
+        }
+        
+        Company company = getCurrentCompany();
+        Long currentUserId = SecurityUtils.getCurrentUserId();
+        for (TransactionDTO transactionDTO : transactions) {
+            if (transactionDTO != null && transactionDTO.getUserId() == null) {
+                transactionDTO.setUserId(currentUserId);
+            }
+        }
+        
+        TransactionBatchRequestDTO.Mode mode = request.getMode() != null ?
+                request.getMode() : TransactionBatchRequestDTO.Mode.ALL_OR_NOTHING;
+        TransactionBatchResponseDTO response = transactionService.saveTransactions(transactions, mode, company);
+        
+        // An all-or-nothing batch with any failure was rejected as a whole
+        if (mode == TransactionBatchRequestDTO.Mode.ALL_OR_NOTHING && response.getFailed() > 0) {
+            return ResponseEntity.badRequest().body(response);
+        }
+        return ResponseEntity.ok(response);
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteTransaction(@PathVariable Long id) {
         try {
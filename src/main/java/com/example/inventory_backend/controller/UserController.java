@@ -1,18 +1,25 @@
 package com.example.inventory_backend.controller;
 
+import com.example.inventory_backend.dto.JwtResponse;
 import com.example.inventory_backend.dto.UserDTO;
 import com.example.inventory_backend.model.Company;
 import com.example.inventory_backend.model.User;
+import com.example.inventory_backend.security.JwtUtils;
 import com.example.inventory_backend.security.SecurityUtils;
+import com.example.inventory_backend.security.TokenVersionService;
+import com.example.inventory_backend.security.UserDetailsImpl;
 import com.example.inventory_backend.service.CompanyService;
 import com.example.inventory_backend.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 @RestController
@@ -28,8 +35,14 @@ public class UserController {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private TokenVersionService tokenVersionService;
+
+    @Autowired
+    private JwtUtils jwtUtils;
+
     private Company getCurrentCompany() {
-        return companyService.getCompanyById(SecurityUtils.getCurrentCompanyId());
+        return companyService.getCompanyReference(SecurityUtils.getCurrentCompanyId());
     }
 
     @GetMapping
@@ -49,24 +62,7 @@ public class UserController {
 
     @PutMapping("/me")
     public ResponseEntity<UserDTO> updateCurrentUser(@RequestBody UserDTO userDTO) {
-        Long userId = SecurityUtils.getCurrentUserId();
-        User user = userService.getUserById(userId);
-
-        if (userDTO.getName() != null && !userDTO.getName().trim().isEmpty()) {
-            user.setName(userDTO.getName().trim());
-        }
-        if (userDTO.getEmail() != null && !userDTO.getEmail().trim().isEmpty()) {
-            try {
-                User existing = userService.getUserByEmail(userDTO.getEmail().trim());
-                if (!existing.getId().equals(userId)) {
-                    return ResponseEntity.badRequest().build();
-                }
-            } catch (RuntimeException ignored) {}
-            user.setEmail(userDTO.getEmail().trim());
-        }
-
-        User updatedUser = userService.createUser(user);
-        return ResponseEntity.ok(convertToDTO(updatedUser));
+        return updateProfile(SecurityUtils.getCurrentUserId(), userDTO);
     }
 
     @PutMapping("/me/password")
@@ -86,9 +82,13 @@ public class UserController {
         }
 
         user.setPassword(passwordEncoder.encode(newPassword));
-        userService.createUser(user);
+        // Sessions still holding a token issued with the old password are signed out; the caller
+        // continues with the new token in the response
+        tokenVersionService.revoke(user);
+        User updatedUser = userService.createUser(user);
+        tokenVersionService.evict(userId);
 
-        return ResponseEntity.ok().body("Password updated successfully");
+        return ResponseEntity.ok(issueToken(updatedUser));
     }
 
     @GetMapping("/{id}")
@@ -112,7 +112,15 @@ public class UserController {
             return ResponseEntity.status(403).build();
         }
 
-        User user = userService.getUserById(id);
+        return updateProfile(id, userDTO);
+    }
+
+    // Name and email are claims of the user's token, so changing them revokes the tokens issued so far
+    // and returns a new one with the profile
+    private ResponseEntity<UserDTO> updateProfile(Long userId, UserDTO userDTO) {
+        User user = userService.getUserById(userId);
+        String name = user.getName();
+        String email = user.getEmail();
 
         if (userDTO.getName() != null && !userDTO.getName().trim().isEmpty()) {
             user.setName(userDTO.getName().trim());
@@ -120,15 +128,36 @@ public class UserController {
         if (userDTO.getEmail() != null && !userDTO.getEmail().trim().isEmpty()) {
             try {
                 User existing = userService.getUserByEmail(userDTO.getEmail().trim());
-                if (!existing.getId().equals(id)) {
+                if (!existing.getId().equals(userId)) {
                     return ResponseEntity.badRequest().build();
                 }
             } catch (RuntimeException ignored) {}
             user.setEmail(userDTO.getEmail().trim());
         }
 
+        boolean claimsChanged = !Objects.equals(name, user.getName()) || !Objects.equals(email, user.getEmail());
+        if (claimsChanged) {
+            tokenVersionService.revoke(user);
+        }
         User updatedUser = userService.createUser(user);
-        return ResponseEntity.ok(convertToDTO(updatedUser));
+        UserDTO dto = convertToDTO(updatedUser);
+        if (claimsChanged) {
+            tokenVersionService.evict(userId);
+            dto.setToken(issueToken(updatedUser).getToken());
+        }
+        return ResponseEntity.ok(dto);
+    }
+
+    // The same response as a login, for a user whose earlier tokens were just revoked
+    private JwtResponse issueToken(User user) {
+        UserDetailsImpl userDetails = UserDetailsImpl.build(user);
+        String jwt = jwtUtils.generateJwtToken(
+                new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities()));
+        List<String> roles = userDetails.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .collect(Collectors.toList());
+        return new JwtResponse(jwt, userDetails.getId(), userDetails.getUsername(), userDetails.getEmail(),
+                roles, userDetails.getCompanyId(), userDetails.getCompanyName());
     }
 
     private UserDTO convertToDTO(User user) {
@@ -6,6 +6,16 @@ public class CategoryDTO {
     private String description;
     private int productCount;
 
+    public CategoryDTO() {}
+
+    // Used by JPQL constructor expressions in CategoryRepository
+    public CategoryDTO(Long id, String name, String description, long productCount) {
+        this.id = id;
+        this.name = name;
+        this.description = description;
+        this.productCount = (int) productCount;
+    }
+
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
     public String getName() { return name; }
@@ -7,6 +7,7 @@ public class ChatDTO {
     private UserDTO otherParticipant;
     private ChatMessageDTO lastMessage;
     private boolean hasUnread;
+    private int unreadCount;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
     
@@ -18,6 +19,8 @@ public class ChatDTO {
     public void setLastMessage(ChatMessageDTO lastMessage) { this.lastMessage = lastMessage; }
     public boolean isHasUnread() { return hasUnread; }
     public void setHasUnread(boolean hasUnread) { this.hasUnread = hasUnread; }
+    public int getUnreadCount() { return unreadCount; }
+    public void setUnreadCount(int unreadCount) { this.unreadCount = unreadCount; }
     public LocalDateTime getCreatedAt() { return createdAt; }
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
     public LocalDateTime getUpdatedAt() { return updatedAt; }
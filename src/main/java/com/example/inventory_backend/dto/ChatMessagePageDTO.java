@@ -0,0 +1,26 @@
+package com.example.inventory_backend.dto;
+
+import java.util.List;
+
+// A window of chat history in ascending id order. The ids of the first and last message are the
+// cursors for the next older (before=) and newer (after=) page.
+public class ChatMessagePageDTO {
+    private List<ChatMessageDTO> messages;
+    private boolean hasOlder;
+    private boolean hasNewer;
+    
+    public ChatMessagePageDTO() {}
+    
+    public ChatMessagePageDTO(List<ChatMessageDTO> messages, boolean hasOlder, boolean hasNewer) {
+        this.messages = messages;
+        this.hasOlder = hasOlder;
+        this.hasNewer = hasNewer;
+    }
+    
+    public List<ChatMessageDTO> getMessages() { return messages; }
+    public void setMessages(List<ChatMessageDTO> messages) { this.messages = messages; }
+    public boolean isHasOlder() { return hasOlder; }
+    public void setHasOlder(boolean hasOlder) { this.hasOlder = hasOlder; }
+    public boolean isHasNewer() { return hasNewer; }
+    public void setHasNewer(boolean hasNewer) { this.hasNewer = hasNewer; }
+}
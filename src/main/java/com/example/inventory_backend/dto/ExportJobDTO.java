@@ -0,0 +1,51 @@
+package com.example.inventory_backend.dto;
+
+import com.example.inventory_backend.service.ExportService.ExportType;
+
+import java.time.LocalDateTime;
+
+public class ExportJobDTO {
+    private String id;
+    private ExportType type;
+    private Status status;
+    // Sheet currently being filled, null before the first and after the last
+    private String currentSheet;
+    private int sheetsCompleted;
+    private int sheetCount;
+    private long rowsWritten;
+    // Set once the job has completed
+    private Long fileSize;
+    private String error;
+    private LocalDateTime createdAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+
+    public enum Status {
+        QUEUED, RUNNING, COMPLETED, FAILED
+    }
+
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+    public ExportType getType() { return type; }
+    public void setType(ExportType type) { this.type = type; }
+    public Status getStatus() { return status; }
+    public void setStatus(Status status) { this.status = status; }
+    public String getCurrentSheet() { return currentSheet; }
+    public void setCurrentSheet(String currentSheet) { this.currentSheet = currentSheet; }
+    public int getSheetsCompleted() { return sheetsCompleted; }
+    public void setSheetsCompleted(int sheetsCompleted) { this.sheetsCompleted = sheetsCompleted; }
+    public int getSheetCount() { return sheetCount; }
+    public void setSheetCount(int sheetCount) { this.sheetCount = sheetCount; }
+    public long getRowsWritten() { return rowsWritten; }
+    public void setRowsWritten(long rowsWritten) { this.rowsWritten = rowsWritten; }
+    public Long getFileSize() { return fileSize; }
+    public void setFileSize(Long fileSize) { this.fileSize = fileSize; }
+    public String getError() { return error; }
+    public void setError(String error) { this.error = error; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+    public LocalDateTime getStartedAt() { return startedAt; }
+    public void setStartedAt(LocalDateTime startedAt) { this.startedAt = startedAt; }
+    public LocalDateTime getFinishedAt() { return finishedAt; }
+    public void setFinishedAt(LocalDateTime finishedAt) { this.finishedAt = finishedAt; }
+}
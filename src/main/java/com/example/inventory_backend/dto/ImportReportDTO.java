@@ -0,0 +1,36 @@
+package com.example.inventory_backend.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ImportReportDTO {
+    private int totalRows;
+    private int created;
+    private int updated;
+    private int failed;
+    private int categoriesCreated;
+    private int suppliersCreated;
+    private long durationMs;
+    private List<ImportRowErrorDTO> errors = new ArrayList<>();
+    // True when more rows failed than are listed in errors
+    private boolean errorsTruncated;
+    
+    public int getTotalRows() { return totalRows; }
+    public void setTotalRows(int totalRows) { this.totalRows = totalRows; }
+    public int getCreated() { return created; }
+    public void setCreated(int created) { this.created = created; }
+    public int getUpdated() { return updated; }
+    public void setUpdated(int updated) { this.updated = updated; }
+    public int getFailed() { return failed; }
+    public void setFailed(int failed) { this.failed = failed; }
+    public int getCategoriesCreated() { return categoriesCreated; }
+    public void setCategoriesCreated(int categoriesCreated) { this.categoriesCreated = categoriesCreated; }
+    public int getSuppliersCreated() { return suppliersCreated; }
+    public void setSuppliersCreated(int suppliersCreated) { this.suppliersCreated = suppliersCreated; }
+    public long getDurationMs() { return durationMs; }
+    public void setDurationMs(long durationMs) { this.durationMs = durationMs; }
+    public List<ImportRowErrorDTO> getErrors() { return errors; }
+    public void setErrors(List<ImportRowErrorDTO> errors) { this.errors = errors; }
+    public boolean isErrorsTruncated() { return errorsTruncated; }
+    public void setErrorsTruncated(boolean errorsTruncated) { this.errorsTruncated = errorsTruncated; }
+}
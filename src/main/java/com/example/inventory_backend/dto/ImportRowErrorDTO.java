@@ -0,0 +1,23 @@
+package com.example.inventory_backend.dto;
+
+public class ImportRowErrorDTO {
+    // 1-based row number in the uploaded file, header included
+    private int row;
+    private String sku;
+    private String error;
+    
+    public ImportRowErrorDTO() {}
+    
+    public ImportRowErrorDTO(int row, String sku, String error) {
+        this.row = row;
+        this.sku = sku;
+        this.error = error;
+    }
+    
+    public int getRow() { return row; }
+    public void setRow(int row) { this.row = row; }
+    public String getSku() { return sku; }
+    public void setSku(String sku) { this.sku = sku; }
+    public String getError() { return error; }
+    public void setError(String error) { this.error = error; }
+}
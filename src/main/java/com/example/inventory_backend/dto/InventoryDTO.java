@@ -15,6 +15,25 @@ public class InventoryDTO {
     private String location;
     private LocalDateTime lastUpdated;
 
+    public InventoryDTO() {}
+
+    // Used by JPQL constructor expressions in InventoryRepository
+    public InventoryDTO(Long id, Long productId, String productName, String productSku,
+                        String productCategoryName, String productSupplierName, Integer quantity,
+                        Integer reorderLevel, Integer reorderQuantity, String location, LocalDateTime lastUpdated) {
+        this.id = id;
+        this.productId = productId;
+        this.productName = productName;
+        this.productSku = productSku;
+        this.productCategoryName = productCategoryName;
+        this.productSupplierName = productSupplierName;
+        this.quantity = quantity;
+        this.reorderLevel = reorderLevel;
+        this.reorderQuantity = reorderQuantity;
+        this.location = location;
+        this.lastUpdated = lastUpdated;
+    }
+
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
     public Long getProductId() { return productId; }
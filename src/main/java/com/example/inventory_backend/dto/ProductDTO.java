@@ -13,6 +13,22 @@ public class ProductDTO {
     private Long supplierId;
     private String supplierName;
 
+    public ProductDTO() {}
+
+    // Used by JPQL constructor expressions in ProductRepository
+    public ProductDTO(Long id, String name, String description, String sku, BigDecimal price,
+                      Long categoryId, String categoryName, Long supplierId, String supplierName) {
+        this.id = id;
+        this.name = name;
+        this.description = description;
+        this.sku = sku;
+        this.price = price;
+        this.categoryId = categoryId;
+        this.categoryName = categoryName;
+        this.supplierId = supplierId;
+        this.supplierName = supplierName;
+    }
+
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
     public String getName() { return name; }
@@ -0,0 +1,37 @@
+package com.example.inventory_backend.dto;
+
+import java.math.BigDecimal;
+
+public class StatsSummaryDTO {
+    private long totalProducts;
+    private long totalCategories;
+    private long totalSuppliers;
+    private long lowStockItems;
+    private long totalQuantity;
+    private BigDecimal totalValue;
+    
+    public StatsSummaryDTO() {}
+    
+    public StatsSummaryDTO(long totalProducts, long totalCategories, long totalSuppliers,
+                           long lowStockItems, long totalQuantity, BigDecimal totalValue) {
+        this.totalProducts = totalProducts;
+        this.totalCategories = totalCategories;
+        this.totalSuppliers = totalSuppliers;
+        this.lowStockItems = lowStockItems;
+        this.totalQuantity = totalQuantity;
+        this.totalValue = totalValue;
+    }
+    
+    public long getTotalProducts() { return totalProducts; }
+    public void setTotalProducts(long totalProducts) { this.totalProducts = totalProducts; }
+    public long getTotalCategories() { return totalCategories; }
+    public void setTotalCategories(long totalCategories) { this.totalCategories = totalCategories; }
+    public long getTotalSuppliers() { return totalSuppliers; }
+    public void setTotalSuppliers(long totalSuppliers) { this.totalSuppliers = totalSuppliers; }
+    public long getLowStockItems() { return lowStockItems; }
+    public void setLowStockItems(long lowStockItems) { this.lowStockItems = lowStockItems; }
+    public long getTotalQuantity() { return totalQuantity; }
+    public void setTotalQuantity(long totalQuantity) { this.totalQuantity = totalQuantity; }
+    public BigDecimal getTotalValue() { return totalValue; }
+    public void setTotalValue(BigDecimal totalValue) { this.totalValue = totalValue; }
+}
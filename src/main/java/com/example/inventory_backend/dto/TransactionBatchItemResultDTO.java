@@ -0,0 +1,33 @@
+package com.example.inventory_backend.dto;
+
+public class TransactionBatchItemResultDTO {
+    private int index;
+    private boolean success;
+    private Long transactionId;
+    private String error;
+    
+    public static TransactionBatchItemResultDTO saved(int index, Long transactionId) {
+        TransactionBatchItemResultDTO result = new TransactionBatchItemResultDTO();
+        result.setIndex(index);
+        result.setSuccess(true);
+        result.setTransactionId(transactionId);
+        return result;
+    }
+    
+    public static TransactionBatchItemResultDTO failed(int index, String error) {
+        TransactionBatchItemResultDTO result = new TransactionBatchItemResultDTO();
+        result.setIndex(index);
+        result.setSuccess(false);
+        result.setError(error);
+        return result;
+    }
+    
+    public int getIndex() { return index; }
+    public void setIndex(int index) { this.index = index; }
+    public boolean isSuccess() { return success; }
+    public void setSuccess(boolean success) { this.success = success; }
+    public Long getTransactionId() { return transactionId; }
+    public void setTransactionId(Long transactionId) { this.transactionId = transactionId; }
+    public String getError() { return error; }
+    public void setError(String error) { this.error = error; }
+}
@@ -0,0 +1,21 @@
+package com.example.inventory_backend.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class TransactionBatchRequestDTO {
+    private List<TransactionDTO> transactions = new ArrayList<>();
+    private Mode mode = Mode.ALL_OR_NOTHING;
+    
+    public List<TransactionDTO> getTransactions() { return transactions; }
+    public void setTransactions(List<TransactionDTO> transactions) { this.transactions = transactions; }
+    public Mode getMode() { return mode; }
+    public void setMode(Mode mode) { this.mode = mode; }
+    
+    public enum Mode {
+        // Any invalid item rejects the whole batch
+        ALL_OR_NOTHING,
+        // Valid items are saved, invalid ones are reported individually
+        PER_ITEM
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.inventory_backend.dto;
+
+import java.util.List;
+
+public class TransactionBatchResponseDTO {
+    private int received;
+    private int saved;
+    private int failed;
+    private List<TransactionBatchItemResultDTO> results;
+    
+    public int getReceived() { return received; }
+    public void setReceived(int received) { this.received = received; }
+    public int getSaved() { return saved; }
+    public void setSaved(int saved) { this.saved = saved; }
+    public int getFailed() { return failed; }
+    public void setFailed(int failed) { this.failed = failed; }
+    public List<TransactionBatchItemResultDTO> getResults() { return results; }
+    public void setResults(List<TransactionBatchItemResultDTO> results) { this.results = results; }
+}
@@ -1,5 +1,7 @@
 package com.example.inventory_backend.dto;
 
+import com.example.inventory_backend.model.Transaction;
+
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
@@ -17,6 +19,27 @@ public class TransactionDTO {
     private String userName;
     private String referenceNumber;
     
+    public TransactionDTO() {}
+    
+    // Used by JPQL constructor expressions in TransactionRepository
+    public TransactionDTO(Long id, Long productId, String productName, Transaction.TransactionType type,
+                          Integer quantity, LocalDateTime transactionDate, BigDecimal unitPrice,
+                          BigDecimal totalAmount, String notes, Long userId, String userName,
+                          String referenceNumber) {
+        this.id = id;
+        this.productId = productId;
+        this.productName = productName;
+        this.transactionType = type != null ? type.name() : null;
+        this.quantity = quantity;
+        this.transactionDate = transactionDate;
+        this.unitPrice = unitPrice;
+        this.totalAmount = totalAmount;
+        this.notes = notes;
+        this.userId = userId;
+        this.userName = userName;
+        this.referenceNumber = referenceNumber;
+    }
+    
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
     public Long getProductId() { return productId; }
@@ -0,0 +1,27 @@
+package com.example.inventory_backend.dto;
+
+import com.example.inventory_backend.model.Transaction;
+
+import java.time.LocalDateTime;
+
+public class TransactionFilterDTO {
+    private Long productId;
+    private Transaction.TransactionType type;
+    private LocalDateTime start;
+    private LocalDateTime end;
+    private Long userId;
+    private String referenceNumber;
+    
+    public Long getProductId() { return productId; }
+    public void setProductId(Long productId) { this.productId = productId; }
+    public Transaction.TransactionType getType() { return type; }
+    public void setType(Transaction.TransactionType type) { this.type = type; }
+    public LocalDateTime getStart() { return start; }
+    public void setStart(LocalDateTime start) { this.start = start; }
+    public LocalDateTime getEnd() { return end; }
+    public void setEnd(LocalDateTime end) { this.end = end; }
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+    public String getReferenceNumber() { return referenceNumber; }
+    public void setReferenceNumber(String referenceNumber) { this.referenceNumber = referenceNumber; }
+}
@@ -1,5 +1,7 @@
 package com.example.inventory_backend.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import java.time.LocalDateTime;
 
 public class UserDTO {
@@ -10,6 +12,9 @@ public class UserDTO {
     private String role;
     private boolean online;
     private LocalDateTime lastSeen;
+    // Replacement bearer token, only set when a profile update changed the token's claims
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String token;
 
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
@@ -25,4 +30,6 @@ public class UserDTO {
     public void setOnline(boolean online) { this.online = online; }
     public LocalDateTime getLastSeen() { return lastSeen; }
     public void setLastSeen(LocalDateTime lastSeen) { this.lastSeen = lastSeen; }
+    public String getToken() { return token; }
+    public void setToken(String token) { this.token = token; }
 }
@@ -32,6 +32,19 @@ public class Chat {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
     
+    // Copy of the newest message (content still encrypted), so the chat list needs no message queries
+    @Column(name = "last_message_id")
+    private Long lastMessageId;
+    
+    @Column(name = "last_message_content")
+    private String lastMessageContent;
+    
+    @Column(name = "last_message_sender_id")
+    private Long lastMessageSenderId;
+    
+    @Column(name = "last_message_at")
+    private LocalDateTime lastMessageAt;
+    
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
@@ -5,7 +5,9 @@ import lombok.Data;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "chat_messages")
+@Table(name = "chat_messages", indexes = {
+        @Index(name = "idx_chat_messages_chat_id", columnList = "chat_id, id")
+})
 @Data
 public class ChatMessage {
     @Id
@@ -26,6 +28,8 @@ public class ChatMessage {
     @Column(name = "timestamp", nullable = false)
     private LocalDateTime timestamp;
     
+    // Legacy flag, no longer maintained: read state is ChatParticipant.lastReadMessageId. Kept because
+    // the column is NOT NULL in existing databases.
     @Column(name = "read_status")
     private boolean read = false;
     
@@ -5,7 +5,10 @@ import lombok.Data;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "chat_participants")
+@Table(name = "chat_participants", indexes = {
+        @Index(name = "idx_chat_participants_chat_user", columnList = "chat_id, user_id"),
+        @Index(name = "idx_chat_participants_user", columnList = "user_id")
+})
 @Data
 public class ChatParticipant {
     @Id
@@ -20,9 +23,14 @@ public class ChatParticipant {
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
     
+    // Read watermark: every message of the chat up to this id has been read by the user
     @Column(name = "last_read_message_id")
     private Long lastReadMessageId;
     
+    // Messages from others above the watermark; maintained by sendMessage and markChatAsRead
+    @Column(name = "unread_count", columnDefinition = "integer default 0 not null")
+    private int unreadCount;
+    
     @Column(name = "joined_at")
     private LocalDateTime joinedAt;
     
@@ -5,16 +5,19 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToOne;
+import jakarta.persistence.PostLoad;
 import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
 import lombok.Data;
 
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "inventory")
+@Table(name = "inventory", indexes = @Index(name = "idx_inventory_company", columnList = "company_id"))
 @Data
 public class Inventory {
     @Id
@@ -41,4 +44,18 @@ public class Inventory {
     @ManyToOne
     @JoinColumn(name = "company_id", nullable = false)
     private Company company;
+    
+    // Quantity and reorder level as last read from or written to the database, used to derive
+    // stock and low-stock deltas on save
+    @Transient
+    private Integer persistedQuantity;
+    
+    @Transient
+    private Integer persistedReorderLevel;
+    
+    @PostLoad
+    protected void onLoad() {
+        persistedQuantity = quantity;
+        persistedReorderLevel = reorderLevel;
+    }
 }
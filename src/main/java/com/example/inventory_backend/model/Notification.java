@@ -4,8 +4,14 @@ import jakarta.persistence.*;
 import lombok.Data;
 import java.time.LocalDateTime;
 
+// A company event is stored once with no user and shown to everyone in the company; notifications
+// meant for a single recipient (such as new accounts for admins) carry that user. Read state lives
+// in NotificationReadState and NotificationReceipt, not on the row.
 @Entity
-@Table(name = "notifications")
+@Table(name = "notifications", indexes = {
+        @Index(name = "idx_notifications_company_id", columnList = "company_id, id"),
+        @Index(name = "idx_notifications_user_id", columnList = "user_id, id")
+})
 @Data
 public class Notification {
     @Id
@@ -28,6 +34,7 @@ public class Notification {
     private String bgColor;
     private String borderColor;
     
+    // Null for notifications shared by the whole company
     @ManyToOne
     @JoinColumn(name = "user_id")
     private User user;
@@ -35,6 +42,4 @@ public class Notification {
     @ManyToOne
     @JoinColumn(name = "company_id", nullable = false)
     private Company company;
-    
-    private boolean read;
 }
@@ -0,0 +1,35 @@
+package com.example.inventory_backend.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+// Number of company-wide notifications and the newest notification id of the company. Every publisher
+// locks this row before inserting, so a company's notification ids commit in order and a watermark
+// taken from lastId never passes a notification that is still in flight.
+@Entity
+@Table(name = "notification_counters")
+@Data
+@EqualsAndHashCode(exclude = "company")
+@ToString(exclude = "company")
+public class NotificationCounter {
+    @Id
+    @Column(name = "company_id")
+    private Long companyId;
+
+    @MapsId
+    @OneToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "company_id")
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private Company company;
+
+    @Column(name = "shared_total", nullable = false)
+    private long sharedTotal;
+
+    // Newest company-wide or personal notification
+    @Column(name = "last_id", nullable = false)
+    private long lastId;
+}
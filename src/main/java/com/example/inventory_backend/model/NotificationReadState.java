@@ -0,0 +1,56 @@
+package com.example.inventory_backend.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+// Per-user read state over the notification id sequence. Everything up to lastReadId is read, and
+// NotificationReceipt rows record the exceptions above it. The counters let the unread count be
+// computed without touching the notifications table:
+//   unread = (company sharedTotal - sharedSeen) + (personalTotal - personalSeen) - readAbove
+@Entity
+@Table(name = "notification_read_state")
+@Data
+@EqualsAndHashCode(exclude = {"user", "company"})
+@ToString(exclude = {"user", "company"})
+public class NotificationReadState {
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @MapsId
+    @OneToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id")
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private User user;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "company_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private Company company;
+
+    // Notifications at or below this id predate the user and are not shown
+    @Column(name = "first_visible_id", nullable = false)
+    private long firstVisibleId;
+
+    // Watermark: every visible notification at or below this id is read
+    @Column(name = "last_read_id", nullable = false)
+    private long lastReadId;
+
+    // Company-wide notifications at or below the watermark
+    @Column(name = "shared_seen", nullable = false)
+    private long sharedSeen;
+
+    @Column(name = "personal_total", nullable = false)
+    private long personalTotal;
+
+    @Column(name = "personal_seen", nullable = false)
+    private long personalSeen;
+
+    // Receipts above the watermark, i.e. notifications read or dismissed one by one
+    @Column(name = "read_above", nullable = false)
+    private long readAbove;
+}
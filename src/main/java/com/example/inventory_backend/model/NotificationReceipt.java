@@ -0,0 +1,35 @@
+package com.example.inventory_backend.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+// Exception to a user's read watermark: a notification above it that was read on its own, or any
+// notification the user dismissed (dismissals are kept below the watermark too, to stay hidden)
+@Entity
+@Table(name = "notification_receipts", uniqueConstraints =
+        @UniqueConstraint(name = "uk_notification_receipts_user_notification", columnNames = {"user_id", "notification_id"}))
+@Data
+@EqualsAndHashCode(exclude = {"user", "notification"})
+@ToString(exclude = {"user", "notification"})
+public class NotificationReceipt {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private User user;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "notification_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private Notification notification;
+
+    @Column(nullable = false)
+    private boolean dismissed;
+}
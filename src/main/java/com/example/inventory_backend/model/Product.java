@@ -10,13 +10,19 @@ import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
+import jakarta.persistence.Index;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.PostLoad;
 import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
 
 import lombok.Data;
 
 @Entity
-@Table(name = "products")
+@Table(name = "products", indexes = {
+    @Index(name = "idx_products_company", columnList = "company_id"),
+    @Index(name = "idx_products_company_sku", columnList = "company_id, sku")
+})
 @Data
 public class Product {
     @Id
@@ -44,4 +50,13 @@ public class Product {
     
     private BigDecimal price;
     private String sku;
+    
+    // Price as last read from the database, so a price change can be detected on save
+    @Transient
+    private BigDecimal persistedPrice;
+    
+    @PostLoad
+    protected void onLoad() {
+        persistedPrice = price;
+    }
 }
@@ -6,7 +6,14 @@ import java.time.LocalDateTime;
 import java.math.BigDecimal;
 
 @Entity
-@Table(name = "transactions")
+@Table(name = "transactions", indexes = {
+    // Keyset pagination: every filter is an equality prefix in front of (transaction_date, id)
+    @Index(name = "idx_transactions_company_date_id", columnList = "company_id, transaction_date DESC, id DESC"),
+    @Index(name = "idx_transactions_company_product_date_id", columnList = "company_id, product_id, transaction_date DESC, id DESC"),
+    @Index(name = "idx_transactions_company_type_date_id", columnList = "company_id, type, transaction_date DESC, id DESC"),
+    @Index(name = "idx_transactions_company_user_date_id", columnList = "company_id, user_id, transaction_date DESC, id DESC"),
+    @Index(name = "idx_transactions_company_reference", columnList = "company_id, reference_number")
+})
 @Data
 public class Transaction {
     @Id
@@ -38,6 +38,10 @@ public class User {
     @Column(name = "last_seen")
     private LocalDateTime lastSeen;
 
+    // Bumped to revoke every token issued before the change
+    @Column(name = "token_version", columnDefinition = "integer default 0 not null")
+    private int tokenVersion;
+
     // Cascade delete for notifications
     @OneToMany(mappedBy = "user", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<Notification> notifications = new ArrayList<>();
@@ -1,12 +1,19 @@
 package com.example.inventory_backend.repository;
 
+import com.example.inventory_backend.dto.CategoryDTO;
 import com.example.inventory_backend.model.Category;
 import com.example.inventory_backend.model.Company;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface CategoryRepository extends JpaRepository<Category, Long> {
@@ -14,4 +21,11 @@ public interface CategoryRepository extends JpaRepository<Category, Long> {
     Optional<Category> findByNameAndCompany(String name, Company company);
     List<Category> findByCompany(Company company);
     List<Category> findByCompanyId(Long companyId);
+
+    // Row-by-row read with product counts aggregated in SQL; must be consumed inside a read-only transaction
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.example.inventory_backend.dto.CategoryDTO(c.id, c.name, c.description, COUNT(p)) " +
+           "FROM Category c LEFT JOIN c.products p WHERE c.company.id = :companyId " +
+           "GROUP BY c.id, c.name, c.description")
+    Stream<CategoryDTO> streamDTOsByCompanyId(@Param("companyId") Long companyId);
 }
@@ -0,0 +1,25 @@
+package com.example.inventory_backend.repository;
+
+import com.example.inventory_backend.model.User;
+
+import java.time.LocalDateTime;
+
+// Projection of the chat list query in ChatRepository: one chat of the user with its denormalized
+// last message, the user's unread counter and the other participant
+public interface ChatListRow {
+    Long getChatId();
+    LocalDateTime getCreatedAt();
+    LocalDateTime getUpdatedAt();
+    Long getLastMessageId();
+    String getLastMessageContent();
+    Long getLastMessageSenderId();
+    LocalDateTime getLastMessageAt();
+    int getUnreadCount();
+    Long getLastReadMessageId();
+    Long getOtherLastReadMessageId();
+    Long getOtherUserId();
+    String getOtherName();
+    String getOtherEmail();
+    User.Role getOtherRole();
+    LocalDateTime getOtherLastSeen();
+}
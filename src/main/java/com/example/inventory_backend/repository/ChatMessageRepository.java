@@ -3,6 +3,7 @@ package com.example.inventory_backend.repository;
 import com.example.inventory_backend.model.Chat;
 import com.example.inventory_backend.model.ChatMessage;
 import com.example.inventory_backend.model.User;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -16,12 +17,31 @@ public interface ChatMessageRepository extends JpaRepository<ChatMessage, Long>
     
     List<ChatMessage> findByChatOrderByTimestampAsc(Chat chat);
     
+    // Cursor pages over idx_chat_messages_chat_id; pass one more than the page size to detect further pages
+    @Query("SELECT m FROM ChatMessage m JOIN FETCH m.sender WHERE m.chat.id = :chatId AND m.id < :beforeId ORDER BY m.id DESC")
+    List<ChatMessage> findPageBefore(@Param("chatId") Long chatId, @Param("beforeId") long beforeId, Limit limit);
+    
+    @Query("SELECT m FROM ChatMessage m JOIN FETCH m.sender WHERE m.chat.id = :chatId AND m.id > :afterId ORDER BY m.id ASC")
+    List<ChatMessage> findPageAfter(@Param("chatId") Long chatId, @Param("afterId") long afterId, Limit limit);
+    
+    // Whether anything lies on the other side of a page's cursor
+    boolean existsByChatIdAndIdLessThanEqual(Long chatId, Long id);
+    
+    boolean existsByChatIdAndIdGreaterThanEqual(Long chatId, Long id);
+    
     @Query("SELECT m FROM ChatMessage m WHERE m.chat = :chat ORDER BY m.timestamp DESC LIMIT 1")
     Optional<ChatMessage> findLatestMessageByChat(@Param("chat") Chat chat);
     
-    @Query("SELECT COUNT(m) FROM ChatMessage m WHERE m.chat = :chat AND m.sender != :user AND m.read = false")
+    @Query("SELECT MAX(m.id) FROM ChatMessage m WHERE m.chat.id = :chatId")
+    Long findLatestMessageId(@Param("chatId") Long chatId);
+    
+    // Unread means newer than the user's read watermark; only the id range above it is scanned
+    @Query("SELECT COUNT(m) FROM ChatParticipant cp JOIN ChatMessage m ON m.chat = cp.chat " +
+            "WHERE cp.chat = :chat AND cp.user = :user AND m.sender != :user " +
+            "AND m.id > COALESCE(cp.lastReadMessageId, 0)")
     int countUnreadMessagesByChat(@Param("chat") Chat chat, @Param("user") User user);
     
-    @Query("SELECT COUNT(m) FROM ChatMessage m JOIN m.chat c JOIN c.participants p WHERE p = :user AND m.sender != :user AND m.read = false")
+    @Query("SELECT COUNT(m) FROM ChatParticipant cp JOIN ChatMessage m ON m.chat = cp.chat " +
+            "WHERE cp.user = :user AND m.sender != :user AND m.id > COALESCE(cp.lastReadMessageId, 0)")
     int countTotalUnreadMessages(@Param("user") User user);
 }
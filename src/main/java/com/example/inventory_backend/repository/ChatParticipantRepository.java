@@ -4,10 +4,12 @@ import com.example.inventory_backend.model.Chat;
 import com.example.inventory_backend.model.ChatParticipant;
 import com.example.inventory_backend.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -17,4 +19,42 @@ public interface ChatParticipantRepository extends JpaRepository<ChatParticipant
     
     @Query("SELECT MAX(cp.lastReadMessageId) FROM ChatParticipant cp WHERE cp.chat = :chat AND cp.user = :user")
     Long findLastReadMessageId(@Param("chat") Chat chat, @Param("user") User user);
+    
+    boolean existsByChatIdAndUserId(Long chatId, Long userId);
+    
+    // The user's unread counter in one chat, null when the user is not a participant
+    @Query("SELECT SUM(cp.unreadCount) FROM ChatParticipant cp WHERE cp.chat.id = :chatId AND cp.user.id = :userId")
+    Long findUnreadCount(@Param("chatId") Long chatId, @Param("userId") Long userId);
+    
+    // Same, with the participant row locked until commit so no message can change the counter in between
+    @Query(value = "SELECT SUM(unread_count) FROM (SELECT unread_count FROM chat_participants " +
+            "WHERE chat_id = :chatId AND user_id = :userId FOR UPDATE) p", nativeQuery = true)
+    Long findUnreadCountForUpdate(@Param("chatId") Long chatId, @Param("userId") Long userId);
+    
+    @Query("SELECT COALESCE(SUM(cp.unreadCount), 0) FROM ChatParticipant cp WHERE cp.user.id = :userId")
+    long sumUnreadCounts(@Param("userId") Long userId);
+    
+    // [user ID, total unread] for the given users that take part in any chat
+    @Query("SELECT cp.user.id, SUM(cp.unreadCount) FROM ChatParticipant cp WHERE cp.user.id IN :userIds GROUP BY cp.user.id")
+    List<Object[]> sumUnreadCountsByUser(@Param("userIds") Collection<Long> userIds);
+    
+    // [user ID, last read message ID] for every participant of the chat
+    @Query("SELECT cp.user.id, cp.lastReadMessageId FROM ChatParticipant cp WHERE cp.chat.id = :chatId")
+    List<Object[]> findReadWatermarks(@Param("chatId") Long chatId);
+    
+    // Moves the watermark forward only, so a late request cannot mark newer messages unread again.
+    // The unread counter keeps anything that arrived after the given message.
+    @Modifying
+    @Query("UPDATE ChatParticipant cp SET cp.lastReadMessageId = :messageId, " +
+            "cp.unreadCount = (SELECT COUNT(m) FROM ChatMessage m " +
+            "WHERE m.chat.id = :chatId AND m.sender.id != :userId AND m.id > :messageId) " +
+            "WHERE cp.chat.id = :chatId AND cp.user.id = :userId " +
+            "AND (cp.lastReadMessageId IS NULL OR cp.lastReadMessageId < :messageId)")
+    int advanceLastReadMessageId(@Param("chatId") Long chatId, @Param("userId") Long userId,
+                                 @Param("messageId") Long messageId);
+    
+    @Modifying
+    @Query("UPDATE ChatParticipant cp SET cp.unreadCount = cp.unreadCount + 1 " +
+            "WHERE cp.chat.id = :chatId AND cp.user.id != :senderId")
+    int incrementUnreadCounts(@Param("chatId") Long chatId, @Param("senderId") Long senderId);
 }
@@ -3,12 +3,16 @@ package com.example.inventory_backend.repository;
 import com.example.inventory_backend.model.Chat;
 import com.example.inventory_backend.model.Company;
 import com.example.inventory_backend.model.User;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ChatRepository extends JpaRepository<Chat, Long> {
@@ -22,6 +26,36 @@ public interface ChatRepository extends JpaRepository<Chat, Long> {
     @Query("SELECT c FROM Chat c WHERE :user1 MEMBER OF c.participants AND :user2 MEMBER OF c.participants")
     List<Chat> findByTwoParticipants(@Param("user1") User user1, @Param("user2") User user2);
     
+    // The user's chats with everything the chat list shows, in one query
+    String CHAT_LIST_SELECT = "SELECT c.id AS chatId, c.createdAt AS createdAt, c.updatedAt AS updatedAt, " +
+            "c.lastMessageId AS lastMessageId, c.lastMessageContent AS lastMessageContent, " +
+            "c.lastMessageSenderId AS lastMessageSenderId, c.lastMessageAt AS lastMessageAt, " +
+            "cp.unreadCount AS unreadCount, cp.lastReadMessageId AS lastReadMessageId, " +
+            "op.lastReadMessageId AS otherLastReadMessageId, u.id AS otherUserId, u.name AS otherName, " +
+            "u.email AS otherEmail, u.role AS otherRole, u.lastSeen AS otherLastSeen " +
+            "FROM ChatParticipant cp JOIN cp.chat c " +
+            "LEFT JOIN ChatParticipant op ON op.chat = c AND op.user != cp.user " +
+            "LEFT JOIN op.user u " +
+            "WHERE cp.user = :user ";
+    
+    @Query(CHAT_LIST_SELECT + "ORDER BY c.updatedAt DESC")
+    List<ChatListRow> findChatList(@Param("user") User user);
+    
+    @Query(CHAT_LIST_SELECT + "ORDER BY c.updatedAt DESC")
+    List<ChatListRow> findChatList(@Param("user") User user, Limit limit);
+    
+    @Query(CHAT_LIST_SELECT + "AND c.id = :chatId")
+    Optional<ChatListRow> findChatListRow(@Param("user") User user, @Param("chatId") Long chatId);
+    
+    // Conditional, so concurrent sends cannot replace the newest message with an older one
+    @Modifying
+    @Query("UPDATE Chat c SET c.lastMessageId = :messageId, c.lastMessageContent = :content, " +
+            "c.lastMessageSenderId = :senderId, c.lastMessageAt = :sentAt, c.updatedAt = :sentAt " +
+            "WHERE c.id = :chatId AND (c.lastMessageId IS NULL OR c.lastMessageId < :messageId)")
+    int updateLastMessage(@Param("chatId") Long chatId, @Param("messageId") Long messageId,
+                          @Param("content") String content, @Param("senderId") Long senderId,
+                          @Param("sentAt") LocalDateTime sentAt);
+    
     List<Chat> findByCompany(Company company);
     List<Chat> findByCompanyId(Long companyId);
 }
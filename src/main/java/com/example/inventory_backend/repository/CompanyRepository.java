@@ -2,12 +2,36 @@ package com.example.inventory_backend.repository;
 
 import com.example.inventory_backend.model.Company;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface CompanyRepository extends JpaRepository<Company, Long> {
+    // Dashboard counters computed in the database; each subquery is an index range scan on company_id
+    String STATS_AGGREGATE_SQL =
+            "SELECT c.id AS companyId, " +
+            "(SELECT COUNT(*) FROM products p WHERE p.company_id = c.id) AS totalProducts, " +
+            "(SELECT COUNT(*) FROM categories cat WHERE cat.company_id = c.id) AS totalCategories, " +
+            "(SELECT COUNT(*) FROM suppliers s WHERE s.company_id = c.id) AS totalSuppliers, " +
+            "(SELECT COUNT(*) FROM inventory i WHERE i.company_id = c.id AND i.quantity <= i.reorder_level) AS lowStockItems, " +
+            "(SELECT COALESCE(SUM(i.quantity), 0) FROM inventory i WHERE i.company_id = c.id) AS totalQuantity, " +
+            "(SELECT COALESCE(SUM(i.quantity * p.price), 0) FROM inventory i JOIN products p ON p.id = i.product_id " +
+            "WHERE i.company_id = c.id) AS totalValue " +
+            "FROM companies c";
+    
     Optional<Company> findByCui(String cui);
     boolean existsByCui(String cui);
+    
+    @Query("SELECT c.id FROM Company c")
+    List<Long> findAllIds();
+    
+    @Query(value = STATS_AGGREGATE_SQL + " WHERE c.id = :companyId", nativeQuery = true)
+    Optional<CompanyStatsAggregate> aggregateStatsByCompanyId(@Param("companyId") Long companyId);
+    
+    @Query(value = STATS_AGGREGATE_SQL, nativeQuery = true)
+    List<CompanyStatsAggregate> aggregateStatsForAllCompanies();
 }
@@ -0,0 +1,14 @@
+package com.example.inventory_backend.repository;
+
+import java.math.BigDecimal;
+
+// Projection of the per-company aggregate query in CompanyRepository
+public interface CompanyStatsAggregate {
+    Long getCompanyId();
+    long getTotalProducts();
+    long getTotalCategories();
+    long getTotalSuppliers();
+    long getLowStockItems();
+    long getTotalQuantity();
+    BigDecimal getTotalValue();
+}
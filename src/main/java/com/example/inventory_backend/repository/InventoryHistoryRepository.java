@@ -12,7 +12,7 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
-public interface InventoryHistoryRepository extends JpaRepository<InventoryHistory, Long> {
+public interface InventoryHistoryRepository extends JpaRepository<InventoryHistory, Long>, InventoryHistoryRepositoryCustom {
     List<InventoryHistory> findTop30ByOrderByTimestampDesc();
     List<InventoryHistory> findByTimestampBetween(LocalDateTime start, LocalDateTime end);
     
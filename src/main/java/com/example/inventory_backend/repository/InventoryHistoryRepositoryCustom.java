@@ -0,0 +1,9 @@
+package com.example.inventory_backend.repository;
+
+import com.example.inventory_backend.model.InventoryHistory;
+
+import java.util.List;
+
+public interface InventoryHistoryRepositoryCustom {
+    void insertBatch(List<InventoryHistory> entries);
+}
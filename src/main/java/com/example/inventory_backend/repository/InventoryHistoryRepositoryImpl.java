@@ -0,0 +1,36 @@
+package com.example.inventory_backend.repository;
+
+import com.example.inventory_backend.model.InventoryHistory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.List;
+
+// IDENTITY ids stop Hibernate from batching inserts, so history rows are written with plain JDBC batches
+public class InventoryHistoryRepositoryImpl implements InventoryHistoryRepositoryCustom {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO inventory_history (timestamp, total_quantity, product_id, quantity_change, change_reason, company_id) " +
+            "VALUES (?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public InventoryHistoryRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void insertBatch(List<InventoryHistory> entries) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, entries, entries.size(), (ps, history) -> {
+            ps.setTimestamp(1, Timestamp.valueOf(history.getTimestamp()));
+            ps.setInt(2, history.getTotalQuantity());
+            ps.setObject(3, history.getProduct() != null ? history.getProduct().getId() : null, Types.BIGINT);
+            ps.setObject(4, history.getQuantityChange(), Types.INTEGER);
+            ps.setString(5, history.getChangeReason());
+            ps.setLong(6, history.getCompany().getId());
+        });
+    }
+}
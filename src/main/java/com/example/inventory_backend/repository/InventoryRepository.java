@@ -1,19 +1,25 @@
 package com.example.inventory_backend.repository;
 
+import com.example.inventory_backend.dto.InventoryDTO;
 import com.example.inventory_backend.model.Company;
 import com.example.inventory_backend.model.Inventory;
 import com.example.inventory_backend.model.Product;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface InventoryRepository extends JpaRepository<Inventory, Long> {
+public interface InventoryRepository extends JpaRepository<Inventory, Long>, InventoryRepositoryCustom {
     Optional<Inventory> findByProduct(Product product);
     
     @Query("SELECT i FROM Inventory i WHERE i.quantity <= i.reorderLevel")
@@ -25,6 +31,45 @@ public interface InventoryRepository extends JpaRepository<Inventory, Long> {
     List<Inventory> findByCompany(Company company);
     List<Inventory> findByCompanyId(Long companyId);
     
+    // DTO projections: one statement with joins instead of loading entities and their associations
+    @Query("SELECT new com.example.inventory_backend.dto.InventoryDTO(" +
+           "i.id, p.id, p.name, p.sku, c.name, s.name, i.quantity, i.reorderLevel, i.reorderQuantity, " +
+           "i.location, i.lastUpdated) " +
+           "FROM Inventory i LEFT JOIN i.product p LEFT JOIN p.category c LEFT JOIN p.supplier s " +
+           "WHERE i.company.id = :companyId")
+    List<InventoryDTO> findDTOsByCompanyId(@Param("companyId") Long companyId);
+    
+    @Query("SELECT new com.example.inventory_backend.dto.InventoryDTO(" +
+           "i.id, p.id, p.name, p.sku, c.name, s.name, i.quantity, i.reorderLevel, i.reorderQuantity, " +
+           "i.location, i.lastUpdated) " +
+           "FROM Inventory i LEFT JOIN i.product p LEFT JOIN p.category c LEFT JOIN p.supplier s " +
+           "WHERE i.quantity <= i.reorderLevel AND i.company.id = :companyId")
+    List<InventoryDTO> findLowStockDTOsByCompanyId(@Param("companyId") Long companyId);
+    
+    // Row-by-row read for streamed responses; must be consumed inside a read-only transaction
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT i FROM Inventory i LEFT JOIN FETCH i.product p " +
+           "LEFT JOIN FETCH p.category LEFT JOIN FETCH p.supplier " +
+           "WHERE i.company.id = :companyId")
+    Stream<Inventory> streamByCompanyId(@Param("companyId") Long companyId);
+    
+    Optional<Inventory> findByProductIdAndCompanyId(Long productId, Long companyId);
+    
+    // Applies a stock delta in a single statement. The row is only touched when the result
+    // stays non-negative, so concurrent sales can neither oversell nor lose an update.
+    // Returns the new quantity, or empty if the row is missing or the stock is insufficient.
+    @Query(value = "UPDATE inventory SET quantity = COALESCE(quantity, 0) + :delta, last_updated = :now " +
+            "WHERE product_id = :productId AND company_id = :companyId " +
+            "AND COALESCE(quantity, 0) + :delta >= 0 " +
+            "RETURNING quantity", nativeQuery = true)
+    Optional<Integer> applyQuantityDelta(@Param("productId") Long productId,
+                                         @Param("companyId") Long companyId,
+                                         @Param("delta") int delta,
+                                         @Param("now") LocalDateTime now);
+    
     @Modifying
     @Query("DELETE FROM Inventory i WHERE i.product.id = :productId")
     void deleteByProductId(@Param("productId") Long productId);
@@ -0,0 +1,20 @@
+package com.example.inventory_backend.repository;
+
+import com.example.inventory_backend.model.Inventory;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+public interface InventoryRepositoryCustom {
+    // Locks the inventory rows of the given products and returns their quantities by product ID
+    Map<Long, Integer> lockQuantities(Long companyId, Collection<Long> productIds);
+    
+    // Applies all deltas (product ID -> delta) in one statement, skipping rows that would go negative
+    int applyQuantityDeltas(Long companyId, Map<Long, Integer> deltas, LocalDateTime now);
+    
+    // Updates the inventory rows of the given products (null fields keep their current value) and
+    // inserts rows for products that have none yet, all in one statement
+    void upsertBatch(Long companyId, List<Inventory> inventory, LocalDateTime now);
+}
@@ -0,0 +1,123 @@
+package com.example.inventory_backend.repository;
+
+import com.example.inventory_backend.model.Inventory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class InventoryRepositoryImpl implements InventoryRepositoryCustom {
+
+    // Rows are locked in product order so that concurrent batches cannot deadlock each other
+    private static final String LOCK_SQL =
+            "SELECT product_id, quantity FROM inventory " +
+            "WHERE company_id = ? AND product_id = ANY (?) " +
+            "ORDER BY product_id FOR UPDATE";
+
+    private static final String APPLY_DELTAS_SQL =
+            "UPDATE inventory i SET quantity = COALESCE(i.quantity, 0) + d.delta, last_updated = ? " +
+            "FROM unnest(?::bigint[], ?::integer[]) AS d(product_id, delta) " +
+            "WHERE i.product_id = d.product_id AND i.company_id = ? " +
+            "AND COALESCE(i.quantity, 0) + d.delta >= 0";
+
+    // One inventory row per product (unique product_id). Existing rows of the company are updated, keeping
+    // any value the caller leaves null; products without a row get one starting at zero. A row inserted
+    // concurrently for the same product wins (ON CONFLICT DO NOTHING).
+    private static final String UPSERT_SQL =
+            "WITH u AS (SELECT * FROM unnest(?::bigint[], ?::integer[], ?::integer[], ?::integer[], ?::varchar[]) " +
+            "AS u(product_id, quantity, reorder_level, reorder_quantity, location)), " +
+            "updated AS (UPDATE inventory i SET quantity = COALESCE(u.quantity, i.quantity), " +
+            "reorder_level = COALESCE(u.reorder_level, i.reorder_level), " +
+            "reorder_quantity = COALESCE(u.reorder_quantity, i.reorder_quantity), " +
+            "location = COALESCE(u.location, i.location), last_updated = ? " +
+            "FROM u WHERE i.product_id = u.product_id AND i.company_id = ?) " +
+            "INSERT INTO inventory (product_id, company_id, quantity, reorder_level, reorder_quantity, location, last_updated) " +
+            "SELECT u.product_id, ?, COALESCE(u.quantity, 0), u.reorder_level, u.reorder_quantity, u.location, ? " +
+            "FROM u WHERE NOT EXISTS (SELECT 1 FROM inventory i WHERE i.product_id = u.product_id) " +
+            "ON CONFLICT (product_id) DO NOTHING";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public InventoryRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public Map<Long, Integer> lockQuantities(Long companyId, Collection<Long> productIds) {
+        Map<Long, Integer> quantities = new LinkedHashMap<>();
+        if (productIds.isEmpty()) {
+            return quantities;
+        }
+
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(LOCK_SQL);
+            ps.setLong(1, companyId);
+            ps.setArray(2, con.createArrayOf("bigint", productIds.toArray()));
+            return ps;
+        }, rs -> {
+            quantities.put(rs.getLong("product_id"), rs.getInt("quantity"));
+        });
+
+        return quantities;
+    }
+
+    @Override
+    public int applyQuantityDeltas(Long companyId, Map<Long, Integer> deltas, LocalDateTime now) {
+        if (deltas.isEmpty()) {
+            return 0;
+        }
+
+        return jdbcTemplate.update(con -> {
+            PreparedStatement ps = con.prepareStatement(APPLY_DELTAS_SQL);
+            ps.setTimestamp(1, Timestamp.valueOf(now));
+            ps.setArray(2, con.createArrayOf("bigint", deltas.keySet().toArray()));
+            ps.setArray(3, con.createArrayOf("integer", deltas.values().toArray()));
+            ps.setLong(4, companyId);
+            return ps;
+        });
+    }
+
+    @Override
+    public void upsertBatch(Long companyId, List<Inventory> inventory, LocalDateTime now) {
+        if (inventory.isEmpty()) {
+            return;
+        }
+
+        int size = inventory.size();
+        Object[] productIds = new Object[size];
+        Object[] quantities = new Object[size];
+        Object[] reorderLevels = new Object[size];
+        Object[] reorderQuantities = new Object[size];
+        Object[] locations = new Object[size];
+        for (int i = 0; i < size; i++) {
+            Inventory row = inventory.get(i);
+            productIds[i] = row.getProduct().getId();
+            quantities[i] = row.getQuantity();
+            reorderLevels[i] = row.getReorderLevel();
+            reorderQuantities[i] = row.getReorderQuantity();
+            locations[i] = row.getLocation();
+        }
+
+        Timestamp lastUpdated = Timestamp.valueOf(now);
+        jdbcTemplate.update(con -> {
+            PreparedStatement ps = con.prepareStatement(UPSERT_SQL);
+            ps.setArray(1, con.createArrayOf("bigint", productIds));
+            ps.setArray(2, con.createArrayOf("integer", quantities));
+            ps.setArray(3, con.createArrayOf("integer", reorderLevels));
+            ps.setArray(4, con.createArrayOf("integer", reorderQuantities));
+            ps.setArray(5, con.createArrayOf("varchar", locations));
+            ps.setTimestamp(6, lastUpdated);
+            ps.setLong(7, companyId);
+            ps.setLong(8, companyId);
+            ps.setTimestamp(9, lastUpdated);
+            return ps;
+        });
+    }
+}
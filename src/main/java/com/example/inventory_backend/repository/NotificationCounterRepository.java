@@ -0,0 +1,28 @@
+package com.example.inventory_backend.repository;
+
+import com.example.inventory_backend.model.NotificationCounter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface NotificationCounterRepository extends JpaRepository<NotificationCounter, Long> {
+    @Modifying
+    @Query(value = "INSERT INTO notification_counters (company_id, shared_total, last_id) " +
+            "VALUES (:companyId, 0, 0) ON CONFLICT (company_id) DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("companyId") Long companyId);
+    
+    // Taken before every insert and held until commit, so the company's notifications are numbered in
+    // commit order; personal notifications pass sharedCount 0 just for the lock
+    @Modifying
+    @Query(value = "UPDATE notification_counters SET shared_total = shared_total + :sharedCount WHERE company_id = :companyId",
+            nativeQuery = true)
+    int reserve(@Param("companyId") Long companyId, @Param("sharedCount") int sharedCount);
+    
+    @Modifying
+    @Query(value = "UPDATE notification_counters SET last_id = GREATEST(last_id, :notificationId) " +
+            "WHERE company_id = :companyId", nativeQuery = true)
+    int updateLastId(@Param("companyId") Long companyId, @Param("notificationId") Long notificationId);
+}
@@ -0,0 +1,40 @@
+package com.example.inventory_backend.repository;
+
+import com.example.inventory_backend.model.NotificationReadState;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface NotificationReadStateRepository extends JpaRepository<NotificationReadState, Long> {
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM NotificationReadState s WHERE s.userId = :userId")
+    Optional<NotificationReadState> findByIdForUpdate(@Param("userId") Long userId);
+    
+    // A new user starts at the company's newest notification: nothing older is shown and nothing is unread
+    @Modifying
+    @Query(value = "INSERT INTO notification_read_state (user_id, company_id, first_visible_id, last_read_id, " +
+            "shared_seen, personal_total, personal_seen, read_above) " +
+            "SELECT :userId, :companyId, COALESCE(c.last_id, 0), COALESCE(c.last_id, 0), " +
+            "COALESCE(c.shared_total, 0), 0, 0, 0 " +
+            "FROM (VALUES (1)) v LEFT JOIN notification_counters c ON c.company_id = :companyId " +
+            "ON CONFLICT (user_id) DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("userId") Long userId, @Param("companyId") Long companyId);
+    
+    // Empty when the user has no read state yet
+    @Query(value = "SELECT COALESCE(c.shared_total, 0) - s.shared_seen + s.personal_total - s.personal_seen - s.read_above " +
+            "FROM notification_read_state s LEFT JOIN notification_counters c ON c.company_id = s.company_id " +
+            "WHERE s.user_id = :userId", nativeQuery = true)
+    Optional<Long> countUnread(@Param("userId") Long userId);
+    
+    @Modifying
+    @Query(value = "UPDATE notification_read_state SET personal_total = personal_total + 1 WHERE user_id = :userId",
+            nativeQuery = true)
+    int incrementPersonalTotal(@Param("userId") Long userId);
+}
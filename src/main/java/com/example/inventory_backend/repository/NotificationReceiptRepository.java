@@ -0,0 +1,25 @@
+package com.example.inventory_backend.repository;
+
+import com.example.inventory_backend.model.NotificationReceipt;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface NotificationReceiptRepository extends JpaRepository<NotificationReceipt, Long> {
+    Optional<NotificationReceipt> findByUserIdAndNotificationId(Long userId, Long notificationId);
+    
+    @Query("SELECT r.notification.id FROM NotificationReceipt r " +
+            "WHERE r.user.id = :userId AND r.notification.id > :afterId AND r.dismissed = false")
+    List<Long> findReadNotificationIds(@Param("userId") Long userId, @Param("afterId") long afterId);
+    
+    // Read receipts are redundant once the watermark passes them; dismissals are kept
+    @Modifying
+    @Query("DELETE FROM NotificationReceipt r WHERE r.user.id = :userId AND r.dismissed = false")
+    int deleteReadByUserId(@Param("userId") Long userId);
+}
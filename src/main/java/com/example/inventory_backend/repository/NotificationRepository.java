@@ -2,17 +2,34 @@ package com.example.inventory_backend.repository;
 
 import com.example.inventory_backend.model.Company;
 import com.example.inventory_backend.model.Notification;
-import com.example.inventory_backend.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 
 @Repository
 public interface NotificationRepository extends JpaRepository<Notification, Long> {
-    List<Notification> findByUserOrderByTimestampDesc(User user);
-    List<Notification> findByUserAndReadOrderByTimestampDesc(User user, boolean read);
-    int countByUserAndRead(User user, boolean read);
+    // Company-wide and personal notifications of a user above the given id, minus dismissed ones
+    @Query("SELECT n FROM Notification n WHERE n.company.id = :companyId AND n.id > :afterId " +
+            "AND (n.user IS NULL OR n.user.id = :userId) " +
+            "AND NOT EXISTS (SELECT r.id FROM NotificationReceipt r " +
+            "WHERE r.user.id = :userId AND r.notification.id = n.id AND r.dismissed = true) " +
+            "ORDER BY n.id DESC")
+    List<Notification> findVisible(@Param("companyId") Long companyId,
+                                   @Param("userId") Long userId,
+                                   @Param("afterId") long afterId);
+    
+    // As findVisible, but also skipping notifications read individually above the watermark
+    @Query("SELECT n FROM Notification n WHERE n.company.id = :companyId AND n.id > :afterId " +
+            "AND (n.user IS NULL OR n.user.id = :userId) " +
+            "AND NOT EXISTS (SELECT r.id FROM NotificationReceipt r " +
+            "WHERE r.user.id = :userId AND r.notification.id = n.id) " +
+            "ORDER BY n.id DESC")
+    List<Notification> findUnread(@Param("companyId") Long companyId,
+                                  @Param("userId") Long userId,
+                                  @Param("afterId") long afterId);
     
     // Company-scoped queries
     List<Notification> findByCompany(Company company);
@@ -1,28 +1,54 @@
 package com.example.inventory_backend.repository;
 
+import com.example.inventory_backend.dto.ProductDTO;
 import com.example.inventory_backend.model.Category;
 import com.example.inventory_backend.model.Company;
 import com.example.inventory_backend.model.Product;
 import com.example.inventory_backend.model.Supplier;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long> {
+public interface ProductRepository extends JpaRepository<Product, Long>, ProductRepositoryCustom {
     List<Product> findByCompany(Company company);
     List<Product> findByCompanyId(Long companyId);
     
+    // DTO projections: one statement with joins instead of loading entities and their associations
+    @Query("SELECT new com.example.inventory_backend.dto.ProductDTO(" +
+           "p.id, p.name, p.description, p.sku, p.price, c.id, c.name, s.id, s.name) " +
+           "FROM Product p LEFT JOIN p.category c LEFT JOIN p.supplier s " +
+           "WHERE p.company.id = :companyId")
+    List<ProductDTO> findDTOsByCompanyId(@Param("companyId") Long companyId);
+    
     List<Product> findByCategoryAndCompany(Category category, Company company);
     List<Product> findBySupplierAndCompany(Supplier supplier, Company company);
     
     Optional<Product> findBySkuAndCompany(String sku, Company company);
     
+    // Row-by-row read for streamed responses; must be consumed inside a read-only transaction
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT p FROM Product p LEFT JOIN FETCH p.category LEFT JOIN FETCH p.supplier " +
+           "WHERE p.company.id = :companyId")
+    Stream<Product> streamByCompanyId(@Param("companyId") Long companyId);
+    
+    @Query("SELECT p FROM Product p LEFT JOIN FETCH p.category LEFT JOIN FETCH p.supplier " +
+           "WHERE p.id IN :ids AND p.company.id = :companyId")
+    List<Product> findByIdInAndCompanyId(@Param("ids") Collection<Long> ids, @Param("companyId") Long companyId);
+    
     List<Product> findByNameContainingIgnoreCaseAndCompany(String name, Company company);
     
     @Query("SELECT p FROM Product p WHERE p.price <= :maxPrice AND p.company = :company")
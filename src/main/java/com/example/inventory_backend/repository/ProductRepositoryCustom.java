@@ -0,0 +1,18 @@
+package com.example.inventory_backend.repository;
+
+import com.example.inventory_backend.model.Product;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+public interface ProductRepositoryCustom {
+    // Product IDs by SKU for the SKUs that already exist in the company
+    Map<String, Long> findIdsBySku(Long companyId, Collection<String> skus);
+    
+    // Inserts the products in one statement and assigns their new IDs back to them
+    void insertBatch(List<Product> products);
+    
+    // Updates existing products by ID in one statement; null fields keep their current value
+    void updateBatch(List<Product> products);
+}
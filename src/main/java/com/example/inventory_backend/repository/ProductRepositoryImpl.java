@@ -0,0 +1,147 @@
+package com.example.inventory_backend.repository;
+
+import com.example.inventory_backend.model.Product;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.PreparedStatement;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Bulk import writes each batch with one array-bound statement; IDENTITY ids stop Hibernate from batching inserts
+public class ProductRepositoryImpl implements ProductRepositoryCustom {
+
+    // One index probe on (company_id, sku) per SKU. "sku = ANY (?)" compares every row of the company against
+    // the whole array, and the planner picks it while an import is still growing the table.
+    private static final String FIND_IDS_SQL =
+            "SELECT p.id, s.sku FROM unnest(?::varchar[]) AS s(sku) " +
+            "CROSS JOIN LATERAL (SELECT id FROM products WHERE company_id = ? AND sku = s.sku LIMIT 1) p";
+
+    // IDs are drawn from the identity sequence up front, so each product knows its ID without relying on
+    // the order of RETURNING rows
+    private static final String RESERVE_IDS_SQL =
+            "SELECT nextval(pg_get_serial_sequence('products', 'id')) FROM generate_series(1, ?)";
+
+    private static final String INSERT_SQL =
+            "INSERT INTO products (id, name, description, sku, price, category_id, supplier_id, company_id) " +
+            "SELECT * FROM unnest(?::bigint[], ?::varchar[], ?::varchar[], ?::varchar[], ?::numeric[], " +
+            "?::bigint[], ?::bigint[], ?::bigint[])";
+
+    private static final String UPDATE_SQL =
+            "UPDATE products p SET name = COALESCE(u.name, p.name), description = COALESCE(u.description, p.description), " +
+            "price = COALESCE(u.price, p.price), category_id = COALESCE(u.category_id, p.category_id), " +
+            "supplier_id = COALESCE(u.supplier_id, p.supplier_id) " +
+            "FROM unnest(?::bigint[], ?::varchar[], ?::varchar[], ?::numeric[], ?::bigint[], ?::bigint[], ?::bigint[]) " +
+            "AS u(id, name, description, price, category_id, supplier_id, company_id) " +
+            "WHERE p.id = u.id AND p.company_id = u.company_id";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public ProductRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public Map<String, Long> findIdsBySku(Long companyId, Collection<String> skus) {
+        Map<String, Long> ids = new HashMap<>();
+        if (skus.isEmpty()) {
+            return ids;
+        }
+
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(FIND_IDS_SQL);
+            ps.setArray(1, con.createArrayOf("varchar", skus.toArray()));
+            ps.setLong(2, companyId);
+            return ps;
+        }, rs -> {
+            ids.put(rs.getString("sku"), rs.getLong("id"));
+        });
+
+        return ids;
+    }
+
+    @Override
+    public void insertBatch(List<Product> products) {
+        if (products.isEmpty()) {
+            return;
+        }
+
+        List<Long> ids = jdbcTemplate.queryForList(RESERVE_IDS_SQL, Long.class, products.size());
+        for (int i = 0; i < products.size(); i++) {
+            products.get(i).setId(ids.get(i));
+        }
+
+        int size = products.size();
+        Object[] names = new Object[size];
+        Object[] descriptions = new Object[size];
+        Object[] skus = new Object[size];
+        Object[] prices = new Object[size];
+        Object[] categoryIds = new Object[size];
+        Object[] supplierIds = new Object[size];
+        Object[] companyIds = new Object[size];
+        for (int i = 0; i < size; i++) {
+            Product product = products.get(i);
+            names[i] = product.getName();
+            descriptions[i] = product.getDescription();
+            skus[i] = product.getSku();
+            prices[i] = product.getPrice();
+            categoryIds[i] = product.getCategory() != null ? product.getCategory().getId() : null;
+            supplierIds[i] = product.getSupplier() != null ? product.getSupplier().getId() : null;
+            companyIds[i] = product.getCompany().getId();
+        }
+
+        jdbcTemplate.update(con -> {
+            PreparedStatement ps = con.prepareStatement(INSERT_SQL);
+            ps.setArray(1, con.createArrayOf("bigint", ids.toArray()));
+            ps.setArray(2, con.createArrayOf("varchar", names));
+            ps.setArray(3, con.createArrayOf("varchar", descriptions));
+            ps.setArray(4, con.createArrayOf("varchar", skus));
+            ps.setArray(5, con.createArrayOf("numeric", prices));
+            ps.setArray(6, con.createArrayOf("bigint", categoryIds));
+            ps.setArray(7, con.createArrayOf("bigint", supplierIds));
+            ps.setArray(8, con.createArrayOf("bigint", companyIds));
+            return ps;
+        });
+    }
+
+    @Override
+    public void updateBatch(List<Product> products) {
+        if (products.isEmpty()) {
+            return;
+        }
+
+        int size = products.size();
+        Object[] ids = new Object[size];
+        Object[] names = new Object[size];
+        Object[] descriptions = new Object[size];
+        Object[] prices = new Object[size];
+        Object[] categoryIds = new Object[size];
+        Object[] supplierIds = new Object[size];
+        Object[] companyIds = new Object[size];
+        for (int i = 0; i < size; i++) {
+            Product product = products.get(i);
+            ids[i] = product.getId();
+            names[i] = product.getName();
+            descriptions[i] = product.getDescription();
+            prices[i] = product.getPrice();
+            categoryIds[i] = product.getCategory() != null ? product.getCategory().getId() : null;
+            supplierIds[i] = product.getSupplier() != null ? product.getSupplier().getId() : null;
+            companyIds[i] = product.getCompany().getId();
+        }
+
+        jdbcTemplate.update(con -> {
+            PreparedStatement ps = con.prepareStatement(UPDATE_SQL);
+            ps.setArray(1, con.createArrayOf("bigint", ids));
+            ps.setArray(2, con.createArrayOf("varchar", names));
+            ps.setArray(3, con.createArrayOf("varchar", descriptions));
+            ps.setArray(4, con.createArrayOf("numeric", prices));
+            ps.setArray(5, con.createArrayOf("bigint", categoryIds));
+            ps.setArray(6, con.createArrayOf("bigint", supplierIds));
+            ps.setArray(7, con.createArrayOf("bigint", companyIds));
+            return ps;
+        });
+    }
+}
@@ -3,6 +3,8 @@ package com.example.inventory_backend.repository;
 import com.example.inventory_backend.model.Company;
 import com.example.inventory_backend.model.StatsSnapshot;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
@@ -10,7 +12,7 @@ import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface StatsSnapshotRepository extends JpaRepository<StatsSnapshot, Long> {
+public interface StatsSnapshotRepository extends JpaRepository<StatsSnapshot, Long>, StatsSnapshotRepositoryCustom {
 
     // Get the most recent snapshot for a company (yesterday or earlier)
     Optional<StatsSnapshot> findTopByCompanyAndSnapshotDateBeforeOrderBySnapshotDateDesc(
@@ -28,4 +30,8 @@ public interface StatsSnapshotRepository extends JpaRepository<StatsSnapshot, Lo
 
     // Check if snapshot exists for today
     boolean existsByCompanyAndSnapshotDate(Company company, LocalDate date);
+
+    // Companies that already have a snapshot for the date, checked once for the whole daily job
+    @Query("SELECT s.company.id FROM StatsSnapshot s WHERE s.snapshotDate = :date")
+    List<Long> findCompanyIdsBySnapshotDate(@Param("date") LocalDate date);
 }
@@ -0,0 +1,10 @@
+package com.example.inventory_backend.repository;
+
+import com.example.inventory_backend.model.StatsSnapshot;
+
+import java.util.List;
+
+public interface StatsSnapshotRepositoryCustom {
+    // Inserts the snapshots in one JDBC batch; only the company's ID is read from the snapshot
+    void insertBatch(List<StatsSnapshot> snapshots);
+}
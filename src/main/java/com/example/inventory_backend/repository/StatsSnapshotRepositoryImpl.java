@@ -0,0 +1,44 @@
+package com.example.inventory_backend.repository;
+
+import com.example.inventory_backend.model.StatsSnapshot;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+// IDENTITY ids stop Hibernate from batching inserts, so the daily job writes snapshots with plain JDBC batches
+public class StatsSnapshotRepositoryImpl implements StatsSnapshotRepositoryCustom {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO stats_snapshot (snapshot_date, created_at, total_products, total_categories, total_suppliers, " +
+            "low_stock_items, total_inventory_quantity, company_id) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public StatsSnapshotRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void insertBatch(List<StatsSnapshot> snapshots) {
+        if (snapshots.isEmpty()) {
+            return;
+        }
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_SQL, snapshots, snapshots.size(), (ps, snapshot) -> {
+            ps.setDate(1, Date.valueOf(snapshot.getSnapshotDate()));
+            ps.setTimestamp(2, snapshot.getCreatedAt() != null ? Timestamp.valueOf(snapshot.getCreatedAt()) : now);
+            ps.setInt(3, snapshot.getTotalProducts());
+            ps.setInt(4, snapshot.getTotalCategories());
+            ps.setInt(5, snapshot.getTotalSuppliers());
+            ps.setInt(6, snapshot.getLowStockItems());
+            ps.setInt(7, snapshot.getTotalInventoryQuantity());
+            ps.setLong(8, snapshot.getCompany().getId());
+        });
+    }
+}
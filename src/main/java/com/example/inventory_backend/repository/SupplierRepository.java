@@ -2,10 +2,16 @@ package com.example.inventory_backend.repository;
 
 import com.example.inventory_backend.model.Company;
 import com.example.inventory_backend.model.Supplier;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface SupplierRepository extends JpaRepository<Supplier, Long> {
@@ -13,4 +19,12 @@ public interface SupplierRepository extends JpaRepository<Supplier, Long> {
     List<Supplier> findByNameContainingIgnoreCaseAndCompany(String name, Company company);
     List<Supplier> findByCompany(Company company);
     List<Supplier> findByCompanyId(Long companyId);
+
+    // Row-by-row read for streamed responses; must be consumed inside a read-only transaction
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT s FROM Supplier s WHERE s.company.id = :companyId")
+    Stream<Supplier> streamByCompanyId(@Param("companyId") Long companyId);
 }
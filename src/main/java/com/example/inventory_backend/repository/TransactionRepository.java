@@ -1,19 +1,24 @@
 package com.example.inventory_backend.repository;
 
+import com.example.inventory_backend.dto.TransactionDTO;
 import com.example.inventory_backend.model.Company;
 import com.example.inventory_backend.model.Transaction;
 import com.example.inventory_backend.model.Product;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
-public interface TransactionRepository extends JpaRepository<Transaction, Long> {
+public interface TransactionRepository extends JpaRepository<Transaction, Long>, TransactionRepositoryCustom {
     List<Transaction> findByProduct(Product product);
     List<Transaction> findByType(Transaction.TransactionType type);
     List<Transaction> findByTransactionDateBetween(LocalDateTime start, LocalDateTime end);
@@ -22,10 +27,28 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
     // Company-scoped queries
     List<Transaction> findByCompany(Company company);
     List<Transaction> findByCompanyId(Long companyId);
+    
+    // DTO projection: one statement with joins instead of loading entities and their associations
+    @Query("SELECT new com.example.inventory_backend.dto.TransactionDTO(" +
+           "t.id, p.id, p.name, t.type, t.quantity, t.transactionDate, t.unitPrice, t.totalAmount, " +
+           "t.notes, u.id, u.name, t.referenceNumber) " +
+           "FROM Transaction t LEFT JOIN t.product p LEFT JOIN t.createdBy u " +
+           "WHERE t.company.id = :companyId")
+    List<TransactionDTO> findDTOsByCompanyId(@Param("companyId") Long companyId);
     List<Transaction> findByTypeAndCompany(Transaction.TransactionType type, Company company);
     List<Transaction> findByTransactionDateBetweenAndCompany(LocalDateTime start, LocalDateTime end, Company company);
     List<Transaction> findByProductAndCompany(Product product, Company company);
     
+    // Row-by-row read for streamed responses; must be consumed inside a read-only transaction
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT t FROM Transaction t LEFT JOIN FETCH t.product p " +
+           "LEFT JOIN FETCH p.category LEFT JOIN FETCH p.supplier LEFT JOIN FETCH t.createdBy " +
+           "WHERE t.company.id = :companyId")
+    Stream<Transaction> streamByCompanyId(@Param("companyId") Long companyId);
+    
     @Modifying
     @Query("DELETE FROM Transaction t WHERE t.product.id = :productId")
     void deleteByProductId(@Param("productId") Long productId);
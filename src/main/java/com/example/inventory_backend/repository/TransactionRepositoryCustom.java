@@ -0,0 +1,20 @@
+package com.example.inventory_backend.repository;
+
+import com.example.inventory_backend.dto.TransactionFilterDTO;
+import com.example.inventory_backend.model.Transaction;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface TransactionRepositoryCustom {
+    // Inserts the transactions in JDBC batches and assigns the generated IDs back to them
+    void insertBatch(List<Transaction> transactions);
+    
+    // Newest-first page of matching transactions strictly after the (afterDate, afterId) keyset position
+    List<Transaction> findPage(Long companyId, TransactionFilterDTO filter,
+                               LocalDateTime afterDate, Long afterId, int limit);
+    
+    // Oldest-first cursor over all matching transactions; must be consumed inside a read-only transaction
+    Stream<Transaction> streamFiltered(Long companyId, TransactionFilterDTO filter);
+}
@@ -0,0 +1,155 @@
+package com.example.inventory_backend.repository;
+
+import com.example.inventory_backend.dto.TransactionFilterDTO;
+import com.example.inventory_backend.model.Transaction;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.IncorrectResultSizeDataAccessException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+// IDENTITY ids stop Hibernate from batching inserts, so bulk ingestion goes through plain JDBC batches
+public class TransactionRepositoryImpl implements TransactionRepositoryCustom {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO transactions (product_id, type, quantity, transaction_date, unit_price, total_amount, " +
+            "notes, user_id, reference_number, company_id) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    // Product, its category/supplier and the user are fetched in the same query so mapping rows
+    // to DTOs does not fire a query per row
+    private static final String SELECT_WITH_ASSOCIATIONS =
+            "SELECT t FROM Transaction t " +
+            "LEFT JOIN FETCH t.product p LEFT JOIN FETCH p.category LEFT JOIN FETCH p.supplier " +
+            "LEFT JOIN FETCH t.createdBy";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    public TransactionRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void insertBatch(List<Transaction> transactions) {
+        if (transactions.isEmpty()) {
+            return;
+        }
+
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(con -> con.prepareStatement(INSERT_SQL, new String[] {"id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        Transaction transaction = transactions.get(i);
+                        ps.setObject(1, transaction.getProduct() != null ? transaction.getProduct().getId() : null, Types.BIGINT);
+                        ps.setString(2, transaction.getType().name());
+                        ps.setInt(3, transaction.getQuantity());
+                        ps.setTimestamp(4, Timestamp.valueOf(transaction.getTransactionDate()));
+                        ps.setBigDecimal(5, transaction.getUnitPrice());
+                        ps.setBigDecimal(6, transaction.getTotalAmount());
+                        ps.setString(7, transaction.getNotes());
+                        ps.setObject(8, transaction.getCreatedBy() != null ? transaction.getCreatedBy().getId() : null, Types.BIGINT);
+                        ps.setString(9, transaction.getReferenceNumber());
+                        ps.setLong(10, transaction.getCompany().getId());
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return transactions.size();
+                    }
+                }, keyHolder);
+
+        // Every saved row must get its ID back; failing rolls the batch back instead of reporting null IDs
+        List<Map<String, Object>> keys = keyHolder.getKeyList();
+        if (keys.size() != transactions.size()) {
+            throw new IncorrectResultSizeDataAccessException("Generated keys for transaction batch",
+                    transactions.size(), keys.size());
+        }
+        for (int i = 0; i < transactions.size(); i++) {
+            transactions.get(i).setId(((Number) keys.get(i).get("id")).longValue());
+        }
+    }
+
+    @Override
+    public List<Transaction> findPage(Long companyId, TransactionFilterDTO filter,
+                                      LocalDateTime afterDate, Long afterId, int limit) {
+        StringBuilder jpql = new StringBuilder(SELECT_WITH_ASSOCIATIONS);
+        Map<String, Object> params = new HashMap<>();
+        appendFilters(jpql, params, companyId, filter);
+
+        if (afterDate != null && afterId != null) {
+            // Seek past the last row of the previous page instead of using OFFSET
+            jpql.append(" AND (t.transactionDate < :afterDate OR (t.transactionDate = :afterDate AND t.id < :afterId))");
+            params.put("afterDate", afterDate);
+            params.put("afterId", afterId);
+        }
+        jpql.append(" ORDER BY t.transactionDate DESC, t.id DESC");
+
+        TypedQuery<Transaction> query = entityManager.createQuery(jpql.toString(), Transaction.class);
+        params.forEach(query::setParameter);
+        return query.setMaxResults(limit).getResultList();
+    }
+
+    @Override
+    public Stream<Transaction> streamFiltered(Long companyId, TransactionFilterDTO filter) {
+        StringBuilder jpql = new StringBuilder(SELECT_WITH_ASSOCIATIONS);
+        Map<String, Object> params = new HashMap<>();
+        appendFilters(jpql, params, companyId, filter);
+        jpql.append(" ORDER BY t.transactionDate, t.id");
+
+        TypedQuery<Transaction> query = entityManager.createQuery(jpql.toString(), Transaction.class)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, 500)
+                .setHint(HibernateHints.HINT_READ_ONLY, true);
+        params.forEach(query::setParameter);
+        return query.getResultStream();
+    }
+
+    private void appendFilters(StringBuilder jpql, Map<String, Object> params, Long companyId,
+                               TransactionFilterDTO filter) {
+        jpql.append(" WHERE t.company.id = :companyId");
+        params.put("companyId", companyId);
+
+        if (filter.getProductId() != null) {
+            jpql.append(" AND t.product.id = :productId");
+            params.put("productId", filter.getProductId());
+        }
+        if (filter.getType() != null) {
+            jpql.append(" AND t.type = :type");
+            params.put("type", filter.getType());
+        }
+        if (filter.getStart() != null) {
+            jpql.append(" AND t.transactionDate >= :start");
+            params.put("start", filter.getStart());
+        }
+        if (filter.getEnd() != null) {
+            jpql.append(" AND t.transactionDate <= :end");
+            params.put("end", filter.getEnd());
+        }
+        if (filter.getUserId() != null) {
+            jpql.append(" AND t.createdBy.id = :userId");
+            params.put("userId", filter.getUserId());
+        }
+        if (filter.getReferenceNumber() != null) {
+            jpql.append(" AND t.referenceNumber = :referenceNumber");
+            params.put("referenceNumber", filter.getReferenceNumber());
+        }
+    }
+}
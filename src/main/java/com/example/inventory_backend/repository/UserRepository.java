@@ -3,15 +3,22 @@ package com.example.inventory_backend.repository;
 import com.example.inventory_backend.model.Company;
 import com.example.inventory_backend.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface UserRepository extends JpaRepository<User, Long> {
+public interface UserRepository extends JpaRepository<User, Long>, UserRepositoryCustom {
     Optional<User> findByEmail(String email);
     List<User> findByCompany(Company company);
     List<User> findByCompanyId(Long companyId);
+    List<User> findByIdInAndCompanyId(Collection<Long> ids, Long companyId);
     long countByCompanyAndRole(Company company, User.Role role);
+    
+    @Query("SELECT u.tokenVersion FROM User u WHERE u.id = :id")
+    Optional<Integer> findTokenVersionById(@Param("id") Long id);
 }
@@ -0,0 +1,9 @@
+package com.example.inventory_backend.repository;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+public interface UserRepositoryCustom {
+    // Sets last seen (user ID -> time) for all given users in one statement; never moves it backwards
+    int updateLastSeen(Map<Long, LocalDateTime> lastSeen);
+}
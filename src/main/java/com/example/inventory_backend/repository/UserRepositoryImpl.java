@@ -0,0 +1,47 @@
+package com.example.inventory_backend.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+public class UserRepositoryImpl implements UserRepositoryCustom {
+
+    private static final String UPDATE_LAST_SEEN_SQL =
+            "UPDATE users u SET last_seen = GREATEST(u.last_seen, s.last_seen) " +
+            "FROM unnest(?::bigint[], ?::timestamp[]) AS s(user_id, last_seen) " +
+            "WHERE u.id = s.user_id";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public UserRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public int updateLastSeen(Map<Long, LocalDateTime> lastSeen) {
+        if (lastSeen.isEmpty()) {
+            return 0;
+        }
+
+        Long[] userIds = new Long[lastSeen.size()];
+        Timestamp[] times = new Timestamp[lastSeen.size()];
+        int i = 0;
+        for (Map.Entry<Long, LocalDateTime> entry : lastSeen.entrySet()) {
+            userIds[i] = entry.getKey();
+            times[i] = Timestamp.valueOf(entry.getValue());
+            i++;
+        }
+
+        return jdbcTemplate.update(con -> {
+            PreparedStatement ps = con.prepareStatement(UPDATE_LAST_SEEN_SQL);
+            ps.setArray(1, con.createArrayOf("bigint", userIds));
+            ps.setArray(2, con.createArrayOf("timestamp", times));
+            return ps;
+        });
+    }
+}
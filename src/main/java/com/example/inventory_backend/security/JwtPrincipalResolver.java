@@ -0,0 +1,47 @@
+package com.example.inventory_backend.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import io.jsonwebtoken.Claims;
+
+// Turns a bearer token into the authenticated principal for both HTTP requests and websocket
+// connects. Current tokens carry everything in their claims; only legacy tokens hit the database.
+@Component
+public class JwtPrincipalResolver {
+
+    private static final Logger logger = LoggerFactory.getLogger(JwtPrincipalResolver.class);
+
+    @Autowired
+    private JwtUtils jwtUtils;
+
+    @Autowired
+    private TokenVersionService tokenVersionService;
+
+    @Autowired
+    private UserDetailsServiceImpl userDetailsService;
+
+    // Returns null when the token is invalid, expired or revoked
+    public UserDetailsImpl resolve(String token) {
+        // One verification per token; repeats are served from the verified-token cache
+        Claims claims = jwtUtils.parseVerifiedClaims(token);
+        if (claims == null) {
+            return null;
+        }
+
+        UserDetailsImpl userDetails = jwtUtils.getUserDetailsFromClaims(claims);
+        if (userDetails == null) {
+            UserDetailsImpl current = (UserDetailsImpl) userDetailsService.loadUserByUsername(claims.getSubject());
+            // Legacy tokens predate versioning and are only honoured until the user is first revoked
+            return current.getTokenVersion() == 0 ? current : null;
+        }
+
+        if (!tokenVersionService.isCurrent(userDetails.getId(), userDetails.getTokenVersion())) {
+            logger.debug("Rejected revoked token for user {}", userDetails.getId());
+            return null;
+        }
+        return userDetails;
+    }
+}
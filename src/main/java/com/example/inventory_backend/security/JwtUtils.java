@@ -1,15 +1,29 @@
 package com.example.inventory_backend.security;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import jakarta.annotation.PostConstruct;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.stereotype.Component;
 
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.SignatureAlgorithm;
@@ -20,36 +34,81 @@ import io.jsonwebtoken.security.Keys;
 public class JwtUtils {
     private static final Logger logger = LoggerFactory.getLogger(JwtUtils.class);
 
+    // Identity claims, enough to authenticate a request without loading the user
+    private static final String CLAIM_USER_ID = "uid";
+    private static final String CLAIM_NAME = "name";
+    private static final String CLAIM_ROLE = "role";
+    private static final String CLAIM_COMPANY_ID = "cid";
+    private static final String CLAIM_COMPANY_NAME = "cname";
+    private static final String CLAIM_TOKEN_VERSION = "ver";
+
     @Value("${app.jwtSecret:myVerySecretKey123456789012345678901234567890}")
     private String jwtSecret;
 
     @Value("${app.jwtExpirationMs:86400000}")
     private int jwtExpirationMs;
 
+    @Value("${app.jwt.verified-cache-size:10000}")
+    private int verifiedCacheSize;
+
+    private Key key;
+    private JwtParser parser;
+    private VerifiedTokenCache verifiedTokens;
+
     public String generateJwtToken(Authentication authentication) {
         UserDetailsImpl userPrincipal = (UserDetailsImpl) authentication.getPrincipal();
+        String role = userPrincipal.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .findFirst()
+                .map(authority -> authority.substring("ROLE_".length()))
+                .orElse(null);
         
         return Jwts.builder()
                 .setSubject((userPrincipal.getEmail())) 
+                .claim(CLAIM_USER_ID, userPrincipal.getId())
+                .claim(CLAIM_NAME, userPrincipal.getUsername())
+                .claim(CLAIM_ROLE, role)
+                .claim(CLAIM_COMPANY_ID, userPrincipal.getCompanyId())
+                .claim(CLAIM_COMPANY_NAME, userPrincipal.getCompanyName())
+                .claim(CLAIM_TOKEN_VERSION, userPrincipal.getTokenVersion())
                 .setIssuedAt(new Date())
                 .setExpiration(new Date((new Date()).getTime() + jwtExpirationMs))
                 .signWith(key(), SignatureAlgorithm.HS256)
                 .compact();
     }
 
-    private Key key() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes());
+    @PostConstruct
+    public void init() {
+        // The key and parser are immutable and thread-safe, so they are built once
+        key = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        parser = Jwts.parserBuilder().setSigningKey(key).build();
+        verifiedTokens = new VerifiedTokenCache(verifiedCacheSize);
     }
 
-    public String getUserNameFromJwtToken(String token) {
-        return Jwts.parserBuilder().setSigningKey(key()).build()
-                .parseClaimsJws(token).getBody().getSubject();
+    private Key key() {
+        return key;
     }
 
-    public boolean validateJwtToken(String authToken) {
+    // Verifies the token once and returns its claims, or null if it is invalid or expired.
+    // Recently verified tokens are served from a bounded cache keyed by the token's hash.
+    public Claims parseVerifiedClaims(String token) {
+        if (token == null || token.isEmpty()) {
+            logger.error("JWT claims string is empty");
+            return null;
+        }
+
+        String tokenHash = hash(token);
+        Claims cached = verifiedTokens.get(tokenHash);
+        if (cached != null) {
+            return cached;
+        }
+
         try {
-            Jwts.parserBuilder().setSigningKey(key()).build().parseClaimsJws(authToken);
-            return true;
+            Claims claims = parser.parseClaimsJws(token).getBody();
+            if (claims.getExpiration() != null) {
+                verifiedTokens.put(tokenHash, claims);
+            }
+            return claims;
         } catch (ExpiredJwtException e) {
             logger.error("JWT token is expired: {}", e.getMessage());
         } catch (MalformedJwtException e) {
@@ -61,6 +120,114 @@ public class JwtUtils {
         } catch (Exception e) {
             logger.error("JWT validation error: {}", e.getMessage());
         }
-        return false;
+        return null;
+    }
+
+    public String getUserNameFromJwtToken(String token) {
+        Claims claims = parseVerifiedClaims(token);
+        return claims != null ? claims.getSubject() : null;
+    }
+
+    // Builds the principal from the token claims. Returns null for tokens issued before the
+    // identity claims existed, which still have to be resolved through the database.
+    public UserDetailsImpl getUserDetailsFromClaims(Claims claims) {
+        Long userId = claims.get(CLAIM_USER_ID, Long.class);
+        String role = claims.get(CLAIM_ROLE, String.class);
+        if (userId == null || role == null) {
+            return null;
+        }
+
+        Integer tokenVersion = claims.get(CLAIM_TOKEN_VERSION, Integer.class);
+        return new UserDetailsImpl(
+                userId,
+                claims.get(CLAIM_NAME, String.class),
+                claims.getSubject(),
+                null,
+                List.of(new SimpleGrantedAuthority("ROLE_" + role)),
+                claims.get(CLAIM_COMPANY_ID, Long.class),
+                claims.get(CLAIM_COMPANY_NAME, String.class),
+                tokenVersion != null ? tokenVersion : 0);
+    }
+
+    public boolean validateJwtToken(String authToken) {
+        return parseVerifiedClaims(authToken) != null;
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    // Verified claims by token hash. Lookups are lock-free, so concurrent requests never queue on the cache.
+    // An expired token is never served from here: its entry is dropped on lookup and the token is parsed
+    // again, which reports the expiry. Each entry records when it was last used, so a full cache drops
+    // the least recently used tokens and keeps the ones in active use.
+    static class VerifiedTokenCache {
+        private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+        private final AtomicBoolean evicting = new AtomicBoolean();
+        private final int maxSize;
+
+        VerifiedTokenCache(int maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        Claims get(String tokenHash) {
+            Entry entry = entries.get(tokenHash);
+            if (entry == null) {
+                return null;
+            }
+            if (isExpired(entry)) {
+                entries.remove(tokenHash, entry);
+                return null;
+            }
+            entry.lastAccess = System.nanoTime();
+            return entry.claims;
+        }
+
+        void put(String tokenHash, Claims claims) {
+            entries.put(tokenHash, new Entry(claims));
+            // One thread trims an over-full cache while the others carry on
+            if (entries.size() > maxSize && evicting.compareAndSet(false, true)) {
+                try {
+                    evict();
+                } finally {
+                    evicting.set(false);
+                }
+            }
+        }
+
+        // Expired tokens go first. If the cache is still full, the least recently used entries are dropped
+        // down to 90% of the limit, so the sort is paid once per tenth of the cache's turnover; those
+        // tokens are just verified again on their next request.
+        private void evict() {
+            entries.values().removeIf(VerifiedTokenCache::isExpired);
+            int target = maxSize - maxSize / 10;
+            int excess = entries.size() - target;
+            if (excess <= 0) {
+                return;
+            }
+
+            long[] accessTimes = entries.values().stream().mapToLong(entry -> entry.lastAccess).sorted().toArray();
+            long cutoff = accessTimes[Math.min(excess, accessTimes.length) - 1];
+            entries.values().removeIf(entry -> entry.lastAccess <= cutoff);
+        }
+
+        private static boolean isExpired(Entry entry) {
+            return entry.claims.getExpiration().getTime() <= System.currentTimeMillis();
+        }
+
+        private static final class Entry {
+            private final Claims claims;
+            // System.nanoTime() of the last lookup; a plain write, racing updates are all recent anyway
+            private volatile long lastAccess = System.nanoTime();
+
+            private Entry(Claims claims) {
+                this.claims = claims;
+            }
+        }
     }
 }
@@ -0,0 +1,26 @@
+package com.example.inventory_backend.security;
+
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+
+// WebSocket principal named by user ID. Spring resolves /user/... destinations by principal name, and
+// the default name (the display name from UserDetails) is not unique.
+public class StompAuthenticationToken extends UsernamePasswordAuthenticationToken {
+    private static final long serialVersionUID = 1L;
+
+    public StompAuthenticationToken(UserDetailsImpl userDetails) {
+        super(userDetails, null, userDetails.getAuthorities());
+    }
+
+    public static String nameOf(Long userId) {
+        return String.valueOf(userId);
+    }
+
+    public Long getUserId() {
+        return ((UserDetailsImpl) getPrincipal()).getId();
+    }
+
+    @Override
+    public String getName() {
+        return nameOf(getUserId());
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.inventory_backend.security;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.example.inventory_backend.model.User;
+import com.example.inventory_backend.repository.UserRepository;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Current token version per user, so revocation can be checked on every request without a query.
+// Entries expire after a short TTL so a bump made by another instance is picked up eventually.
+@Service
+public class TokenVersionService {
+
+    // Cached for users that no longer exist, so their tokens keep failing without a lookup each time
+    private static final int MISSING_USER = -1;
+
+    private record CachedVersion(int version, long loadedAt) {}
+
+    private final Map<Long, CachedVersion> versions = new ConcurrentHashMap<>();
+
+    @Value("${app.jwt.version-cache-ttl-ms:60000}")
+    private long cacheTtlMs;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    public boolean isCurrent(Long userId, int tokenVersion) {
+        long now = System.currentTimeMillis();
+        CachedVersion cached = versions.get(userId);
+        if (cached == null || now - cached.loadedAt() > cacheTtlMs) {
+            int version = userRepository.findTokenVersionById(userId).orElse(MISSING_USER);
+            cached = new CachedVersion(version, now);
+            versions.put(userId, cached);
+        }
+        return cached.version() == tokenVersion;
+    }
+
+    // Invalidates all tokens issued to the user so far. The caller saves the user and then evicts it,
+    // so a concurrent request cannot cache the old version after the eviction.
+    public void revoke(User user) {
+        user.setTokenVersion(user.getTokenVersion() + 1);
+    }
+
+    public void evict(Long userId) {
+        versions.remove(userId);
+    }
+}
@@ -23,9 +23,11 @@ public class UserDetailsImpl implements UserDetails {
     private Collection<? extends GrantedAuthority> authorities;
     private Long companyId;
     private String companyName;
+    private int tokenVersion;
 
     public UserDetailsImpl(Long id, String username, String email, String password,
-            Collection<? extends GrantedAuthority> authorities, Long companyId, String companyName) {
+            Collection<? extends GrantedAuthority> authorities, Long companyId, String companyName,
+            int tokenVersion) {
         this.id = id;
         this.username = username;
         this.email = email;
@@ -33,6 +35,7 @@ public class UserDetailsImpl implements UserDetails {
         this.authorities = authorities;
         this.companyId = companyId;
         this.companyName = companyName;
+        this.tokenVersion = tokenVersion;
     }
 
     public static UserDetailsImpl build(User user) {
@@ -47,7 +50,8 @@ public class UserDetailsImpl implements UserDetails {
                 user.getPassword(),
                 authorities,
                 user.getCompany() != null ? user.getCompany().getId() : null,
-                user.getCompany() != null ? user.getCompany().getName() : null);
+                user.getCompany() != null ? user.getCompany().getName() : null,
+                user.getTokenVersion());
     }
 
     @Override
@@ -70,6 +74,10 @@ public class UserDetailsImpl implements UserDetails {
     public String getCompanyName() {
         return companyName;
     }
+    
+    public int getTokenVersion() {
+        return tokenVersion;
+    }
 
     @Override
     public String getPassword() {
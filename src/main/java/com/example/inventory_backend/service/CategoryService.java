@@ -1,13 +1,17 @@
 package com.example.inventory_backend.service;
 
+import com.example.inventory_backend.dto.CategoryDTO;
 import com.example.inventory_backend.model.Category;
 import com.example.inventory_backend.model.Company;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface CategoryService {
     List<Category> getAllCategories(Company company);
     
+    Stream<CategoryDTO> streamAllCategoryDTOs(Company company);
+    
     Category getCategoryById(Long id, Company company);
     
     Category getCategoryByName(String name, Company company);
@@ -2,6 +2,7 @@ package com.example.inventory_backend.service;
 
 import com.example.inventory_backend.dto.ChatDTO;
 import com.example.inventory_backend.dto.ChatMessageDTO;
+import com.example.inventory_backend.dto.ChatMessagePageDTO;
 import com.example.inventory_backend.model.User;
 
 import java.util.List;
@@ -11,6 +12,8 @@ public interface ChatService {
     List<ChatDTO> getRecentChats(User currentUser);
     ChatDTO getChatById(Long chatId, User currentUser);
     List<ChatMessageDTO> getChatMessages(Long chatId, User currentUser);
+    // Messages before or after the given message id (at most one of them), else the newest ones
+    ChatMessagePageDTO getChatMessagePage(Long chatId, Long beforeId, Long afterId, int limit, User currentUser);
     ChatMessageDTO sendMessage(Long chatId, String content, User sender);
     void markChatAsRead(Long chatId, User currentUser);
     int countUnreadMessages(User currentUser);
@@ -0,0 +1,116 @@
+package com.example.inventory_backend.service;
+
+import com.example.inventory_backend.repository.ChatParticipantRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Per-user unread chat message totals (the badge), loaded lazily from the participants' unread counters
+// and then maintained from known deltas once the change commits, so pushing the badge after a message
+// costs no query. A periodic reconciliation corrects drift, e.g. from a load racing with a send.
+@Service
+public class ChatUnreadCounterService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChatUnreadCounterService.class);
+
+    // Totals by user ID
+    private final Map<Long, AtomicInteger> unreadCounts = new ConcurrentHashMap<>();
+
+    @Autowired
+    private ChatParticipantRepository chatParticipantRepository;
+
+    @Autowired
+    private SimpMessagingTemplate messagingTemplate;
+
+    public int getUnreadCount(Long userId) {
+        return Math.max(0, load(userId).get());
+    }
+
+    // A message was sent to the recipients of a chat
+    public void messageSent(Long chatId, Collection<Long> recipientIds) {
+        afterCommit(() -> {
+            for (Long userId : recipientIds) {
+                AtomicInteger cached = unreadCounts.get(userId);
+                // Loaded after the commit, so a cold counter already includes the message
+                int count = cached != null ? cached.incrementAndGet() : load(userId).get();
+                push(userId, chatId, Math.max(0, count));
+            }
+        });
+    }
+
+    // The user's unread counter for the chat changed by delta (negative when messages were read).
+    // Not clamped here: the delta can be applied before the increment of a message it already covers,
+    // and the total only adds up if the counter may dip below zero in between.
+    public void chatRead(Long chatId, Long userId, int delta) {
+        afterCommit(() -> {
+            AtomicInteger cached = unreadCounts.get(userId);
+            int count = cached != null ? cached.addAndGet(delta) : load(userId).get();
+            push(userId, chatId, Math.max(0, count));
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${app.chat.unread-reconcile-interval-ms:300000}",
+            initialDelayString = "${app.chat.unread-reconcile-interval-ms:300000}")
+    public void reconcile() {
+        if (unreadCounts.isEmpty()) {
+            return;
+        }
+
+        List<Long> userIds = new ArrayList<>(unreadCounts.keySet());
+        Map<Long, Integer> actual = new HashMap<>();
+        for (Object[] row : chatParticipantRepository.sumUnreadCountsByUser(userIds)) {
+            actual.put((Long) row[0], toCount(((Number) row[1]).longValue()));
+        }
+
+        for (Long userId : userIds) {
+            AtomicInteger cached = unreadCounts.get(userId);
+            int count = actual.getOrDefault(userId, 0);
+            if (cached != null && cached.getAndSet(count) != count) {
+                logger.warn("Corrected unread chat message count for user {}", userId);
+            }
+        }
+    }
+
+    private AtomicInteger load(Long userId) {
+        return unreadCounts.computeIfAbsent(userId,
+                id -> new AtomicInteger(toCount(chatParticipantRepository.sumUnreadCounts(id))));
+    }
+
+    private void push(Long userId, Long chatId, int unreadCount) {
+        Map<String, Object> unreadUpdate = new HashMap<>();
+        unreadUpdate.put("unreadCount", unreadCount);
+        unreadUpdate.put("chatId", chatId);
+        messagingTemplate.convertAndSend("/topic/chat/unread/" + userId, unreadUpdate);
+    }
+
+    // The delta only exists once the counter UPDATE commits
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private static int toCount(long count) {
+        return (int) Math.max(0, Math.min(Integer.MAX_VALUE, count));
+    }
+}
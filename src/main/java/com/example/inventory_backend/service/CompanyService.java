@@ -4,6 +4,8 @@ import com.example.inventory_backend.model.Company;
 
 public interface CompanyService {
     Company getCompanyById(Long id);
+    // Lazy reference for a company ID that is already trusted (e.g. from the token); no query until a field is read
+    Company getCompanyReference(Long id);
     Company saveCompany(Company company);
     boolean existsByCui(String cui);
 }
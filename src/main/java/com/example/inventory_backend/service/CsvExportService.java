@@ -0,0 +1,178 @@
+package com.example.inventory_backend.service;
+
+import com.example.inventory_backend.dto.CategoryDTO;
+import com.example.inventory_backend.dto.TransactionFilterDTO;
+import com.example.inventory_backend.model.*;
+import com.example.inventory_backend.service.ExportService.ExportType;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.function.BiConsumer;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+// CSV exports for bulk consumers that have no use for a spreadsheet. Rows come from the same database
+// cursors as the Excel exports but skip POI and its zip packaging: each row is escaped into CsvWriter's
+// buffer and written to the output stream as it is read, optionally gzip-compressed.
+@Service
+public class CsvExportService {
+
+    private static final int GZIP_BUFFER_SIZE = 64 * 1024;
+
+    private static final String[] TRANSACTION_COLUMNS = {"ID", "Date", "Type", "Product ID", "Product", "SKU",
+            "Quantity", "Unit Price", "Total Amount", "Reference Number", "Notes", "User"};
+
+    // Should match the fetch size hinted on the streaming repository queries
+    @Value("${app.streaming.clear-interval:500}")
+    private int clearInterval;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private SupplierService supplierService;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private TransactionTemplate readTemplate;
+
+    @PostConstruct
+    public void init() {
+        // Postgres only honours the fetch size inside a transaction, otherwise the driver buffers everything
+        readTemplate = new TransactionTemplate(transactionManager);
+        readTemplate.setReadOnly(true);
+    }
+
+    // One entity per file, so ALL is rejected with IllegalArgumentException
+    public void export(ExportType type, Company company, OutputStream out, boolean gzip) throws IOException {
+        switch (type) {
+            case PRODUCTS -> write(out, gzip, ExportService.PRODUCT_COLUMNS,
+                    () -> productService.streamAllProducts(company), this::writeProductRow);
+            case CATEGORIES -> write(out, gzip, ExportService.CATEGORY_COLUMNS,
+                    () -> categoryService.streamAllCategoryDTOs(company), this::writeCategoryRow);
+            case SUPPLIERS -> write(out, gzip, ExportService.SUPPLIER_COLUMNS,
+                    () -> supplierService.streamAllSuppliers(company), this::writeSupplierRow);
+            case INVENTORY -> write(out, gzip, ExportService.INVENTORY_COLUMNS,
+                    () -> inventoryService.streamAllInventory(company), this::writeInventoryRow);
+            default -> throw new IllegalArgumentException("CSV export is not available for " + type);
+        }
+    }
+
+    public void exportTransactions(TransactionFilterDTO filter, Company company, OutputStream out, boolean gzip)
+            throws IOException {
+        write(out, gzip, TRANSACTION_COLUMNS,
+                () -> transactionService.streamTransactions(filter, company), this::writeTransactionRow);
+    }
+
+    private <T> void write(OutputStream out, boolean gzip, String[] columns,
+                           java.util.function.Supplier<Stream<T>> rows, BiConsumer<CsvWriter, T> rowWriter)
+            throws IOException {
+        // The caller owns the output stream, so it is flushed and finished here but never closed
+        GZIPOutputStream gzipOut = gzip ? new GZIPOutputStream(out, GZIP_BUFFER_SIZE) : null;
+        CsvWriter csv = new CsvWriter(new OutputStreamWriter(gzip ? gzipOut : out, StandardCharsets.UTF_8));
+        csv.row(columns);
+
+        readTemplate.executeWithoutResult(status -> {
+            try (Stream<T> stream = rows.get()) {
+                Iterator<T> iterator = stream.iterator();
+                int written = 0;
+                while (iterator.hasNext()) {
+                    rowWriter.accept(csv, iterator.next());
+                    csv.endRow();
+                    if (++written % clearInterval == 0) {
+                        entityManager.clear();
+                    }
+                }
+            }
+        });
+
+        csv.flush();
+        if (gzipOut != null) {
+            gzipOut.finish();
+        }
+    }
+
+    private void writeProductRow(CsvWriter csv, Product product) {
+        csv.field(product.getId())
+                .field(product.getName())
+                .field(product.getDescription())
+                .field(product.getSku())
+                .field(plain(product.getPrice()))
+                .field(product.getCategory() != null ? product.getCategory().getName() : null)
+                .field(product.getSupplier() != null ? product.getSupplier().getName() : null);
+    }
+
+    private void writeCategoryRow(CsvWriter csv, CategoryDTO category) {
+        csv.field(category.getId())
+                .field(category.getName())
+                .field(category.getDescription())
+                .field(category.getProductCount());
+    }
+
+    private void writeSupplierRow(CsvWriter csv, Supplier supplier) {
+        csv.field(supplier.getId())
+                .field(supplier.getName())
+                .field(supplier.getContactName())
+                .field(supplier.getEmail())
+                .field(supplier.getPhone())
+                .field(supplier.getAddress());
+    }
+
+    private void writeInventoryRow(CsvWriter csv, Inventory inventory) {
+        Product product = inventory.getProduct();
+        csv.field(inventory.getId())
+                .field(product != null ? product.getName() : null)
+                .field(product != null ? product.getSku() : null)
+                .field(inventory.getQuantity())
+                .field(inventory.getReorderLevel())
+                .field(inventory.getReorderQuantity())
+                .field(inventory.getLocation())
+                .field(inventory.getLastUpdated());
+    }
+
+    private void writeTransactionRow(CsvWriter csv, Transaction transaction) {
+        Product product = transaction.getProduct();
+        csv.field(transaction.getId())
+                .field(transaction.getTransactionDate())
+                .field(transaction.getType())
+                .field(product != null ? product.getId() : null)
+                .field(product != null ? product.getName() : null)
+                .field(product != null ? product.getSku() : null)
+                .field(transaction.getQuantity())
+                .field(plain(transaction.getUnitPrice()))
+                .field(plain(transaction.getTotalAmount()))
+                .field(transaction.getReferenceNumber())
+                .field(transaction.getNotes())
+                .field(transaction.getCreatedBy() != null ? transaction.getCreatedBy().getName() : null);
+    }
+
+    // BigDecimal.toString can switch to exponent notation
+    private static String plain(BigDecimal value) {
+        return value != null ? value.toPlainString() : null;
+    }
+}
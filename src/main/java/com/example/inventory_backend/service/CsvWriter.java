@@ -0,0 +1,118 @@
+package com.example.inventory_backend.service;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+
+// RFC 4180 CSV writer. Fields are escaped straight into one reusable char buffer that is handed to the
+// underlying writer whenever it fills up, so rows never become intermediate Strings. Fields containing
+// a comma, quote, CR or LF are quoted with embedded quotes doubled; records end with CRLF.
+public class CsvWriter implements Flushable {
+
+    private static final int BUFFER_SIZE = 16 * 1024;
+
+    private final Writer writer;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private int position;
+    private boolean rowStarted;
+
+    public CsvWriter(Writer writer) {
+        this.writer = writer;
+    }
+
+    public CsvWriter row(String... fields) {
+        for (String field : fields) {
+            field(field);
+        }
+        return endRow();
+    }
+
+    // Null is written as an empty field
+    public CsvWriter field(Object value) {
+        return field(value != null ? value.toString() : null);
+    }
+
+    public CsvWriter field(String value) {
+        if (rowStarted) {
+            append(',');
+        }
+        rowStarted = true;
+
+        if (value == null || value.isEmpty()) {
+            return this;
+        }
+        if (!needsQuoting(value)) {
+            append(value);
+            return this;
+        }
+
+        append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                append('"');
+            }
+            append(c);
+        }
+        append('"');
+        return this;
+    }
+
+    public CsvWriter endRow() {
+        append('\r');
+        append('\n');
+        rowStarted = false;
+        return this;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        drain();
+        writer.flush();
+    }
+
+    private static boolean needsQuoting(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == ',' || c == '"' || c == '\r' || c == '\n') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void append(char c) {
+        if (position == buffer.length) {
+            drainUnchecked();
+        }
+        buffer[position++] = c;
+    }
+
+    private void append(String value) {
+        int offset = 0;
+        int length = value.length();
+        while (offset < length) {
+            if (position == buffer.length) {
+                drainUnchecked();
+            }
+            int count = Math.min(length - offset, buffer.length - position);
+            value.getChars(offset, offset + count, buffer, position);
+            position += count;
+            offset += count;
+        }
+    }
+
+    private void drainUnchecked() {
+        try {
+            drain();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void drain() throws IOException {
+        writer.write(buffer, 0, position);
+        position = 0;
+    }
+}
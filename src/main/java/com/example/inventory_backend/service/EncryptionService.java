@@ -1,15 +1,24 @@
 package com.example.inventory_backend.service;
 
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.Cipher;
+import javax.crypto.NoSuchPaddingException;
 import javax.crypto.spec.GCMParameterSpec;
 import javax.crypto.spec.SecretKeySpec;
 import java.nio.charset.StandardCharsets;
+import java.security.NoSuchAlgorithmException;
 import java.security.SecureRandom;
 import java.util.Base64;
+import java.util.List;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
 
+// AES-256-GCM for chat messages, stored as Base64(IV || ciphertext || tag). The key is derived once,
+// each thread reuses its own Cipher (re-initialised per message with a fresh IV), and IVs come from
+// one shared SecureRandom.
 @Service
 public class EncryptionService {
 
@@ -17,33 +26,47 @@ public class EncryptionService {
     private static final int GCM_IV_LENGTH = 12;
     private static final int GCM_TAG_LENGTH = 128;
 
+    // Below this many items the batch methods stay on the calling thread
+    private static final int PARALLEL_THRESHOLD = 256;
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private static final ThreadLocal<Cipher> CIPHER = ThreadLocal.withInitial(() -> {
+        try {
+            return Cipher.getInstance(ALGORITHM);
+        } catch (NoSuchAlgorithmException | NoSuchPaddingException e) {
+            throw new IllegalStateException(ALGORITHM + " is not available", e);
+        }
+    });
+
     @Value("${app.encryption.key:defaultEncryptionKey123456}")
     private String encryptionKey;
 
+    private SecretKeySpec secretKey;
+
+    @PostConstruct
+    public void init() {
+        secretKey = new SecretKeySpec(getKeyBytes(), "AES");
+    }
+
     public String encrypt(String plainText) {
         if (plainText == null || plainText.isEmpty()) {
             return plainText;
         }
 
         try {
-            byte[] key = getKeyBytes();
-            SecretKeySpec secretKey = new SecretKeySpec(key, "AES");
-
             // Generate random IV
             byte[] iv = new byte[GCM_IV_LENGTH];
-            SecureRandom random = new SecureRandom();
-            random.nextBytes(iv);
-
-            Cipher cipher = Cipher.getInstance(ALGORITHM);
-            GCMParameterSpec parameterSpec = new GCMParameterSpec(GCM_TAG_LENGTH, iv);
-            cipher.init(Cipher.ENCRYPT_MODE, secretKey, parameterSpec);
+            RANDOM.nextBytes(iv);
 
-            byte[] encryptedBytes = cipher.doFinal(plainText.getBytes(StandardCharsets.UTF_8));
+            Cipher cipher = CIPHER.get();
+            cipher.init(Cipher.ENCRYPT_MODE, secretKey, new GCMParameterSpec(GCM_TAG_LENGTH, iv));
 
-            // Combine IV and encrypted data
-            byte[] combined = new byte[iv.length + encryptedBytes.length];
-            System.arraycopy(iv, 0, combined, 0, iv.length);
-            System.arraycopy(encryptedBytes, 0, combined, iv.length, encryptedBytes.length);
+            // IV and ciphertext are written into one array, which is then encoded as is
+            byte[] input = plainText.getBytes(StandardCharsets.UTF_8);
+            byte[] combined = new byte[GCM_IV_LENGTH + cipher.getOutputSize(input.length)];
+            System.arraycopy(iv, 0, combined, 0, GCM_IV_LENGTH);
+            cipher.doFinal(input, 0, input.length, combined, GCM_IV_LENGTH);
 
             return Base64.getEncoder().encodeToString(combined);
         } catch (Exception e) {
@@ -57,22 +80,13 @@ public class EncryptionService {
         }
 
         try {
-            byte[] key = getKeyBytes();
-            SecretKeySpec secretKey = new SecretKeySpec(key, "AES");
-
             byte[] combined = Base64.getDecoder().decode(encryptedText);
 
-            // Extract IV and encrypted data
-            byte[] iv = new byte[GCM_IV_LENGTH];
-            byte[] encryptedBytes = new byte[combined.length - GCM_IV_LENGTH];
-            System.arraycopy(combined, 0, iv, 0, iv.length);
-            System.arraycopy(combined, iv.length, encryptedBytes, 0, encryptedBytes.length);
-
-            Cipher cipher = Cipher.getInstance(ALGORITHM);
-            GCMParameterSpec parameterSpec = new GCMParameterSpec(GCM_TAG_LENGTH, iv);
-            cipher.init(Cipher.DECRYPT_MODE, secretKey, parameterSpec);
+            // IV and ciphertext are read in place rather than copied out
+            Cipher cipher = CIPHER.get();
+            cipher.init(Cipher.DECRYPT_MODE, secretKey, new GCMParameterSpec(GCM_TAG_LENGTH, combined, 0, GCM_IV_LENGTH));
 
-            byte[] decryptedBytes = cipher.doFinal(encryptedBytes);
+            byte[] decryptedBytes = cipher.doFinal(combined, GCM_IV_LENGTH, combined.length - GCM_IV_LENGTH);
             return new String(decryptedBytes, StandardCharsets.UTF_8);
         } catch (Exception e) {
             // If decryption fails, return the original text (for backward compatibility with unencrypted messages)
@@ -80,6 +94,22 @@ public class EncryptionService {
         }
     }
 
+    // Same order as the input; large lists are processed in parallel
+    public List<String> encryptAll(List<String> plainTexts) {
+        return map(plainTexts, this::encrypt);
+    }
+
+    public List<String> decryptAll(List<String> encryptedTexts) {
+        return map(encryptedTexts, this::decrypt);
+    }
+
+    private static List<String> map(List<String> values, UnaryOperator<String> operation) {
+        if (values.size() < PARALLEL_THRESHOLD) {
+            return values.stream().map(operation).collect(Collectors.toList());
+        }
+        return values.parallelStream().map(operation).collect(Collectors.toList());
+    }
+
     private byte[] getKeyBytes() {
         byte[] keyBytes = encryptionKey.getBytes(StandardCharsets.UTF_8);
         // Ensure key is exactly 32 bytes (256 bits) for AES-256
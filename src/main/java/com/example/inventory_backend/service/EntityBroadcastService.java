@@ -1,40 +1,224 @@
 package com.example.inventory_backend.service;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.MessagingException;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
+// Entity changes are buffered per company and sent to /topic/updates/{companyId} once per window, so a
+// burst of edits (e.g. a stock-take) reaches dashboards as a few frames instead of one per change.
+// Within a window, changes to the same entity are merged so that only its final state is sent:
+// CREATE + UPDATE -> CREATE, UPDATE + UPDATE -> UPDATE, UPDATE + DELETE -> DELETE, CREATE + DELETE -> nothing.
+// A merged update or delete moves to the position of its latest change, so the state it carries is sent
+// after everything that existed when it was made. A create keeps its position, so entities created after
+// it still follow it; having absorbed later updates, its state may refer to something later in the batch.
 @Service
 public class EntityBroadcastService {
 
+    private static final Logger logger = LoggerFactory.getLogger(EntityBroadcastService.class);
+
+    private static final String CREATE = "CREATE";
+    private static final String UPDATE = "UPDATE";
+    private static final String DELETE = "DELETE";
+
+    @Value("${app.broadcast.max-batch-size:500}")
+    private int maxBatchSize;
+
     @Autowired
     private SimpMessagingTemplate messagingTemplate;
 
-    public void broadcastCreate(Long companyId, String entityType, Object entity) {
-        broadcast(companyId, entityType, "CREATE", entity);
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final Map<Long, CompanyBuffer> buffers = new ConcurrentHashMap<>();
+
+    private Counter eventsCounter;
+    private Counter framesCounter;
+    private Counter framesSavedCounter;
+    private Counter framesFailedCounter;
+
+    @PostConstruct
+    public void init() {
+        eventsCounter = Counter.builder("entity.broadcast.events")
+                .description("Entity changes submitted for broadcast")
+                .register(meterRegistry);
+        framesCounter = Counter.builder("entity.broadcast.frames")
+                .description("Entity update frames sent")
+                .register(meterRegistry);
+        framesSavedCounter = Counter.builder("entity.broadcast.frames.saved")
+                .description("Frames avoided by merging and batching entity changes")
+                .register(meterRegistry);
+        framesFailedCounter = Counter.builder("entity.broadcast.frames.failed")
+                .description("Entity update frames that could not be sent; their changes are lost")
+                .register(meterRegistry);
     }
 
-    public void broadcastUpdate(Long companyId, String entityType, Object entity) {
-        broadcast(companyId, entityType, "UPDATE", entity);
+    public void broadcastCreate(Long companyId, String entityType, Long entityId, Object entity) {
+        broadcast(companyId, entityType, entityId, CREATE, entity);
+    }
+
+    public void broadcastUpdate(Long companyId, String entityType, Long entityId, Object entity) {
+        broadcast(companyId, entityType, entityId, UPDATE, entity);
     }
 
     public void broadcastDelete(Long companyId, String entityType, Long entityId) {
         Map<String, Object> deleteInfo = new HashMap<>();
         deleteInfo.put("id", entityId);
-        broadcast(companyId, entityType, "DELETE", deleteInfo);
+        broadcast(companyId, entityType, entityId, DELETE, deleteInfo);
+    }
+
+    @Scheduled(fixedDelayString = "${app.broadcast.coalesce-window-ms:250}")
+    public void flushAll() {
+        for (Map.Entry<Long, CompanyBuffer> entry : buffers.entrySet()) {
+            flush(entry.getKey(), entry.getValue());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flushAll();
+    }
+
+    private void broadcast(Long companyId, String entityType, Long entityId, String action, Object data) {
+        eventsCounter.increment();
+        PendingEvent event = new PendingEvent(entityType, action, data);
+        // Changes without an ID cannot be matched to others and are sent as they are
+        Object key = entityId != null ? entityType + ":" + entityId : event;
+
+        CompanyBuffer buffer = buffers.computeIfAbsent(companyId, k -> new CompanyBuffer());
+        boolean full;
+        synchronized (buffer) {
+            buffer.add(key, event);
+            full = buffer.events.size() >= maxBatchSize;
+        }
+
+        if (full) {
+            flush(companyId, buffer);
+        }
+    }
+
+    private void flush(Long companyId, CompanyBuffer buffer) {
+        // Frames of one company leave in order even when a full buffer is flushed by a caller
+        synchronized (buffer.sendLock) {
+            List<PendingEvent> events;
+            int received;
+            synchronized (buffer) {
+                if (buffer.received == 0) {
+                    return;
+                }
+                events = new ArrayList<>(buffer.events.values());
+                received = buffer.received;
+                buffer.events.clear();
+                buffer.received = 0;
+            }
+
+            // The buffer is already cleared, so a failed frame is dropped; clients catch up on their next fetch
+            int frames = 0;
+            int failed = 0;
+            for (int from = 0; from < events.size(); from += maxBatchSize) {
+                List<PendingEvent> frame = events.subList(from, Math.min(events.size(), from + maxBatchSize));
+                frames++;
+                try {
+                    send(companyId, frame);
+                } catch (MessagingException e) {
+                    failed++;
+                    logger.warn("Broadcasting {} entity changes to company {} failed: {}", frame.size(), companyId,
+                            e.getMessage());
+                }
+            }
+
+            framesCounter.increment(frames - failed);
+            framesFailedCounter.increment(failed);
+            framesSavedCounter.increment(received - frames);
+        }
     }
 
-    private void broadcast(Long companyId, String entityType, String action, Object data) {
-        Map<String, Object> message = new HashMap<>();
-        message.put("entityType", entityType);
-        message.put("action", action);
-        message.put("data", data);
-        message.put("timestamp", LocalDateTime.now().toString());
+    private void send(Long companyId, List<PendingEvent> events) {
+        Map<String, Object> message;
+        if (events.size() == 1) {
+            // A lone change keeps the original single-event message shape
+            message = events.get(0).toMessage();
+        } else {
+            List<Map<String, Object>> batch = new ArrayList<>(events.size());
+            for (PendingEvent event : events) {
+                batch.add(event.toMessage());
+            }
+            message = new HashMap<>();
+            message.put("action", "BATCH");
+            message.put("events", batch);
+            message.put("timestamp", LocalDateTime.now().toString());
+        }
 
         messagingTemplate.convertAndSend("/topic/updates/" + companyId, message);
     }
+
+    private static final class CompanyBuffer {
+        private final Object sendLock = new Object();
+        // Pending changes in send order; a merged entity keeps one entry under its "type:id" key
+        private final LinkedHashMap<Object, PendingEvent> events = new LinkedHashMap<>();
+        // Changes submitted since the last flush, before merging
+        private int received;
+
+        private void add(Object key, PendingEvent event) {
+            received++;
+
+            if (event.action.equals(DELETE)) {
+                PendingEvent pending = events.remove(key);
+                if (pending == null || !pending.action.equals(CREATE)) {
+                    // Clients knew the entity, so they need the delete, at the position it happened. It is
+                    // keyed by itself so that changes to a re-created entity get a new entry after it.
+                    events.put(event, event);
+                }
+                return;
+            }
+
+            // A create absorbs later updates and stays in place, replacing the value of an existing key keeps
+            // its position; an update replaces the older state and moves behind the changes made since
+            PendingEvent pending = events.get(key);
+            if (pending != null && pending.action.equals(CREATE)) {
+                events.put(key, new PendingEvent(event.entityType, CREATE, event.data));
+                return;
+            }
+            events.remove(key);
+            events.put(key, event);
+        }
+    }
+
+    private static final class PendingEvent {
+        private final String entityType;
+        private final String action;
+        private final Object data;
+        private final LocalDateTime timestamp = LocalDateTime.now();
+
+        private PendingEvent(String entityType, String action, Object data) {
+            this.entityType = entityType;
+            this.action = action;
+            this.data = data;
+        }
+
+        private Map<String, Object> toMessage() {
+            Map<String, Object> message = new HashMap<>();
+            message.put("entityType", entityType);
+            message.put("action", action);
+            message.put("data", data);
+            message.put("timestamp", timestamp.toString());
+            return message;
+        }
+    }
 }
@@ -0,0 +1,294 @@
+package com.example.inventory_backend.service;
+
+import com.example.inventory_backend.dto.ExportJobDTO;
+import com.example.inventory_backend.model.Company;
+import com.example.inventory_backend.service.ExportService.ExportType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Runs Excel exports in the background on a bounded pool and keeps the finished files on local disk
+// until they expire. Jobs are tracked in memory, so status and downloads are served by the instance
+// that ran the job and files left over from a previous run are removed on startup.
+@Service
+public class ExportJobService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExportJobService.class);
+
+    @Value("${app.export.jobs.dir:${java.io.tmpdir}/inventory-exports}")
+    private String jobsDir;
+
+    @Value("${app.export.jobs.threads:2}")
+    private int threads;
+
+    @Value("${app.export.jobs.queue-capacity:50}")
+    private int queueCapacity;
+
+    // Queued plus running jobs allowed per company
+    @Value("${app.export.jobs.per-company-limit:2}")
+    private int perCompanyLimit;
+
+    @Value("${app.export.jobs.retention-ms:3600000}")
+    private long retentionMs;
+
+    @Autowired
+    private ExportService exportService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final Map<String, ExportJob> jobs = new ConcurrentHashMap<>();
+    private final Map<Long, Integer> activeJobsByCompany = new ConcurrentHashMap<>();
+
+    private Path directory;
+    private ThreadPoolExecutor executor;
+
+    private Timer jobTimer;
+    private Counter failureCounter;
+
+    @PostConstruct
+    public void start() throws IOException {
+        directory = Paths.get(jobsDir);
+        Files.createDirectories(directory);
+        deleteLeftoverFiles();
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "export-job-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+
+        Gauge.builder("export.jobs.queue.depth", executor, e -> e.getQueue().size())
+                .description("Export jobs waiting for a worker")
+                .register(meterRegistry);
+        Gauge.builder("export.jobs.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Export jobs currently running")
+                .register(meterRegistry);
+        jobTimer = Timer.builder("export.jobs.duration")
+                .description("Time taken to build one export file")
+                .register(meterRegistry);
+        failureCounter = Counter.builder("export.jobs.failures")
+                .description("Export jobs that failed")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    // Throws IllegalStateException when the company already has too many jobs in flight and
+    // RejectedExecutionException when the shared queue is full
+    public ExportJobDTO submit(ExportType type, Company company) {
+        Long companyId = company.getId();
+        if (!acquireSlot(companyId)) {
+            throw new IllegalStateException("Too many exports in progress for this company");
+        }
+
+        ExportJob job = new ExportJob(UUID.randomUUID().toString(), companyId, type);
+        jobs.put(job.id, job);
+        try {
+            executor.execute(() -> run(job));
+        } catch (RuntimeException e) {
+            jobs.remove(job.id);
+            releaseSlot(companyId);
+            throw e;
+        }
+        return job.toDTO();
+    }
+
+    public ExportJobDTO getJob(String id, Company company) {
+        return findJob(id, company).toDTO();
+    }
+
+    // Path of a completed job's file; throws IllegalStateException while the job is still running or failed
+    public Path getJobFile(String id, Company company) {
+        ExportJob job = findJob(id, company);
+        if (job.status != ExportJobDTO.Status.COMPLETED) {
+            throw new IllegalStateException("Export job is not completed: " + id);
+        }
+        return job.file;
+    }
+
+    @Scheduled(fixedDelayString = "${app.export.jobs.cleanup-interval-ms:300000}")
+    public void removeExpiredJobs() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(retentionMs, ChronoUnit.MILLIS);
+        jobs.values().removeIf(job -> {
+            if (job.finishedAt == null || job.finishedAt.isAfter(cutoff)) {
+                return false;
+            }
+            if (job.file != null) {
+                deleteQuietly(job.file);
+            }
+            return true;
+        });
+    }
+
+    private ExportJob findJob(String id, Company company) {
+        ExportJob job = jobs.get(id);
+        // Other companies' jobs are reported as missing
+        if (job == null || !job.companyId.equals(company.getId())) {
+            throw new RuntimeException("Export job not found: " + id);
+        }
+        return job;
+    }
+
+    private void run(ExportJob job) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        Path partFile = directory.resolve(job.id + ".xlsx.part");
+        job.status = ExportJobDTO.Status.RUNNING;
+        job.startedAt = LocalDateTime.now();
+
+        try {
+            // Only the ID is used by the export queries
+            Company company = new Company();
+            company.setId(job.companyId);
+
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(partFile))) {
+                exportService.export(job.type, company, out, job);
+            }
+
+            // Downloads only ever see a complete file
+            Path file = directory.resolve(job.id + ".xlsx");
+            Files.move(partFile, file, StandardCopyOption.ATOMIC_MOVE);
+            job.file = file;
+            job.fileSize = Files.size(file);
+            job.currentSheet = null;
+            job.status = ExportJobDTO.Status.COMPLETED;
+        } catch (Exception e) {
+            logger.error("Export job {} for company {} failed", job.id, job.companyId, e);
+            failureCounter.increment();
+            deleteQuietly(partFile);
+            job.error = e.getClass().getSimpleName() + " - " + e.getMessage();
+            job.status = ExportJobDTO.Status.FAILED;
+        } finally {
+            job.finishedAt = LocalDateTime.now();
+            releaseSlot(job.companyId);
+            sample.stop(jobTimer);
+        }
+    }
+
+    private boolean acquireSlot(Long companyId) {
+        boolean[] acquired = {false};
+        activeJobsByCompany.compute(companyId, (id, count) -> {
+            int active = count != null ? count : 0;
+            if (active >= perCompanyLimit) {
+                return count;
+            }
+            acquired[0] = true;
+            return active + 1;
+        });
+        return acquired[0];
+    }
+
+    private void releaseSlot(Long companyId) {
+        activeJobsByCompany.computeIfPresent(companyId, (id, count) -> count > 1 ? count - 1 : null);
+    }
+
+    private void deleteLeftoverFiles() throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*.{xlsx,part}")) {
+            for (Path file : files) {
+                deleteQuietly(file);
+            }
+        }
+    }
+
+    private void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            logger.warn("Could not delete export file {}: {}", file, e.getMessage());
+        }
+    }
+
+    // Progress fields are written by the export thread and read by status requests
+    private static class ExportJob implements ExportService.ProgressListener {
+        private final String id;
+        private final Long companyId;
+        private final ExportType type;
+        private final LocalDateTime createdAt = LocalDateTime.now();
+
+        private volatile ExportJobDTO.Status status = ExportJobDTO.Status.QUEUED;
+        private volatile String currentSheet;
+        private volatile int sheetsCompleted;
+        private volatile int sheetCount;
+        private volatile long rowsCompleted;
+        private volatile long rowsInSheet;
+        private volatile Path file;
+        private volatile Long fileSize;
+        private volatile String error;
+        private volatile LocalDateTime startedAt;
+        private volatile LocalDateTime finishedAt;
+
+        ExportJob(String id, Long companyId, ExportType type) {
+            this.id = id;
+            this.companyId = companyId;
+            this.type = type;
+        }
+
+        @Override
+        public void sheetStarted(String sheetName, int sheetIndex, int sheetCount) {
+            this.sheetCount = sheetCount;
+            this.currentSheet = sheetName;
+            this.rowsInSheet = 0;
+        }
+
+        @Override
+        public void rowsWritten(String sheetName, long rows) {
+            this.rowsInSheet = rows;
+        }
+
+        @Override
+        public void sheetCompleted(String sheetName, long rows) {
+            this.rowsCompleted += rows;
+            this.rowsInSheet = 0;
+            this.sheetsCompleted++;
+        }
+
+        ExportJobDTO toDTO() {
+            ExportJobDTO dto = new ExportJobDTO();
+            dto.setId(id);
+            dto.setType(type);
+            dto.setStatus(status);
+            dto.setCurrentSheet(currentSheet);
+            dto.setSheetsCompleted(sheetsCompleted);
+            dto.setSheetCount(sheetCount);
+            dto.setRowsWritten(rowsCompleted + rowsInSheet);
+            dto.setFileSize(fileSize);
+            dto.setError(error);
+            dto.setCreatedAt(createdAt);
+            dto.setStartedAt(startedAt);
+            dto.setFinishedAt(finishedAt);
+            return dto;
+        }
+    }
+}
@@ -1,18 +1,51 @@
 package com.example.inventory_backend.service;
 
+import com.example.inventory_backend.dto.CategoryDTO;
 import com.example.inventory_backend.model.*;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.apache.poi.ss.SpreadsheetVersion;
 import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.util.List;
-
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+// Excel exports built on POI's streaming workbook. Only the last rowWindow rows of each sheet are kept
+// on the heap (older rows are flushed to compressed temp files), rows are read through database cursors,
+// and the finished workbook is written straight to the caller's output stream.
 @Service
 public class ExportService {
 
+    private static final int COLUMN_WIDTH = 5120;
+
+    // Rows beyond the xlsx limit continue on a new sheet, e.g. "Products (2)"
+    private static final int MAX_ROWS_PER_SHEET = SpreadsheetVersion.EXCEL2007.getMaxRows();
+
+    // Column headings, shared with CsvExportService
+    static final String[] PRODUCT_COLUMNS = {"ID", "Name", "Description", "SKU", "Price", "Category", "Supplier"};
+    static final String[] CATEGORY_COLUMNS = {"ID", "Name", "Description", "Product Count"};
+    static final String[] SUPPLIER_COLUMNS = {"ID", "Name", "Contact Name", "Email", "Phone", "Address"};
+    static final String[] INVENTORY_COLUMNS = {"ID", "Product", "SKU", "Quantity", "Reorder Level", "Reorder Quantity", "Location", "Last Updated"};
+
+    @Value("${app.export.row-window:100}")
+    private int rowWindow;
+
+    // Should match the fetch size hinted on the streaming repository queries
+    @Value("${app.streaming.clear-interval:500}")
+    private int clearInterval;
+
     @Autowired
     private ProductService productService;
 
@@ -25,283 +58,196 @@ public class ExportService {
     @Autowired
     private InventoryService inventoryService;
 
-    public byte[] exportAllToExcel(Company company) throws IOException {
-        try (Workbook workbook = new XSSFWorkbook(); 
-             ByteArrayOutputStream out = new ByteArrayOutputStream()) {
-            
-            CellStyle headerStyle = workbook.createCellStyle();
-            Font headerFont = workbook.createFont();
-            headerFont.setBold(true);
-            headerStyle.setFont(headerFont);
-            
-            // Products Sheet
-            List<Product> products = productService.getAllProducts(company);
-            Sheet productsSheet = workbook.createSheet("Products");
-            Row productHeader = productsSheet.createRow(0);
-            String[] productColumns = {"ID", "Name", "Description", "SKU", "Price", "Category", "Supplier"};
-            for (int i = 0; i < productColumns.length; i++) {
-                Cell cell = productHeader.createCell(i);
-                cell.setCellValue(productColumns[i]);
-                cell.setCellStyle(headerStyle);
-            }
-            int rowNum = 1;
-            for (Product product : products) {
-                Row row = productsSheet.createRow(rowNum++);
-                row.createCell(0).setCellValue(product.getId());
-                row.createCell(1).setCellValue(product.getName());
-                row.createCell(2).setCellValue(product.getDescription() != null ? product.getDescription() : "");
-                row.createCell(3).setCellValue(product.getSku() != null ? product.getSku() : "");
-                row.createCell(4).setCellValue(product.getPrice() != null ? product.getPrice().doubleValue() : 0.0);
-                row.createCell(5).setCellValue(product.getCategory() != null ? product.getCategory().getName() : "");
-                row.createCell(6).setCellValue(product.getSupplier() != null ? product.getSupplier().getName() : "");
-            }
-            for (int i = 0; i < productColumns.length; i++) {
-                productsSheet.setColumnWidth(i, 5120);
-            }
-            
-            // Categories Sheet
-            List<Category> categories = categoryService.getAllCategories(company);
-            Sheet categoriesSheet = workbook.createSheet("Categories");
-            Row categoryHeader = categoriesSheet.createRow(0);
-            String[] categoryColumns = {"ID", "Name", "Description", "Product Count"};
-            for (int i = 0; i < categoryColumns.length; i++) {
-                Cell cell = categoryHeader.createCell(i);
-                cell.setCellValue(categoryColumns[i]);
-                cell.setCellStyle(headerStyle);
-            }
-            rowNum = 1;
-            for (Category category : categories) {
-                Row row = categoriesSheet.createRow(rowNum++);
-                row.createCell(0).setCellValue(category.getId());
-                row.createCell(1).setCellValue(category.getName());
-                row.createCell(2).setCellValue(category.getDescription() != null ? category.getDescription() : "");
-                row.createCell(3).setCellValue(category.getProducts() != null ? category.getProducts().size() : 0);
-            }
-            for (int i = 0; i < categoryColumns.length; i++) {
-                categoriesSheet.setColumnWidth(i, 5120);
-            }
-            
-            // Suppliers Sheet
-            List<Supplier> suppliers = supplierService.getAllSuppliers(company);
-            Sheet suppliersSheet = workbook.createSheet("Suppliers");
-            Row supplierHeader = suppliersSheet.createRow(0);
-            String[] supplierColumns = {"ID", "Name", "Contact Name", "Email", "Phone", "Address"};
-            for (int i = 0; i < supplierColumns.length; i++) {
-                Cell cell = supplierHeader.createCell(i);
-                cell.setCellValue(supplierColumns[i]);
-                cell.setCellStyle(headerStyle);
-            }
-            rowNum = 1;
-            for (Supplier supplier : suppliers) {
-                Row row = suppliersSheet.createRow(rowNum++);
-                row.createCell(0).setCellValue(supplier.getId());
-                row.createCell(1).setCellValue(supplier.getName());
-                row.createCell(2).setCellValue(supplier.getContactName() != null ? supplier.getContactName() : "");
-                row.createCell(3).setCellValue(supplier.getEmail() != null ? supplier.getEmail() : "");
-                row.createCell(4).setCellValue(supplier.getPhone() != null ? supplier.getPhone() : "");
-                row.createCell(5).setCellValue(supplier.getAddress() != null ? supplier.getAddress() : "");
-            }
-            for (int i = 0; i < supplierColumns.length; i++) {
-                suppliersSheet.setColumnWidth(i, 5120);
-            }
-            
-            // Inventory Sheet
-            List<Inventory> inventoryList = inventoryService.getAllInventory(company);
-            Sheet inventorySheet = workbook.createSheet("Inventory");
-            Row inventoryHeader = inventorySheet.createRow(0);
-            String[] inventoryColumns = {"ID", "Product", "SKU", "Quantity", "Reorder Level", "Reorder Quantity", "Location", "Last Updated"};
-            for (int i = 0; i < inventoryColumns.length; i++) {
-                Cell cell = inventoryHeader.createCell(i);
-                cell.setCellValue(inventoryColumns[i]);
-                cell.setCellStyle(headerStyle);
-            }
-            rowNum = 1;
-            for (Inventory inventory : inventoryList) {
-                Row row = inventorySheet.createRow(rowNum++);
-                row.createCell(0).setCellValue(inventory.getId());
-                row.createCell(1).setCellValue(inventory.getProduct() != null ? inventory.getProduct().getName() : "");
-                row.createCell(2).setCellValue(inventory.getProduct() != null ? inventory.getProduct().getSku() : "");
-                row.createCell(3).setCellValue(inventory.getQuantity() != null ? inventory.getQuantity() : 0);
-                row.createCell(4).setCellValue(inventory.getReorderLevel() != null ? inventory.getReorderLevel() : 0);
-                row.createCell(5).setCellValue(inventory.getReorderQuantity() != null ? inventory.getReorderQuantity() : 0);
-                row.createCell(6).setCellValue(inventory.getLocation() != null ? inventory.getLocation() : "");
-                row.createCell(7).setCellValue(inventory.getLastUpdated() != null ? inventory.getLastUpdated().toString() : "");
-            }
-            for (int i = 0; i < inventoryColumns.length; i++) {
-                inventorySheet.setColumnWidth(i, 5120);
-            }
-            
-            workbook.write(out);
-            return out.toByteArray();
-        }
-    }
-
-    public byte[] exportProductsToExcel(Company company) throws IOException {
-        List<Product> products = productService.getAllProducts(company);
-        
-        try (Workbook workbook = new XSSFWorkbook(); 
-             ByteArrayOutputStream out = new ByteArrayOutputStream()) {
-            
-            Sheet sheet = workbook.createSheet("Products");
+    @Autowired
+    private PlatformTransactionManager transactionManager;
 
-            CellStyle headerStyle = workbook.createCellStyle();
-            Font headerFont = workbook.createFont();
-            headerFont.setBold(true);
-            headerStyle.setFont(headerFont);
+    @PersistenceContext
+    private EntityManager entityManager;
 
-            Row headerRow = sheet.createRow(0);
-            String[] columns = {"ID", "Name", "Description", "SKU", "Price", "Category", "Supplier"};
-            
-            for (int i = 0; i < columns.length; i++) {
-                Cell cell = headerRow.createCell(i);
-                cell.setCellValue(columns[i]);
-                cell.setCellStyle(headerStyle);
-            }
+    private TransactionTemplate readTemplate;
 
-            int rowNum = 1;
-            for (Product product : products) {
-                Row row = sheet.createRow(rowNum++);
-                row.createCell(0).setCellValue(product.getId());
-                row.createCell(1).setCellValue(product.getName());
-                row.createCell(2).setCellValue(product.getDescription() != null ? product.getDescription() : "");
-                row.createCell(3).setCellValue(product.getSku() != null ? product.getSku() : "");
-                row.createCell(4).setCellValue(product.getPrice() != null ? product.getPrice().doubleValue() : 0.0);
-                row.createCell(5).setCellValue(product.getCategory() != null ? product.getCategory().getName() : "");
-                row.createCell(6).setCellValue(product.getSupplier() != null ? product.getSupplier().getName() : "");
-            }
+    @PostConstruct
+    public void init() {
+        // Postgres only honours the fetch size inside a transaction, otherwise the driver buffers everything
+        readTemplate = new TransactionTemplate(transactionManager);
+        readTemplate.setReadOnly(true);
+    }
 
-            for (int i = 0; i < columns.length; i++) {
-                sheet.setColumnWidth(i, 5120);
-            }
+    public void export(ExportType type, Company company, OutputStream out) throws IOException {
+        export(type, company, out, ProgressListener.NONE);
+    }
 
-            workbook.write(out);
-            return out.toByteArray();
+    public void export(ExportType type, Company company, OutputStream out, ProgressListener progress) throws IOException {
+        switch (type) {
+            case ALL -> writeWorkbook(out, progress, 4, sheets -> {
+                writeProducts(sheets, company);
+                writeCategories(sheets, company);
+                writeSuppliers(sheets, company);
+                writeInventory(sheets, company);
+            });
+            case PRODUCTS -> writeWorkbook(out, progress, 1, sheets -> writeProducts(sheets, company));
+            case CATEGORIES -> writeWorkbook(out, progress, 1, sheets -> writeCategories(sheets, company));
+            case SUPPLIERS -> writeWorkbook(out, progress, 1, sheets -> writeSuppliers(sheets, company));
+            case INVENTORY -> writeWorkbook(out, progress, 1, sheets -> writeInventory(sheets, company));
         }
     }
 
-    public byte[] exportSuppliersToExcel(Company company) throws IOException {
-        List<Supplier> suppliers = supplierService.getAllSuppliers(company);
-        
-        try (Workbook workbook = new XSSFWorkbook(); 
-             ByteArrayOutputStream out = new ByteArrayOutputStream()) {
-            
-            Sheet sheet = workbook.createSheet("Suppliers");
-
-            CellStyle headerStyle = workbook.createCellStyle();
-            Font headerFont = workbook.createFont();
-            headerFont.setBold(true);
-            headerStyle.setFont(headerFont);
+    private void writeProducts(SheetWriter sheets, Company company) {
+        sheets.write("Products", PRODUCT_COLUMNS, () -> productService.streamAllProducts(company), this::writeProductRow);
+    }
 
-            Row headerRow = sheet.createRow(0);
-            String[] columns = {"ID", "Name", "Contact Name", "Email", "Phone", "Address"};
-            
-            for (int i = 0; i < columns.length; i++) {
-                Cell cell = headerRow.createCell(i);
-                cell.setCellValue(columns[i]);
-                cell.setCellStyle(headerStyle);
-            }
+    private void writeCategories(SheetWriter sheets, Company company) {
+        sheets.write("Categories", CATEGORY_COLUMNS, () -> categoryService.streamAllCategoryDTOs(company), this::writeCategoryRow);
+    }
 
-            int rowNum = 1;
-            for (Supplier supplier : suppliers) {
-                Row row = sheet.createRow(rowNum++);
-                row.createCell(0).setCellValue(supplier.getId());
-                row.createCell(1).setCellValue(supplier.getName());
-                row.createCell(2).setCellValue(supplier.getContactName() != null ? supplier.getContactName() : "");
-                row.createCell(3).setCellValue(supplier.getEmail() != null ? supplier.getEmail() : "");
-                row.createCell(4).setCellValue(supplier.getPhone() != null ? supplier.getPhone() : "");
-                row.createCell(5).setCellValue(supplier.getAddress() != null ? supplier.getAddress() : "");
-            }
+    private void writeSuppliers(SheetWriter sheets, Company company) {
+        sheets.write("Suppliers", SUPPLIER_COLUMNS, () -> supplierService.streamAllSuppliers(company), this::writeSupplierRow);
+    }
 
-            for (int i = 0; i < columns.length; i++) {
-                sheet.setColumnWidth(i, 5120);
-            }
+    private void writeInventory(SheetWriter sheets, Company company) {
+        sheets.write("Inventory", INVENTORY_COLUMNS, () -> inventoryService.streamAllInventory(company), this::writeInventoryRow);
+    }
 
+    private void writeWorkbook(OutputStream out, ProgressListener progress, int sheetCount,
+                               Consumer<SheetWriter> content) throws IOException {
+        SXSSFWorkbook workbook = new SXSSFWorkbook(rowWindow);
+        workbook.setCompressTempFiles(true);
+        try {
+            content.accept(new SheetWriter(workbook, progress, sheetCount));
             workbook.write(out);
-            return out.toByteArray();
+        } finally {
+            // Removes the temp files backing the flushed rows
+            workbook.dispose();
+            workbook.close();
         }
     }
 
-    public byte[] exportInventoryToExcel(Company company) throws IOException {
-        List<Inventory> inventoryList = inventoryService.getAllInventory(company);
-        
-        try (Workbook workbook = new XSSFWorkbook(); 
-             ByteArrayOutputStream out = new ByteArrayOutputStream()) {
-            
-            Sheet sheet = workbook.createSheet("Inventory");
+    private void writeProductRow(Row row, Product product) {
+        row.createCell(0).setCellValue(product.getId());
+        row.createCell(1).setCellValue(product.getName());
+        row.createCell(2).setCellValue(product.getDescription() != null ? product.getDescription() : "");
+        row.createCell(3).setCellValue(product.getSku() != null ? product.getSku() : "");
+        row.createCell(4).setCellValue(product.getPrice() != null ? product.getPrice().doubleValue() : 0.0);
+        row.createCell(5).setCellValue(product.getCategory() != null ? product.getCategory().getName() : "");
+        row.createCell(6).setCellValue(product.getSupplier() != null ? product.getSupplier().getName() : "");
+    }
 
-            CellStyle headerStyle = workbook.createCellStyle();
-            Font headerFont = workbook.createFont();
-            headerFont.setBold(true);
-            headerStyle.setFont(headerFont);
+    private void writeCategoryRow(Row row, CategoryDTO category) {
+        row.createCell(0).setCellValue(category.getId());
+        row.createCell(1).setCellValue(category.getName());
+        row.createCell(2).setCellValue(category.getDescription() != null ? category.getDescription() : "");
+        row.createCell(3).setCellValue(category.getProductCount());
+    }
 
-            Row headerRow = sheet.createRow(0);
-            String[] columns = {"ID", "Product", "SKU", "Quantity", "Reorder Level", "Reorder Quantity", "Location", "Last Updated"};
-            
-            for (int i = 0; i < columns.length; i++) {
-                Cell cell = headerRow.createCell(i);
-                cell.setCellValue(columns[i]);
-                cell.setCellStyle(headerStyle);
-            }
+    private void writeSupplierRow(Row row, Supplier supplier) {
+        row.createCell(0).setCellValue(supplier.getId());
+        row.createCell(1).setCellValue(supplier.getName());
+        row.createCell(2).setCellValue(supplier.getContactName() != null ? supplier.getContactName() : "");
+        row.createCell(3).setCellValue(supplier.getEmail() != null ? supplier.getEmail() : "");
+        row.createCell(4).setCellValue(supplier.getPhone() != null ? supplier.getPhone() : "");
+        row.createCell(5).setCellValue(supplier.getAddress() != null ? supplier.getAddress() : "");
+    }
 
-            int rowNum = 1;
-            for (Inventory inventory : inventoryList) {
-                Row row = sheet.createRow(rowNum++);
-                row.createCell(0).setCellValue(inventory.getId());
-                row.createCell(1).setCellValue(inventory.getProduct() != null ? inventory.getProduct().getName() : "");
-                row.createCell(2).setCellValue(inventory.getProduct() != null ? inventory.getProduct().getSku() : "");
-                row.createCell(3).setCellValue(inventory.getQuantity() != null ? inventory.getQuantity() : 0);
-                row.createCell(4).setCellValue(inventory.getReorderLevel() != null ? inventory.getReorderLevel() : 0);
-                row.createCell(5).setCellValue(inventory.getReorderQuantity() != null ? inventory.getReorderQuantity() : 0);
-                row.createCell(6).setCellValue(inventory.getLocation() != null ? inventory.getLocation() : "");
-                row.createCell(7).setCellValue(inventory.getLastUpdated() != null ? inventory.getLastUpdated().toString() : "");
-            }
+    private void writeInventoryRow(Row row, Inventory inventory) {
+        row.createCell(0).setCellValue(inventory.getId());
+        row.createCell(1).setCellValue(inventory.getProduct() != null ? inventory.getProduct().getName() : "");
+        row.createCell(2).setCellValue(inventory.getProduct() != null ? inventory.getProduct().getSku() : "");
+        row.createCell(3).setCellValue(inventory.getQuantity() != null ? inventory.getQuantity() : 0);
+        row.createCell(4).setCellValue(inventory.getReorderLevel() != null ? inventory.getReorderLevel() : 0);
+        row.createCell(5).setCellValue(inventory.getReorderQuantity() != null ? inventory.getReorderQuantity() : 0);
+        row.createCell(6).setCellValue(inventory.getLocation() != null ? inventory.getLocation() : "");
+        row.createCell(7).setCellValue(inventory.getLastUpdated() != null ? inventory.getLastUpdated().toString() : "");
+    }
 
-            for (int i = 0; i < columns.length; i++) {
-                sheet.setColumnWidth(i, 5120);
-            }
+    public enum ExportType {
+        ALL("inventory_export"),
+        PRODUCTS("products"),
+        CATEGORIES("categories"),
+        SUPPLIERS("suppliers"),
+        INVENTORY("inventory");
 
-            workbook.write(out);
-            return out.toByteArray();
+        private final String baseName;
+
+        ExportType(String baseName) {
+            this.baseName = baseName;
+        }
+
+        public String getBaseName() {
+            return baseName;
+        }
+
+        public String getFilename() {
+            return baseName + ".xlsx";
         }
     }
 
-    public byte[] exportCategoriesToExcel(Company company) throws IOException {
-        List<Category> categories = categoryService.getAllCategories(company);
-        
-        try (Workbook workbook = new XSSFWorkbook(); 
-             ByteArrayOutputStream out = new ByteArrayOutputStream()) {
-            
-            Sheet sheet = workbook.createSheet("Categories");
+    // Called on the exporting thread as each sheet is filled
+    public interface ProgressListener {
+        ProgressListener NONE = new ProgressListener() {};
+
+        default void sheetStarted(String sheetName, int sheetIndex, int sheetCount) {}
+
+        default void rowsWritten(String sheetName, long rows) {}
 
-            CellStyle headerStyle = workbook.createCellStyle();
+        default void sheetCompleted(String sheetName, long rows) {}
+    }
+
+    // Writes sheets into one workbook, sharing a single header style between them
+    private class SheetWriter {
+        private final SXSSFWorkbook workbook;
+        private final CellStyle headerStyle;
+        private final ProgressListener progress;
+        private final int sheetCount;
+        private int sheetIndex;
+
+        SheetWriter(SXSSFWorkbook workbook, ProgressListener progress, int sheetCount) {
+            this.workbook = workbook;
+            this.progress = progress;
+            this.sheetCount = sheetCount;
+            this.headerStyle = workbook.createCellStyle();
             Font headerFont = workbook.createFont();
             headerFont.setBold(true);
             headerStyle.setFont(headerFont);
+        }
 
+        <T> void write(String name, String[] columns, java.util.function.Supplier<Stream<T>> rows, BiConsumer<Row, T> rowWriter) {
+            progress.sheetStarted(name, sheetIndex++, sheetCount);
+            readTemplate.executeWithoutResult(status -> {
+                try (Stream<T> stream = rows.get()) {
+                    Iterator<T> iterator = stream.iterator();
+                    SXSSFSheet sheet = createSheet(name, columns);
+                    int part = 1;
+                    int rowNum = 1;
+                    long written = 0;
+
+                    while (iterator.hasNext()) {
+                        if (rowNum == MAX_ROWS_PER_SHEET) {
+                            sheet = createSheet(name + " (" + ++part + ")", columns);
+                            rowNum = 1;
+                        }
+                        rowWriter.accept(sheet.createRow(rowNum++), iterator.next());
+
+                        // Rows already flushed to disk no longer need their entities
+                        if (++written % clearInterval == 0) {
+                            entityManager.clear();
+                            progress.rowsWritten(name, written);
+                        }
+                    }
+                    progress.sheetCompleted(name, written);
+                }
+            });
+        }
+
+        private SXSSFSheet createSheet(String name, String[] columns) {
+            SXSSFSheet sheet = workbook.createSheet(name);
             Row headerRow = sheet.createRow(0);
-            String[] columns = {"ID", "Name", "Description", "Product Count"};
-            
             for (int i = 0; i < columns.length; i++) {
                 Cell cell = headerRow.createCell(i);
                 cell.setCellValue(columns[i]);
                 cell.setCellStyle(headerStyle);
+                sheet.setColumnWidth(i, COLUMN_WIDTH);
             }
-
-            int rowNum = 1;
-            for (Category category : categories) {
-                Row row = sheet.createRow(rowNum++);
-                row.createCell(0).setCellValue(category.getId());
-                row.createCell(1).setCellValue(category.getName());
-                row.createCell(2).setCellValue(category.getDescription() != null ? category.getDescription() : "");
-                row.createCell(3).setCellValue(category.getProducts() != null ? category.getProducts().size() : 0);
-            }
-
-            for (int i = 0; i < columns.length; i++) {
-                sheet.setColumnWidth(i, 5120);
-            }
-
-            workbook.write(out);
-            return out.toByteArray();
+            return sheet;
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,198 @@
+package com.example.inventory_backend.service;
+
+import com.example.inventory_backend.model.InventoryHistory;
+import com.example.inventory_backend.repository.InventoryHistoryRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+// Write-behind pipeline for inventory history. Callers enqueue records once their transaction
+// commits and a background thread drains the queue in JDBC batches. When the queue is full
+// the record is written synchronously instead, so nothing is dropped under back-pressure.
+@Service
+public class InventoryHistoryWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(InventoryHistoryWriter.class);
+
+    @Value("${app.history.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${app.history.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.history.flush-interval-ms:1000}")
+    private long flushIntervalMs;
+
+    @Autowired
+    private InventoryHistoryRepository historyRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private BlockingQueue<InventoryHistory> queue;
+    private TransactionTemplate writeTemplate;
+    private Thread writerThread;
+    private volatile boolean running;
+
+    private DistributionSummary batchSizeSummary;
+    private Timer flushTimer;
+    private Counter fallbackCounter;
+    private Counter droppedCounter;
+
+    @PostConstruct
+    public void start() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+
+        // Writes never join the caller's transaction, which has already committed by the time they run
+        writeTemplate = new TransactionTemplate(transactionManager);
+        writeTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        Gauge.builder("inventory.history.queue.depth", queue, BlockingQueue::size)
+                .description("History records waiting to be written")
+                .register(meterRegistry);
+        batchSizeSummary = DistributionSummary.builder("inventory.history.batch.size")
+                .description("History records written per JDBC batch")
+                .register(meterRegistry);
+        flushTimer = Timer.builder("inventory.history.flush.latency")
+                .description("Time spent writing one history batch")
+                .register(meterRegistry);
+        fallbackCounter = Counter.builder("inventory.history.fallback.writes")
+                .description("History records written synchronously because the queue was full")
+                .register(meterRegistry);
+        droppedCounter = Counter.builder("inventory.history.dropped")
+                .description("History records that could not be written")
+                .register(meterRegistry);
+
+        running = true;
+        writerThread = new Thread(this::drainLoop, "inventory-history-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    public void submit(InventoryHistory history) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // Only record changes that actually committed
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(history);
+                }
+            });
+        } else {
+            enqueue(history);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        try {
+            writerThread.join(flushIntervalMs + TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        // Anything the writer thread did not get to is flushed on the shutdown thread
+        List<InventoryHistory> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        if (!remaining.isEmpty()) {
+            logger.info("Flushing {} pending inventory history records on shutdown", remaining.size());
+            flush(remaining);
+        }
+    }
+
+    private void enqueue(InventoryHistory history) {
+        if (running && queue.offer(history)) {
+            return;
+        }
+
+        fallbackCounter.increment();
+        flush(List.of(history));
+    }
+
+    private void drainLoop() {
+        List<InventoryHistory> batch = new ArrayList<>(batchSize);
+
+        while (running || !queue.isEmpty()) {
+            try {
+                InventoryHistory first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+
+                // Keep collecting until the batch is full or the flush interval has passed
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long remainingNanos = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || remainingNanos <= 0 || !running) {
+                        break;
+                    }
+                    InventoryHistory next = queue.poll(remainingNanos, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+
+                flush(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (RuntimeException e) {
+                logger.error("Inventory history writer failed", e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<InventoryHistory> batch) {
+        batchSizeSummary.record(batch.size());
+        Timer.Sample sample = Timer.start(meterRegistry);
+
+        try {
+            writeTemplate.executeWithoutResult(status -> historyRepository.insertBatch(batch));
+        } catch (DataAccessException e) {
+            // A single bad row (e.g. its product was deleted meanwhile) must not lose the whole batch
+            logger.warn("Batch insert of {} inventory history records failed, retrying one by one: {}",
+                    batch.size(), e.getMessage());
+            for (InventoryHistory history : batch) {
+                try {
+                    writeTemplate.executeWithoutResult(status -> historyRepository.insertBatch(List.of(history)));
+                } catch (DataAccessException rowError) {
+                    droppedCounter.increment();
+                    logger.error("Dropping inventory history record for company {}: {}",
+                            history.getCompany().getId(), rowError.getMessage());
+                }
+            }
+        } finally {
+            sample.stop(flushTimer);
+        }
+    }
+}
@@ -1,16 +1,21 @@
 package com.example.inventory_backend.service;
 
+import com.example.inventory_backend.dto.InventoryDTO;
 import com.example.inventory_backend.model.Company;
 import com.example.inventory_backend.model.Inventory;
 import com.example.inventory_backend.model.Product;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface InventoryService {
     List<Inventory> getAllInventory(Company company);
+    List<InventoryDTO> getAllInventoryDTOs(Company company);
+    Stream<Inventory> streamAllInventory(Company company);
     Inventory getInventoryById(Long id, Company company);
     Inventory getInventoryByProduct(Product product, Company company);
     List<Inventory> getLowStockItems(Company company);
+    List<InventoryDTO> getLowStockItemDTOs(Company company);
     Inventory saveInventory(Inventory inventory, Company company);
     Inventory updateQuantity(Long productId, Integer quantityChange, Company company);
     boolean isInStock(Long productId, Integer quantity, Company company);
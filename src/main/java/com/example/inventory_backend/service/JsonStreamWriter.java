@@ -0,0 +1,74 @@
+package com.example.inventory_backend.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+// Writes query results as a JSON array one row at a time. Rows are read through a database cursor,
+// mapped and written straight to the response, and the persistence context is cleared as it goes,
+// so memory per request stays flat no matter how many rows a tenant has.
+@Service
+public class JsonStreamWriter {
+
+    // Should match the fetch size hinted on the streaming repository queries
+    @Value("${app.streaming.clear-interval:500}")
+    private int clearInterval;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private TransactionTemplate readTemplate;
+
+    @PostConstruct
+    public void init() {
+        // Postgres only honours the fetch size inside a transaction, otherwise the driver buffers everything
+        readTemplate = new TransactionTemplate(transactionManager);
+        readTemplate.setReadOnly(true);
+    }
+
+    public <T> StreamingResponseBody writeArray(Supplier<Stream<T>> rows, Function<T, ?> mapper) {
+        // entityManager is the shared proxy, bound here to readTemplate's read-only transaction. Nothing in that
+        // context is modified or needed again once written, so clearing it only drops rows already streamed.
+        return outputStream -> readTemplate.executeWithoutResult(status -> {
+            try (Stream<T> stream = rows.get();
+                 JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                generator.writeStartArray();
+
+                Iterator<T> iterator = stream.iterator();
+                int written = 0;
+                while (iterator.hasNext()) {
+                    generator.writeObject(mapper.apply(iterator.next()));
+                    if (++written % clearInterval == 0) {
+                        entityManager.clear();
+                    }
+                }
+
+                generator.writeEndArray();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+}
@@ -0,0 +1,171 @@
+package com.example.inventory_backend.service;
+
+import com.example.inventory_backend.dto.NotificationDTO;
+import com.example.inventory_backend.repository.NotificationReadStateRepository;
+import com.example.inventory_backend.security.StompAuthenticationToken;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Pushes new notifications and unread counts to /user/queue/notifications so clients need not poll.
+// Unread counts of connected users are kept in memory and maintained from known deltas once the
+// notification change commits; a periodic reconciliation re-reads them from the database to correct
+// drift from changes that race with the initial load.
+@Service
+public class NotificationPushService {
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificationPushService.class);
+
+    private static final String DESTINATION = "/queue/notifications";
+
+    // Unread counts by user ID, only for users connected over WebSocket
+    private final Map<Long, AtomicInteger> unreadCounts = new ConcurrentHashMap<>();
+
+    @Autowired
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Autowired
+    private UserPresenceService userPresenceService;
+
+    @Autowired
+    private NotificationReadStateRepository readStateRepository;
+
+    // Empty when the user has no read state yet
+    public OptionalInt getUnreadCount(Long userId) {
+        AtomicInteger cached = unreadCounts.get(userId);
+        if (cached != null) {
+            return OptionalInt.of(cached.get());
+        }
+
+        Optional<Long> count = readStateRepository.countUnread(userId);
+        if (count.isEmpty()) {
+            return OptionalInt.empty();
+        }
+        int unread = toCount(count.get());
+        if (userPresenceService.isUserOnline(userId)) {
+            unreadCounts.putIfAbsent(userId, new AtomicInteger(unread));
+        }
+        return OptionalInt.of(unread);
+    }
+
+    // Sends the current count to a freshly connected user
+    public void userConnected(Long userId) {
+        unreadCounts.remove(userId);
+        getUnreadCount(userId).ifPresent(count -> send(userId, countMessage(count)));
+    }
+
+    public void userDisconnected(Long userId) {
+        unreadCounts.remove(userId);
+    }
+
+    // A company-wide notification is new and unread for every user of the company
+    public void sharedNotificationCreated(Long companyId, NotificationDTO notification) {
+        afterCommit(() -> {
+            for (Long userId : userPresenceService.getOnlineUsersForCompany(companyId)) {
+                pushNotification(userId, notification);
+            }
+        });
+    }
+
+    public void personalNotificationCreated(Long userId, NotificationDTO notification) {
+        afterCommit(() -> {
+            if (userPresenceService.isUserOnline(userId)) {
+                pushNotification(userId, notification);
+            }
+        });
+    }
+
+    // One of the user's notifications went from unread to read or dismissed
+    public void notificationRead(Long userId) {
+        afterCommit(() -> {
+            AtomicInteger cached = unreadCounts.get(userId);
+            if (cached != null) {
+                send(userId, countMessage(cached.updateAndGet(count -> Math.max(0, count - 1))));
+            }
+        });
+    }
+
+    public void allNotificationsRead(Long userId) {
+        afterCommit(() -> {
+            AtomicInteger cached = unreadCounts.get(userId);
+            if (cached != null) {
+                cached.set(0);
+                send(userId, countMessage(0));
+            }
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${app.notifications.reconcile-interval-ms:60000}",
+            initialDelayString = "${app.notifications.reconcile-interval-ms:60000}")
+    public void reconcile() {
+        for (Map.Entry<Long, AtomicInteger> entry : unreadCounts.entrySet()) {
+            Long userId = entry.getKey();
+            if (!userPresenceService.isUserOnline(userId)) {
+                unreadCounts.remove(userId);
+                continue;
+            }
+
+            // Each count is a single-row read
+            int actual = readStateRepository.countUnread(userId).map(NotificationPushService::toCount).orElse(0);
+            if (entry.getValue().getAndSet(actual) != actual) {
+                logger.debug("Corrected unread notification count for user {}", userId);
+                send(userId, countMessage(actual));
+            }
+        }
+    }
+
+    private void pushNotification(Long userId, NotificationDTO notification) {
+        AtomicInteger cached = unreadCounts.get(userId);
+        OptionalInt count = cached != null ? OptionalInt.of(cached.incrementAndGet()) : getUnreadCount(userId);
+
+        Map<String, Object> message = new HashMap<>();
+        message.put("type", "NOTIFICATION");
+        message.put("notification", notification);
+        message.put("unreadCount", count.isPresent() ? count.getAsInt() : null);
+        message.put("timestamp", LocalDateTime.now().toString());
+        send(userId, message);
+    }
+
+    private Map<String, Object> countMessage(int count) {
+        Map<String, Object> message = new HashMap<>();
+        message.put("type", "UNREAD_COUNT");
+        message.put("unreadCount", count);
+        message.put("timestamp", LocalDateTime.now().toString());
+        return message;
+    }
+
+    private void send(Long userId, Map<String, Object> message) {
+        messagingTemplate.convertAndSendToUser(StompAuthenticationToken.nameOf(userId), DESTINATION, message);
+    }
+
+    // Pushes must not announce changes that roll back, nor race ahead of the data clients re-fetch
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private static int toCount(long count) {
+        return (int) Math.max(0, Math.min(Integer.MAX_VALUE, count));
+    }
+}
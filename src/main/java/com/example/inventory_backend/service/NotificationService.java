@@ -2,6 +2,7 @@ package com.example.inventory_backend.service;
 
 import com.example.inventory_backend.dto.NotificationDTO;
 import com.example.inventory_backend.model.Company;
+import com.example.inventory_backend.model.User;
 
 import java.util.List;
 
@@ -9,13 +10,17 @@ public interface NotificationService {
     List<NotificationDTO> getUserNotifications(Long userId);
     List<NotificationDTO> getUnreadNotifications(Long userId);
     int countUnreadNotifications(Long userId);
-    void markAsRead(Long notificationId);
+    void markAsRead(Long notificationId, Long userId);
     void markAllAsRead(Long userId);
-    void deleteNotification(Long notificationId);
+    void deleteNotification(Long notificationId, Long userId);
+    
+    // Starts a new user's read state at the company's newest notification
+    void initializeReadState(User user);
     
     // Methods for creating new notifications - now with Company parameter
     void notifyNewProduct(Long productId, String productName, Company company);
     void notifyNewCategory(Long categoryId, String categoryName, Company company);
     void notifyNewSupplier(Long supplierId, String supplierName, Company company);
     void notifyNewUser(Long userId, String userName, String role, Company company);
+    void notifyProductImport(int created, int updated, int failed, Company company);
 }
@@ -0,0 +1,358 @@
+package com.example.inventory_backend.service;
+
+import com.example.inventory_backend.dto.ImportReportDTO;
+import com.example.inventory_backend.dto.ImportRowErrorDTO;
+import com.example.inventory_backend.model.*;
+import com.example.inventory_backend.repository.CategoryRepository;
+import com.example.inventory_backend.repository.InventoryRepository;
+import com.example.inventory_backend.repository.ProductRepository;
+import com.example.inventory_backend.repository.SupplierRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.*;
+
+// Bulk product and inventory import from CSV or XLSX. Rows are parsed as they stream in and written
+// in batches: existing SKUs are looked up with one query per batch, then products are inserted or
+// updated and inventory rows upserted with one array-bound statement each, each batch in its own
+// transaction.
+// Categories and suppliers are resolved by name from maps loaded once per import and created when
+// missing. Side effects that used to happen per product (notifications, history, counters) happen
+// once for the whole file.
+@Service
+public class ProductImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductImportService.class);
+
+    @Value("${app.import.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${app.import.max-errors:1000}")
+    private int maxErrors;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private SupplierRepository supplierRepository;
+
+    @Autowired
+    private StatsCounterService statsCounterService;
+
+    @Autowired
+    private InventoryHistoryService historyService;
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate batchTemplate;
+
+    @PostConstruct
+    public void init() {
+        batchTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    // Throws IllegalArgumentException for an unsupported file type or a header without a SKU column
+    public ImportReportDTO importProducts(InputStream input, String filename, Company company) throws IOException {
+        long start = System.nanoTime();
+        ImportRun run = new ImportRun(company);
+
+        String name = filename != null ? filename.toLowerCase(Locale.ROOT) : "";
+        if (name.endsWith(".csv")) {
+            SpreadsheetRowReader.readCsv(input, run::accept);
+        } else if (name.endsWith(".xlsx")) {
+            SpreadsheetRowReader.readXlsx(input, run::accept);
+        } else {
+            throw new IllegalArgumentException("Only .csv and .xlsx files can be imported");
+        }
+        run.flush();
+
+        ImportReportDTO report = run.report;
+        report.setDurationMs((System.nanoTime() - start) / 1_000_000);
+
+        if (report.getCreated() > 0 || report.getUpdated() > 0) {
+            // Counts and stock value changed in bulk, reload them instead of applying deltas
+            statsCounterService.invalidate(company);
+            historyService.recordInventoryState(company);
+            notificationService.notifyProductImport(report.getCreated(), report.getUpdated(), report.getFailed(), company);
+        }
+
+        logger.info("Imported {} rows for company {} in {} ms: {} created, {} updated, {} failed",
+                report.getTotalRows(), company.getId(), report.getDurationMs(),
+                report.getCreated(), report.getUpdated(), report.getFailed());
+        return report;
+    }
+
+    private enum Column {
+        SKU("sku"), NAME("name"), DESCRIPTION("description"), PRICE("price"), CATEGORY("category"),
+        SUPPLIER("supplier"), QUANTITY("quantity"), REORDER_LEVEL("reorderlevel"),
+        REORDER_QUANTITY("reorderquantity"), LOCATION("location");
+
+        private final String header;
+
+        Column(String header) {
+            this.header = header;
+        }
+    }
+
+    private record ImportRow(int rowNumber, Product product, Inventory inventory) {}
+
+    private record BatchResult(int created, int updated, List<ImportRowErrorDTO> rejected) {}
+
+    // State of one import: header mapping, name lookups, the pending batch and the report
+    private class ImportRun {
+        private final Company company;
+        private final ImportReportDTO report = new ImportReportDTO();
+        private final Map<String, Category> categories = new HashMap<>();
+        private final Map<String, Supplier> suppliers = new HashMap<>();
+        // A SKU appearing twice in one file is almost always a mistake, so only the first one is imported
+        private final Set<String> seenSkus = new HashSet<>();
+        private final List<ImportRow> batch = new ArrayList<>();
+        private Map<Column, Integer> columns;
+
+        ImportRun(Company company) {
+            this.company = company;
+            for (Category category : categoryRepository.findByCompanyId(company.getId())) {
+                categories.putIfAbsent(key(category.getName()), category);
+            }
+            for (Supplier supplier : supplierRepository.findByCompanyId(company.getId())) {
+                suppliers.putIfAbsent(key(supplier.getName()), supplier);
+            }
+        }
+
+        void accept(int rowNumber, List<String> cells) {
+            if (cells.stream().allMatch(cell -> cell == null || cell.isBlank())) {
+                return;
+            }
+            if (columns == null) {
+                columns = mapHeader(cells);
+                return;
+            }
+
+            report.setTotalRows(report.getTotalRows() + 1);
+            String sku = cell(cells, Column.SKU);
+            try {
+                if (sku == null) {
+                    throw new IllegalArgumentException("SKU is required");
+                }
+                if (!seenSkus.add(sku)) {
+                    throw new IllegalArgumentException("Duplicate SKU in file");
+                }
+                batch.add(parseRow(rowNumber, sku, cells));
+            } catch (IllegalArgumentException e) {
+                fail(rowNumber, sku, e.getMessage());
+            }
+
+            if (batch.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        void flush() {
+            if (batch.isEmpty()) {
+                return;
+            }
+            List<ImportRow> rows = new ArrayList<>(batch);
+            batch.clear();
+
+            try {
+                write(rows);
+            } catch (DataAccessException e) {
+                // One bad row must not fail the rest of the batch, so retry them one by one
+                logger.warn("Import batch of {} rows failed, retrying row by row: {}", rows.size(), e.getMessage());
+                for (ImportRow row : rows) {
+                    try {
+                        write(List.of(row));
+                    } catch (DataAccessException rowError) {
+                        fail(row.rowNumber(), row.product().getSku(), rowError.getMostSpecificCause().getMessage());
+                    }
+                }
+            }
+        }
+
+        private void write(List<ImportRow> rows) {
+            BatchResult result = batchTemplate.execute(status -> {
+                Map<String, Long> existing = productRepository.findIdsBySku(company.getId(),
+                        rows.stream().map(row -> row.product().getSku()).toList());
+
+                List<ImportRowErrorDTO> rejected = new ArrayList<>();
+                List<ImportRow> accepted = new ArrayList<>(rows.size());
+                List<Product> inserts = new ArrayList<>();
+                List<Product> updates = new ArrayList<>();
+                for (ImportRow row : rows) {
+                    Product product = row.product();
+                    Long id = existing.get(product.getSku());
+                    if (id != null) {
+                        product.setId(id);
+                        updates.add(product);
+                    } else if (product.getName() == null) {
+                        rejected.add(new ImportRowErrorDTO(row.rowNumber(), product.getSku(), "Name is required for a new product"));
+                        continue;
+                    } else {
+                        inserts.add(product);
+                    }
+                    accepted.add(row);
+                }
+
+                productRepository.insertBatch(inserts);
+                productRepository.updateBatch(updates);
+
+                // New products always get an inventory row, existing ones only when the file has stock columns
+                List<Inventory> inventory = new ArrayList<>();
+                for (ImportRow row : accepted) {
+                    if (row.inventory() != null || !existing.containsKey(row.product().getSku())) {
+                        Inventory item = row.inventory() != null ? row.inventory() : new Inventory();
+                        item.setProduct(row.product());
+                        inventory.add(item);
+                    }
+                }
+                inventoryRepository.upsertBatch(company.getId(), inventory, LocalDateTime.now());
+
+                return new BatchResult(inserts.size(), updates.size(), rejected);
+            });
+
+            // Only reached once the batch has committed
+            report.setCreated(report.getCreated() + result.created());
+            report.setUpdated(report.getUpdated() + result.updated());
+            for (ImportRowErrorDTO error : result.rejected()) {
+                fail(error.getRow(), error.getSku(), error.getError());
+            }
+        }
+
+        private ImportRow parseRow(int rowNumber, String sku, List<String> cells) {
+            Product product = new Product();
+            product.setSku(sku);
+            product.setName(cell(cells, Column.NAME));
+            product.setDescription(cell(cells, Column.DESCRIPTION));
+            product.setPrice(decimal(cells, Column.PRICE));
+            product.setCategory(resolveCategory(cell(cells, Column.CATEGORY)));
+            product.setSupplier(resolveSupplier(cell(cells, Column.SUPPLIER)));
+            product.setCompany(company);
+
+            Inventory inventory = null;
+            Integer quantity = integer(cells, Column.QUANTITY);
+            Integer reorderLevel = integer(cells, Column.REORDER_LEVEL);
+            Integer reorderQuantity = integer(cells, Column.REORDER_QUANTITY);
+            String location = cell(cells, Column.LOCATION);
+            if (quantity != null || reorderLevel != null || reorderQuantity != null || location != null) {
+                inventory = new Inventory();
+                inventory.setQuantity(quantity);
+                inventory.setReorderLevel(reorderLevel);
+                inventory.setReorderQuantity(reorderQuantity);
+                inventory.setLocation(location);
+                inventory.setCompany(company);
+            }
+            return new ImportRow(rowNumber, product, inventory);
+        }
+
+        private Category resolveCategory(String name) {
+            if (name == null) {
+                return null;
+            }
+            return categories.computeIfAbsent(key(name), k -> {
+                Category category = new Category();
+                category.setName(name);
+                category.setCompany(company);
+                Category saved = categoryRepository.save(category);
+                statsCounterService.categoryAdded(company);
+                report.setCategoriesCreated(report.getCategoriesCreated() + 1);
+                return saved;
+            });
+        }
+
+        private Supplier resolveSupplier(String name) {
+            if (name == null) {
+                return null;
+            }
+            return suppliers.computeIfAbsent(key(name), k -> {
+                Supplier supplier = new Supplier();
+                supplier.setName(name);
+                supplier.setCompany(company);
+                Supplier saved = supplierRepository.save(supplier);
+                statsCounterService.supplierAdded(company);
+                report.setSuppliersCreated(report.getSuppliersCreated() + 1);
+                return saved;
+            });
+        }
+
+        private Map<Column, Integer> mapHeader(List<String> cells) {
+            Map<Column, Integer> mapped = new EnumMap<>(Column.class);
+            for (int i = 0; i < cells.size(); i++) {
+                String header = cells.get(i) != null ? cells.get(i).replaceAll("[\\s_-]", "").toLowerCase(Locale.ROOT) : "";
+                for (Column column : Column.values()) {
+                    if (column.header.equals(header)) {
+                        mapped.putIfAbsent(column, i);
+                    }
+                }
+            }
+            if (!mapped.containsKey(Column.SKU)) {
+                throw new IllegalArgumentException("The header row must contain a SKU column");
+            }
+            return mapped;
+        }
+
+        private String cell(List<String> cells, Column column) {
+            Integer index = columns.get(column);
+            if (index == null || index >= cells.size() || cells.get(index) == null) {
+                return null;
+            }
+            String value = cells.get(index).trim();
+            return value.isEmpty() ? null : value;
+        }
+
+        private BigDecimal decimal(List<String> cells, Column column) {
+            String value = cell(cells, column);
+            try {
+                return value != null ? new BigDecimal(value) : null;
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid " + column.header + ": " + value);
+            }
+        }
+
+        private Integer integer(List<String> cells, Column column) {
+            String value = cell(cells, column);
+            try {
+                Integer parsed = value != null ? new BigDecimal(value).intValueExact() : null;
+                if (parsed != null && parsed < 0) {
+                    throw new IllegalArgumentException("Negative " + column.header + ": " + value);
+                }
+                return parsed;
+            } catch (ArithmeticException | NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid " + column.header + ": " + value);
+            }
+        }
+
+        private void fail(int rowNumber, String sku, String message) {
+            report.setFailed(report.getFailed() + 1);
+            if (report.getErrors().size() < maxErrors) {
+                report.getErrors().add(new ImportRowErrorDTO(rowNumber, sku, message));
+            } else {
+                report.setErrorsTruncated(true);
+            }
+        }
+
+        private String key(String name) {
+            return name.trim().toLowerCase(Locale.ROOT);
+        }
+    }
+}
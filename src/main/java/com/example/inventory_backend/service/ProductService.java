@@ -1,5 +1,6 @@
 package com.example.inventory_backend.service;
 
+import com.example.inventory_backend.dto.ProductDTO;
 import com.example.inventory_backend.model.Category;
 import com.example.inventory_backend.model.Company;
 import com.example.inventory_backend.model.Product;
@@ -7,10 +8,15 @@ import com.example.inventory_backend.model.Supplier;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface ProductService {
     List<Product> getAllProducts(Company company);
     
+    List<ProductDTO> getAllProductDTOs(Company company);
+    
+    Stream<Product> streamAllProducts(Company company);
+    
     Product getProductById(Long id, Company company);
     
     Product getProductBySku(String sku, Company company);
@@ -0,0 +1,120 @@
+package com.example.inventory_backend.service;
+
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.util.NumberToTextConverter;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+// Streams the rows of an uploaded CSV or XLSX file to a handler one at a time. XLSX is read with POI's
+// SAX event model (only the first sheet), so neither format is ever held in memory as a whole.
+public final class SpreadsheetRowReader {
+
+    @FunctionalInterface
+    public interface RowHandler {
+        // rowNumber is 1-based as shown in a spreadsheet; cells missing from the file are null
+        void row(int rowNumber, List<String> cells);
+    }
+
+    private SpreadsheetRowReader() {}
+
+    public static void readCsv(InputStream input, RowHandler handler) throws IOException {
+        CsvReader csv = new CsvReader(new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8)));
+        int rowNumber = 0;
+        List<String> row;
+        while ((row = csv.readRow()) != null) {
+            handler.row(++rowNumber, row);
+        }
+    }
+
+    public static void readXlsx(InputStream input, RowHandler handler) throws IOException {
+        // OPCPackage buffers a whole stream in memory but reads a file lazily, so spool the upload to disk
+        Path file = Files.createTempFile("import-", ".xlsx");
+        try {
+            Files.copy(input, file, StandardCopyOption.REPLACE_EXISTING);
+            try (OPCPackage pkg = OPCPackage.open(file.toFile(), PackageAccess.READ)) {
+                XSSFReader reader = new XSSFReader(pkg);
+                ReadOnlySharedStringsTable strings = new ReadOnlySharedStringsTable(pkg);
+
+                Iterator<InputStream> sheets = reader.getSheetsData();
+                if (!sheets.hasNext()) {
+                    return;
+                }
+                try (InputStream sheet = sheets.next()) {
+                    XMLReader parser = XMLHelper.newXMLReader();
+                    parser.setContentHandler(new XSSFSheetXMLHandler(reader.getStylesTable(), null, strings,
+                            new RowCollector(handler), new RawNumberFormatter(), false));
+                    parser.parse(new InputSource(sheet));
+                }
+            } catch (OpenXML4JException | SAXException | ParserConfigurationException e) {
+                throw new IOException("Not a readable XLSX file: " + e.getMessage(), e);
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    // Numbers are passed on as their stored value (e.g. "1234.5"), since a display format such as "$1,234.50"
+    // cannot be parsed back. Dates keep their formatted text.
+    private static class RawNumberFormatter extends DataFormatter {
+        @Override
+        public String formatRawCellContents(double value, int formatIndex, String formatString) {
+            if (DateUtil.isADateFormat(formatIndex, formatString)) {
+                return super.formatRawCellContents(value, formatIndex, formatString);
+            }
+            return NumberToTextConverter.toText(value);
+        }
+    }
+
+    // Gathers the cells of each row (the SAX handler only reports non-empty ones) into a positional list
+    private static class RowCollector implements XSSFSheetXMLHandler.SheetContentsHandler {
+        private final RowHandler handler;
+        private final List<String> cells = new ArrayList<>();
+
+        RowCollector(RowHandler handler) {
+            this.handler = handler;
+        }
+
+        @Override
+        public void startRow(int rowNum) {
+            cells.clear();
+        }
+
+        @Override
+        public void endRow(int rowNum) {
+            handler.row(rowNum + 1, new ArrayList<>(cells));
+        }
+
+        @Override
+        public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+            int column = cellReference != null ? new CellReference(cellReference).getCol() : cells.size();
+            while (cells.size() < column) {
+                cells.add(null);
+            }
+            cells.add(formattedValue);
+        }
+    }
+}
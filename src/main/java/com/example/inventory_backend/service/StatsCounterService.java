@@ -0,0 +1,352 @@
+package com.example.inventory_backend.service;
+
+import com.example.inventory_backend.dto.StatsSummaryDTO;
+import com.example.inventory_backend.model.Company;
+import com.example.inventory_backend.repository.CompanyRepository;
+import com.example.inventory_backend.repository.CompanyStatsAggregate;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
+
+// Per-company dashboard counters, loaded once with aggregate SQL and then maintained from known deltas.
+// Deltas are applied once the change commits, so no reader sees uncommitted totals. Changes whose
+// effect is unknown invalidate the company instead, and a periodic reconciliation corrects drift from
+// writes that bypass this service.
+//
+// Counters are only ever loaded from committed data: loading and reconciling read the database in
+// their own read-only transaction and only replace the counters if no tracked change committed or was
+// in the middle of committing meanwhile. A read inside a caller's transaction is answered from that
+// transaction without caching, and the counters are loaded in the background once it has ended, so a
+// caller never holds one connection while waiting for another.
+@Service
+public class StatsCounterService {
+
+    private static final Logger logger = LoggerFactory.getLogger(StatsCounterService.class);
+
+    // Counters by company ID; an entry may exist before its counters are loaded
+    private final Map<Long, CompanyStats> stats = new ConcurrentHashMap<>();
+
+    @Autowired
+    private CompanyRepository companyRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate readTemplate;
+    private ExecutorService loader;
+
+    @PostConstruct
+    public void init() {
+        readTemplate = new TransactionTemplate(transactionManager);
+        readTemplate.setReadOnly(true);
+        loader = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "stats-loader");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        loader.shutdownNow();
+    }
+
+    public StatsSummaryDTO getSummary(Company company) {
+        return load(company.getId());
+    }
+
+    public int getTotalQuantity(Company company) {
+        return (int) load(company.getId()).getTotalQuantity();
+    }
+
+    public void productAdded(Company company) {
+        apply(company, new Delta(1, 0, 0, 0, 0, BigDecimal.ZERO));
+    }
+
+    public void productRemoved(Company company) {
+        apply(company, new Delta(-1, 0, 0, 0, 0, BigDecimal.ZERO));
+    }
+
+    public void categoryAdded(Company company) {
+        apply(company, new Delta(0, 1, 0, 0, 0, BigDecimal.ZERO));
+    }
+
+    public void categoryRemoved(Company company) {
+        apply(company, new Delta(0, -1, 0, 0, 0, BigDecimal.ZERO));
+    }
+
+    public void supplierAdded(Company company) {
+        apply(company, new Delta(0, 0, 1, 0, 0, BigDecimal.ZERO));
+    }
+
+    public void supplierRemoved(Company company) {
+        apply(company, new Delta(0, 0, -1, 0, 0, BigDecimal.ZERO));
+    }
+
+    // An inventory row moved from the old to the new state. A null quantity on either side means the
+    // row did not exist (created or deleted); price is the product's unit price.
+    public void inventoryChanged(Company company, Integer oldQuantity, Integer oldReorderLevel,
+                                 Integer newQuantity, Integer newReorderLevel, BigDecimal price) {
+        long quantityDelta = (newQuantity != null ? newQuantity : 0) - (oldQuantity != null ? oldQuantity : 0);
+        long lowStockDelta = (isLowStock(newQuantity, newReorderLevel) ? 1 : 0)
+                - (isLowStock(oldQuantity, oldReorderLevel) ? 1 : 0);
+        BigDecimal valueDelta = price != null ? price.multiply(BigDecimal.valueOf(quantityDelta)) : BigDecimal.ZERO;
+
+        apply(company, new Delta(0, 0, 0, lowStockDelta, quantityDelta, valueDelta));
+    }
+
+    // Drops the company's counters once the current transaction ends; they are reloaded on the next read
+    public void invalidate(Company company) {
+        afterCommit(company.getId(), CompanyStats::unload);
+    }
+
+    @Scheduled(fixedDelayString = "${app.stats.reconcile-interval-ms:300000}",
+            initialDelayString = "${app.stats.reconcile-interval-ms:300000}")
+    public void reconcile() {
+        if (stats.isEmpty()) {
+            return;
+        }
+
+        Map<Long, Long> versions = new HashMap<>();
+        stats.forEach((companyId, cached) -> versions.put(companyId, cached.version()));
+
+        List<CompanyStatsAggregate> aggregates = readTemplate.execute(status ->
+                companyRepository.aggregateStatsForAllCompanies());
+        Set<Long> seen = new HashSet<>();
+
+        for (CompanyStatsAggregate aggregate : aggregates) {
+            seen.add(aggregate.getCompanyId());
+            CompanyStats cached = stats.get(aggregate.getCompanyId());
+            Long version = versions.get(aggregate.getCompanyId());
+            if (cached != null && version != null && cached.reconcile(toSummary(aggregate), version)) {
+                logger.warn("Corrected stats drift for company {}", aggregate.getCompanyId());
+            }
+        }
+
+        // Deleted companies
+        stats.keySet().retainAll(seen);
+    }
+
+    private StatsSummaryDTO load(Long companyId) {
+        CompanyStats cached = stats.computeIfAbsent(companyId, id -> new CompanyStats());
+        StatsSummaryDTO summary = cached.summary();
+        if (summary != null) {
+            return summary;
+        }
+
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            // Includes the caller's own uncommitted changes, so it is not cached
+            if (cached.startLoading()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCompletion(int status) {
+                        loadInBackground(companyId, cached);
+                    }
+                });
+            }
+            return readStored(companyId);
+        }
+
+        long version = cached.version();
+        StatsSummaryDTO stored = readTemplate.execute(status -> readStored(companyId));
+        cached.load(stored, version);
+        return stored;
+    }
+
+    private void loadInBackground(Long companyId, CompanyStats cached) {
+        try {
+            loader.execute(() -> {
+                try {
+                    load(companyId);
+                } catch (RuntimeException e) {
+                    logger.warn("Loading stats for company {} failed: {}", companyId, e.getMessage());
+                } finally {
+                    cached.loadingEnded();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Shutting down
+            cached.loadingEnded();
+        }
+    }
+
+    private StatsSummaryDTO readStored(Long companyId) {
+        return companyRepository.aggregateStatsByCompanyId(companyId)
+                .map(StatsCounterService::toSummary)
+                .orElseGet(() -> new StatsSummaryDTO(0, 0, 0, 0, 0, BigDecimal.ZERO));
+    }
+
+    private void apply(Company company, Delta delta) {
+        afterCommit(company.getId(), cached -> cached.add(delta));
+    }
+
+    // Runs the change on the company's counters once the surrounding transaction commits, and keeps
+    // loads and reconciliations from replacing the counters while that commit is in progress
+    private void afterCommit(Long companyId, Consumer<CompanyStats> change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            change.accept(stats.computeIfAbsent(companyId, id -> new CompanyStats()));
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            private CompanyStats cached;
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                cached = stats.computeIfAbsent(companyId, id -> new CompanyStats());
+                cached.commitStarted();
+            }
+
+            @Override
+            public void afterCommit() {
+                change.accept(cached);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (cached != null) {
+                    cached.commitEnded();
+                }
+            }
+        });
+    }
+
+    private static boolean isLowStock(Integer quantity, Integer reorderLevel) {
+        // Same rule as the low-stock queries: NULL on either side never counts
+        return quantity != null && reorderLevel != null && quantity <= reorderLevel;
+    }
+
+    private static StatsSummaryDTO toSummary(CompanyStatsAggregate aggregate) {
+        return new StatsSummaryDTO(aggregate.getTotalProducts(), aggregate.getTotalCategories(),
+                aggregate.getTotalSuppliers(), aggregate.getLowStockItems(), aggregate.getTotalQuantity(),
+                aggregate.getTotalValue() != null ? aggregate.getTotalValue() : BigDecimal.ZERO);
+    }
+
+    private record Delta(long products, long categories, long suppliers, long lowStock, long quantity,
+                         BigDecimal value) {}
+
+    private static class CompanyStats {
+        private boolean loaded;
+        private boolean loading;
+        // Bumped by every applied change, so a database read can tell whether it is still current
+        private long version;
+        // Tracked transactions between their commit and the change being applied
+        private int committing;
+        private long totalProducts;
+        private long totalCategories;
+        private long totalSuppliers;
+        private long lowStockItems;
+        private long totalQuantity;
+        private BigDecimal totalValue = BigDecimal.ZERO;
+
+        synchronized long version() {
+            return version;
+        }
+
+        // True for the one caller that should schedule a background load
+        synchronized boolean startLoading() {
+            if (loading) {
+                return false;
+            }
+            loading = true;
+            return true;
+        }
+
+        synchronized void loadingEnded() {
+            loading = false;
+        }
+
+        synchronized void commitStarted() {
+            committing++;
+        }
+
+        synchronized void commitEnded() {
+            committing--;
+        }
+
+        synchronized void add(Delta delta) {
+            version++;
+            if (!loaded) {
+                // The first read picks the change up from the database
+                return;
+            }
+            totalProducts += delta.products();
+            totalCategories += delta.categories();
+            totalSuppliers += delta.suppliers();
+            lowStockItems += delta.lowStock();
+            totalQuantity += delta.quantity();
+            totalValue = totalValue.add(delta.value());
+        }
+
+        synchronized void unload() {
+            version++;
+            loaded = false;
+        }
+
+        // Takes the stored values if the counters are still unloaded and nothing changed since version
+        synchronized void load(StatsSummaryDTO stored, long expectedVersion) {
+            if (!loaded && isQuiet(expectedVersion)) {
+                copy(stored);
+            }
+        }
+
+        // Replaces loaded counters with the stored values on the same condition, and reports whether
+        // any of them differed
+        synchronized boolean reconcile(StatsSummaryDTO stored, long expectedVersion) {
+            if (!loaded || !isQuiet(expectedVersion)) {
+                return false;
+            }
+            boolean drifted = totalProducts != stored.getTotalProducts()
+                    || totalCategories != stored.getTotalCategories()
+                    || totalSuppliers != stored.getTotalSuppliers()
+                    || lowStockItems != stored.getLowStockItems()
+                    || totalQuantity != stored.getTotalQuantity()
+                    || totalValue.compareTo(stored.getTotalValue()) != 0;
+            copy(stored);
+            return drifted;
+        }
+
+        // Null until loaded
+        synchronized StatsSummaryDTO summary() {
+            if (!loaded) {
+                return null;
+            }
+            return new StatsSummaryDTO(totalProducts, totalCategories, totalSuppliers,
+                    lowStockItems, totalQuantity, totalValue);
+        }
+
+        private boolean isQuiet(long expectedVersion) {
+            return version == expectedVersion && committing == 0;
+        }
+
+        private void copy(StatsSummaryDTO stored) {
+            totalProducts = stored.getTotalProducts();
+            totalCategories = stored.getTotalCategories();
+            totalSuppliers = stored.getTotalSuppliers();
+            lowStockItems = stored.getLowStockItems();
+            totalQuantity = stored.getTotalQuantity();
+            totalValue = stored.getTotalValue();
+            loaded = true;
+        }
+    }
+}
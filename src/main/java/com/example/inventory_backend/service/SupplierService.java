@@ -4,10 +4,13 @@ import com.example.inventory_backend.model.Company;
 import com.example.inventory_backend.model.Supplier;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface SupplierService {
     List<Supplier> getAllSuppliers(Company company);
     
+    Stream<Supplier> streamAllSuppliers(Company company);
+    
     Supplier getSupplierById(Long id, Company company);
     
     List<Supplier> searchSuppliersByName(String name, Company company);
@@ -1,17 +1,29 @@
 package com.example.inventory_backend.service;
 
+import com.example.inventory_backend.dto.CursorPageDTO;
+import com.example.inventory_backend.dto.TransactionBatchRequestDTO;
+import com.example.inventory_backend.dto.TransactionBatchResponseDTO;
 import com.example.inventory_backend.dto.TransactionDTO;
+import com.example.inventory_backend.dto.TransactionFilterDTO;
 import com.example.inventory_backend.model.Company;
 import com.example.inventory_backend.model.Transaction;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface TransactionService {
     List<Transaction> getAllTransactions(Company company);
+    List<TransactionDTO> getAllTransactionDTOs(Company company);
+    Stream<Transaction> streamAllTransactions(Company company);
+    
+    Stream<Transaction> streamTransactions(TransactionFilterDTO filter, Company company);
+    CursorPageDTO<Transaction> getTransactionPage(TransactionFilterDTO filter, String cursor, int limit, Company company);
     Transaction getTransactionById(Long id, Company company);
     List<Transaction> getTransactionsByProductId(Long productId, Company company);
     List<Transaction> getTransactionsByType(Transaction.TransactionType type, Company company);
     List<Transaction> getTransactionsByDateRange(LocalDateTime start, LocalDateTime end, Company company);
     Transaction saveTransaction(TransactionDTO transactionDTO, Company company);
+    TransactionBatchResponseDTO saveTransactions(List<TransactionDTO> transactionDTOs,
+                                                 TransactionBatchRequestDTO.Mode mode, Company company);
     void deleteTransaction(Long id, Company company);
 }
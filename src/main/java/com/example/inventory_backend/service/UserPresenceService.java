@@ -2,106 +2,365 @@ package com.example.inventory_backend.service;
 
 import com.example.inventory_backend.model.User;
 import com.example.inventory_backend.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
+// Presence is tracked per WebSocket session: a user is online while at least one of their sessions is
+// registered. Sessions end on disconnect or when no heartbeat arrived within the TTL, which catches
+// connections that die without a disconnect event. Expiry is swept by a timer wheel: each session sits
+// in the bucket of the tick it is due, heartbeats only move its deadline, and a sweep re-files sessions
+// whose deadline moved instead of expiring them.
+//
+// Changes to a company's sessions are serialized by one of a fixed set of lock stripes. Online/offline
+// transitions are collected per company and broadcast once per interval; a user who flaps within the
+// interval produces no message at all.
+//
+// Last-seen times are write-behind: connects, disconnects and heartbeats only touch memory, and the
+// changed values are written to the users table periodically in one UPDATE (and once more on shutdown).
+// Reads prefer the in-memory value, which is never older than the stored one.
 @Service
 public class UserPresenceService {
 
     private static final Logger logger = LoggerFactory.getLogger(UserPresenceService.class);
 
-    // Track online users by their ID
-    private final Set<Long> onlineUsers = ConcurrentHashMap.newKeySet();
+    private static final int LOCK_STRIPES = 64;
 
-    // Track users by company for broadcasting
+    @Value("${app.presence.session-ttl-ms:90000}")
+    private long sessionTtlMs;
+
+    @Value("${app.presence.sweep-interval-ms:5000}")
+    private long sweepIntervalMs;
+
+    // Registered sessions by WebSocket session ID
+    private final Map<String, PresenceSession> sessions = new ConcurrentHashMap<>();
+
+    // Sessions of each online user; a user is online exactly while they have an entry here
+    private final Map<Long, UserSessions> onlineUsers = new ConcurrentHashMap<>();
+
+    // Online user IDs by company, for broadcasting
     private final Map<Long, Set<Long>> companyUsers = new ConcurrentHashMap<>();
 
+    // Online (true) / offline (false) transitions per company not yet broadcast
+    private final Map<Long, Map<Long, Boolean>> pendingChanges = new ConcurrentHashMap<>();
+
+    private final Object[] locks = new Object[LOCK_STRIPES];
+
+    // Latest last-seen time by user ID, for every user seen since startup
+    private final Map<Long, LocalDateTime> lastSeen = new ConcurrentHashMap<>();
+
+    // Last-seen times not yet written to the database
+    private final Map<Long, LocalDateTime> pendingLastSeen = new ConcurrentHashMap<>();
+
+    private List<Set<PresenceSession>> wheel;
+    private volatile long currentTick;
+
     @Autowired
     private UserRepository userRepository;
 
     @Autowired
     private SimpMessagingTemplate messagingTemplate;
 
-    public void userConnected(User user) {
-        Long userId = user.getId();
-        Long companyId = user.getCompany().getId();
-
-        // Add to online users
-        onlineUsers.add(userId);
+    @PostConstruct
+    public void init() {
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new Object();
+        }
 
-        // Add to company users map
-        companyUsers.computeIfAbsent(companyId, k -> ConcurrentHashMap.newKeySet()).add(userId);
+        // One revolution covers the TTL, so every deadline fits in the wheel without wrapping
+        int buckets = (int) ((sessionTtlMs + sweepIntervalMs - 1) / sweepIntervalMs) + 2;
+        wheel = new ArrayList<>(buckets);
+        for (int i = 0; i < buckets; i++) {
+            wheel.add(ConcurrentHashMap.newKeySet());
+        }
+    }
 
-        // Update last seen
-        user.setLastSeen(LocalDateTime.now());
-        userRepository.save(user);
+    public void sessionConnected(String sessionId, Long userId, Long companyId) {
+        PresenceSession session = new PresenceSession(sessionId, userId, companyId, deadline());
 
-        // Broadcast to company members
-        broadcastPresenceUpdate(companyId, userId, true);
-    }
+        synchronized (lockFor(companyId)) {
+            PresenceSession previous = sessions.put(sessionId, session);
+            if (previous != null) {
+                removeSession(previous);
+            }
 
-    public void userDisconnected(User user) {
-        Long userId = user.getId();
-        Long companyId = user.getCompany().getId();
+            UserSessions userSessions = onlineUsers.get(userId);
+            if (userSessions == null) {
+                userSessions = new UserSessions();
+                onlineUsers.put(userId, userSessions);
+                companyUsers.computeIfAbsent(companyId, k -> ConcurrentHashMap.newKeySet()).add(userId);
+                recordChange(companyId, userId, true);
+            }
+            synchronized (userSessions) {
+                userSessions.sessions.add(session);
+            }
+        }
 
-        // Remove from online users
-        onlineUsers.remove(userId);
+        schedule(session);
+        touch(userId);
+    }
 
-        // Remove from company users
-        Set<Long> users = companyUsers.get(companyId);
-        if (users != null) {
-            users.remove(userId);
+    // Returns true when this was the user's last session
+    public boolean sessionDisconnected(String sessionId) {
+        PresenceSession session = sessions.get(sessionId);
+        if (session == null) {
+            return false;
         }
 
-        // Update last seen
-        user.setLastSeen(LocalDateTime.now());
-        userRepository.save(user);
+        boolean wentOffline;
+        synchronized (lockFor(session.companyId)) {
+            if (!sessions.remove(sessionId, session)) {
+                return false;
+            }
+            wentOffline = removeSession(session);
+        }
 
-        // Broadcast to company members
-        broadcastPresenceUpdate(companyId, userId, false);
+        touch(session.userId);
+        return wentOffline;
     }
 
     public boolean isUserOnline(Long userId) {
-        return onlineUsers.contains(userId);
+        return onlineUsers.containsKey(userId);
     }
 
     public Set<Long> getOnlineUsersForCompany(Long companyId) {
-        return companyUsers.getOrDefault(companyId, Set.of());
+        Set<Long> users = companyUsers.get(companyId);
+        return users != null ? Collections.unmodifiableSet(users) : Set.of();
     }
 
     public LocalDateTime getLastSeen(Long userId) {
+        LocalDateTime cached = lastSeen.get(userId);
+        if (cached != null) {
+            return cached;
+        }
         return userRepository.findById(userId)
                 .map(User::getLastSeen)
                 .orElse(null);
     }
 
-    private void broadcastPresenceUpdate(Long companyId, Long userId, boolean online) {
-        // Create presence update message
-        Map<String, Object> presenceUpdate = Map.of(
-            "userId", userId,
-            "online", online,
-            "timestamp", LocalDateTime.now().toString()
-        );
+    // For callers that already loaded the stored value along with the user
+    public LocalDateTime getLastSeen(Long userId, LocalDateTime stored) {
+        LocalDateTime cached = lastSeen.get(userId);
+        return cached != null ? cached : stored;
+    }
+
+    // Heartbeat from one WebSocket session; a session that had already expired is registered again
+    public void sessionHeartbeat(String sessionId, Long userId, Long companyId) {
+        PresenceSession session = sessions.get(sessionId);
+        if (session == null) {
+            sessionConnected(sessionId, userId, companyId);
+            return;
+        }
+        session.deadline = deadline();
+        touch(userId);
+    }
+
+    // Heartbeat without a session (REST), which keeps all of the user's sessions alive
+    public void updateHeartbeat(Long userId) {
+        UserSessions userSessions = onlineUsers.get(userId);
+        if (userSessions != null) {
+            long deadline = deadline();
+            synchronized (userSessions) {
+                for (PresenceSession session : userSessions.sessions) {
+                    session.deadline = deadline;
+                }
+            }
+        }
+        touch(userId);
+    }
+
+    @Scheduled(fixedRateString = "${app.presence.sweep-interval-ms:5000}",
+            initialDelayString = "${app.presence.sweep-interval-ms:5000}")
+    public void sweepExpiredSessions() {
+        long tick = currentTick + 1;
+        currentTick = tick;
+
+        long now = System.currentTimeMillis();
+        int expired = 0;
+        Iterator<PresenceSession> bucket = wheel.get(bucketIndex(tick)).iterator();
+        while (bucket.hasNext()) {
+            PresenceSession session = bucket.next();
+            bucket.remove();
+
+            if (sessions.get(session.sessionId) != session) {
+                continue;
+            }
+            if (session.deadline > now) {
+                // Heartbeats moved the deadline since the session was filed here
+                schedule(session);
+                continue;
+            }
+
+            synchronized (lockFor(session.companyId)) {
+                if (sessions.remove(session.sessionId, session)) {
+                    removeSession(session);
+                    expired++;
+                }
+            }
+            touch(session.userId);
+        }
+
+        if (expired > 0) {
+            logger.info("Expired {} presence sessions without a heartbeat", expired);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.presence.broadcast-interval-ms:1000}")
+    public void broadcastPresenceChanges() {
+        for (Long companyId : pendingChanges.keySet()) {
+            Map<Long, Boolean> changes;
+            synchronized (lockFor(companyId)) {
+                changes = pendingChanges.remove(companyId);
+            }
+            if (changes != null && !changes.isEmpty()) {
+                broadcastPresenceUpdate(companyId, changes);
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.presence.last-seen-flush-interval-ms:30000}",
+            initialDelayString = "${app.presence.last-seen-flush-interval-ms:30000}")
+    public void flushLastSeen() {
+        if (pendingLastSeen.isEmpty()) {
+            return;
+        }
+
+        Map<Long, LocalDateTime> batch = new HashMap<>(pendingLastSeen);
+        // Entries touched again meanwhile stay pending for the next flush
+        batch.forEach(pendingLastSeen::remove);
+
+        try {
+            userRepository.updateLastSeen(batch);
+        } catch (DataAccessException e) {
+            logger.warn("Writing last seen for {} users failed, will retry: {}", batch.size(), e.getMessage());
+            batch.forEach((userId, time) -> pendingLastSeen.merge(userId, time, UserPresenceService::latest));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flushLastSeen();
+    }
+
+    // Caller holds the company's lock; returns true when the user has no sessions left
+    private boolean removeSession(PresenceSession session) {
+        UserSessions userSessions = onlineUsers.get(session.userId);
+        if (userSessions == null) {
+            return false;
+        }
+
+        synchronized (userSessions) {
+            userSessions.sessions.remove(session);
+            if (!userSessions.sessions.isEmpty()) {
+                return false;
+            }
+        }
+
+        onlineUsers.remove(session.userId);
+        Set<Long> users = companyUsers.get(session.companyId);
+        if (users != null) {
+            users.remove(session.userId);
+            if (users.isEmpty()) {
+                companyUsers.remove(session.companyId);
+            }
+        }
+        recordChange(session.companyId, session.userId, false);
+        return true;
+    }
+
+    // Caller holds the company's lock. A transition back to the last broadcast state cancels out.
+    private void recordChange(Long companyId, Long userId, boolean online) {
+        Map<Long, Boolean> changes = pendingChanges.computeIfAbsent(companyId, k -> new LinkedHashMap<>());
+        Boolean pending = changes.get(userId);
+        if (pending != null && pending != online) {
+            changes.remove(userId);
+        } else {
+            changes.put(userId, online);
+        }
+    }
+
+    private void broadcastPresenceUpdate(Long companyId, Map<Long, Boolean> changes) {
+        List<Map<String, Object>> updates = new ArrayList<>(changes.size());
+        changes.forEach((userId, online) -> updates.add(Map.of("userId", userId, "online", online)));
+
+        Map<String, Object> presenceUpdate = new HashMap<>();
+        presenceUpdate.put("changes", updates);
+        presenceUpdate.put("timestamp", LocalDateTime.now().toString());
+        if (updates.size() == 1) {
+            // Single changes keep the original message shape
+            presenceUpdate.putAll(updates.get(0));
+        }
 
         String destination = "/topic/presence/" + companyId;
-        logger.info("Presence broadcast -> {} | userId={} online={} (currently online in company: {})",
-                destination, userId, online,
-                companyUsers.getOrDefault(companyId, Set.of()));
+        logger.debug("Presence broadcast -> {} | {} changes", destination, updates.size());
 
         // Broadcast to all users in the same company
         messagingTemplate.convertAndSend(destination, presenceUpdate);
     }
 
-    public void updateHeartbeat(User user) {
-        user.setLastSeen(LocalDateTime.now());
-        userRepository.save(user);
+    private void schedule(PresenceSession session) {
+        long ticks = (session.deadline - System.currentTimeMillis() + sweepIntervalMs - 1) / sweepIntervalMs;
+        ticks = Math.max(1, Math.min(ticks, wheel.size() - 1));
+        wheel.get(bucketIndex(currentTick + ticks)).add(session);
+    }
+
+    private int bucketIndex(long tick) {
+        return (int) (tick % wheel.size());
+    }
+
+    private long deadline() {
+        return System.currentTimeMillis() + sessionTtlMs;
+    }
+
+    private Object lockFor(Long companyId) {
+        return locks[Math.floorMod(companyId.hashCode(), LOCK_STRIPES)];
+    }
+
+    private void touch(Long userId) {
+        LocalDateTime now = LocalDateTime.now();
+        lastSeen.merge(userId, now, UserPresenceService::latest);
+        pendingLastSeen.merge(userId, now, UserPresenceService::latest);
+    }
+
+    private static LocalDateTime latest(LocalDateTime a, LocalDateTime b) {
+        return a.isAfter(b) ? a : b;
+    }
+
+    private static final class PresenceSession {
+        private final String sessionId;
+        private final Long userId;
+        private final Long companyId;
+        private volatile long deadline;
+
+        private PresenceSession(String sessionId, Long userId, Long companyId, long deadline) {
+            this.sessionId = sessionId;
+            this.userId = userId;
+            this.companyId = companyId;
+            this.deadline = deadline;
+        }
+    }
+
+    // The user's live sessions; their count is the user's reference count
+    private static final class UserSessions {
+        private final Set<PresenceSession> sessions = new HashSet<>();
     }
 }
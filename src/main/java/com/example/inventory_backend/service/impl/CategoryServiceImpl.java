@@ -1,19 +1,25 @@
 package com.example.inventory_backend.service.impl;
 
+import com.example.inventory_backend.dto.CategoryDTO;
 import com.example.inventory_backend.model.Category;
 import com.example.inventory_backend.model.Company;
 import com.example.inventory_backend.repository.CategoryRepository;
 import com.example.inventory_backend.service.CategoryService;
+import com.example.inventory_backend.service.StatsCounterService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 @Service
 public class CategoryServiceImpl implements CategoryService {
 
     private final CategoryRepository categoryRepository;
     
+    @Autowired
+    private StatsCounterService statsCounterService;
+    
     @Autowired
     public CategoryServiceImpl(CategoryRepository categoryRepository) {
         this.categoryRepository = categoryRepository;
@@ -24,6 +30,11 @@ public class CategoryServiceImpl implements CategoryService {
         return categoryRepository.findByCompany(company);
     }
     
+    @Override
+    public Stream<CategoryDTO> streamAllCategoryDTOs(Company company) {
+        return categoryRepository.streamDTOsByCompanyId(company.getId());
+    }
+    
     @Override
     public Category getCategoryById(Long id, Company company) {
         Category category = categoryRepository.findById(id)
@@ -44,13 +55,21 @@ public class CategoryServiceImpl implements CategoryService {
     
     @Override
     public Category saveCategory(Category category, Company company) {
+        boolean isNewCategory = category.getId() == null;
         category.setCompany(company);
-        return categoryRepository.save(category);
+        Category savedCategory = categoryRepository.save(category);
+        
+        if (isNewCategory) {
+            statsCounterService.categoryAdded(company);
+        }
+        
+        return savedCategory;
     }
     
     @Override
     public void deleteCategory(Long id, Company company) {
         Category category = getCategoryById(id, company);
         categoryRepository.deleteById(category.getId());
+        statsCounterService.categoryRemoved(company);
     }
 }
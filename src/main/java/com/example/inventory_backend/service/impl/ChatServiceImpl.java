@@ -2,19 +2,23 @@ package com.example.inventory_backend.service.impl;
 
 import com.example.inventory_backend.dto.ChatDTO;
 import com.example.inventory_backend.dto.ChatMessageDTO;
+import com.example.inventory_backend.dto.ChatMessagePageDTO;
 import com.example.inventory_backend.dto.UserDTO;
 import com.example.inventory_backend.model.Chat;
 import com.example.inventory_backend.model.ChatMessage;
 import com.example.inventory_backend.model.ChatParticipant;
 import com.example.inventory_backend.model.User;
+import com.example.inventory_backend.repository.ChatListRow;
 import com.example.inventory_backend.repository.ChatMessageRepository;
 import com.example.inventory_backend.repository.ChatParticipantRepository;
 import com.example.inventory_backend.repository.ChatRepository;
 import com.example.inventory_backend.repository.UserRepository;
 import com.example.inventory_backend.service.ChatService;
+import com.example.inventory_backend.service.ChatUnreadCounterService;
 import com.example.inventory_backend.service.EncryptionService;
 import com.example.inventory_backend.service.UserPresenceService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -23,6 +27,8 @@ import java.util.HashMap;
 import java.util.Map;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -49,25 +55,27 @@ public class ChatServiceImpl implements ChatService {
 
     @Autowired
     private SimpMessagingTemplate messagingTemplate;
+
+    @Autowired
+    private ChatUnreadCounterService unreadCounterService;
     
     @Override
     public List<ChatDTO> getAllUserChats(User currentUser) {
-        List<Chat> chats = chatRepository.findByParticipant(currentUser);
-        return chats.stream()
-                .map(chat -> convertToDTO(chat, currentUser))
-                .collect(Collectors.toList());
+        return convertToDTOs(chatRepository.findChatList(currentUser), currentUser);
     }
     
     @Override
     public List<ChatDTO> getRecentChats(User currentUser) {
-        List<Chat> chats = chatRepository.findRecentByParticipant(currentUser);
-        return chats.stream()
-                .map(chat -> convertToDTO(chat, currentUser))
-                .collect(Collectors.toList());
+        return convertToDTOs(chatRepository.findChatList(currentUser, Limit.of(10)), currentUser);
     }
     
     @Override
     public ChatDTO getChatById(Long chatId, User currentUser) {
+        return loadChatDTO(chatId, currentUser);
+    }
+    
+    @Override
+    public List<ChatMessageDTO> getChatMessages(Long chatId, User currentUser) {
         Chat chat = chatRepository.findById(chatId)
                 .orElseThrow(() -> new RuntimeException("Chat not found with id: " + chatId));
         
@@ -75,11 +83,16 @@ public class ChatServiceImpl implements ChatService {
             throw new RuntimeException("You are not a participant in this chat");
         }
         
-        return convertToDTO(chat, currentUser);
+        List<ChatMessage> messages = chatMessageRepository.findByChatOrderByTimestampAsc(chat);
+        return convertToMessageDTOs(messages, getReadWatermarks(chatId));
     }
     
     @Override
-    public List<ChatMessageDTO> getChatMessages(Long chatId, User currentUser) {
+    public ChatMessagePageDTO getChatMessagePage(Long chatId, Long beforeId, Long afterId, int limit, User currentUser) {
+        if (beforeId != null && afterId != null) {
+            throw new IllegalArgumentException("Use either before or after, not both");
+        }
+        
         Chat chat = chatRepository.findById(chatId)
                 .orElseThrow(() -> new RuntimeException("Chat not found with id: " + chatId));
         
@@ -87,10 +100,31 @@ public class ChatServiceImpl implements ChatService {
             throw new RuntimeException("You are not a participant in this chat");
         }
         
-        List<ChatMessage> messages = chatMessageRepository.findByChatOrderByTimestampAsc(chat);
-        return messages.stream()
-                .map(this::convertToMessageDTO)
-                .collect(Collectors.toList());
+        // One extra row tells whether another page exists in the paging direction, an exists query on the
+        // cursor whether one exists behind it; only the returned page is decrypted
+        List<ChatMessage> messages;
+        boolean hasOlder;
+        boolean hasNewer;
+        if (afterId != null) {
+            messages = chatMessageRepository.findPageAfter(chatId, afterId, Limit.of(limit + 1));
+            hasNewer = messages.size() > limit;
+            hasOlder = chatMessageRepository.existsByChatIdAndIdLessThanEqual(chatId, afterId);
+            if (hasNewer) {
+                messages = messages.subList(0, limit);
+            }
+        } else {
+            messages = chatMessageRepository.findPageBefore(chatId, beforeId != null ? beforeId : Long.MAX_VALUE,
+                    Limit.of(limit + 1));
+            hasOlder = messages.size() > limit;
+            hasNewer = beforeId != null && chatMessageRepository.existsByChatIdAndIdGreaterThanEqual(chatId, beforeId);
+            if (hasOlder) {
+                messages = messages.subList(0, limit);
+            }
+            messages = new ArrayList<>(messages);
+            Collections.reverse(messages);
+        }
+        
+        return new ChatMessagePageDTO(convertToMessageDTOs(messages, getReadWatermarks(chatId)), hasOlder, hasNewer);
     }
     
     @Override
@@ -113,24 +147,23 @@ public class ChatServiceImpl implements ChatService {
 
         ChatMessage savedMessage = chatMessageRepository.save(message);
 
-        chat.setUpdatedAt(LocalDateTime.now());
-        chatRepository.save(chat);
+        // Keep the chat list columns current with set-based updates instead of saving the loaded chat
+        chatRepository.updateLastMessage(chatId, savedMessage.getId(), savedMessage.getContent(),
+                sender.getId(), savedMessage.getTimestamp());
+        chatParticipantRepository.incrementUnreadCounts(chatId, sender.getId());
 
-        ChatMessageDTO messageDTO = convertToMessageDTO(savedMessage);
+        // The plaintext is at hand, no need to decrypt what was just encrypted
+        ChatMessageDTO messageDTO = convertToMessageDTO(savedMessage, content, Map.of());
 
         // Broadcast message to chat topic for real-time delivery
         messagingTemplate.convertAndSend("/topic/chat/" + chatId, messageDTO);
 
-        // Broadcast unread count update to each participant (except sender)
-        for (User participant : chat.getParticipants()) {
-            if (!participant.getId().equals(sender.getId())) {
-                int unreadCount = chatMessageRepository.countTotalUnreadMessages(participant);
-                Map<String, Object> unreadUpdate = new HashMap<>();
-                unreadUpdate.put("unreadCount", unreadCount);
-                unreadUpdate.put("chatId", chatId);
-                messagingTemplate.convertAndSend("/topic/chat/unread/" + participant.getId(), unreadUpdate);
-            }
-        }
+        // Unread badge for each participant except the sender, from the in-memory counters
+        List<Long> recipientIds = chat.getParticipants().stream()
+                .map(User::getId)
+                .filter(id -> !id.equals(sender.getId()))
+                .collect(Collectors.toList());
+        unreadCounterService.messageSent(chatId, recipientIds);
 
         return messageDTO;
     }
@@ -138,48 +171,32 @@ public class ChatServiceImpl implements ChatService {
     @Override
     @Transactional
     public void markChatAsRead(Long chatId, User currentUser) {
-        Chat chat = chatRepository.findById(chatId)
-                .orElseThrow(() -> new RuntimeException("Chat not found with id: " + chatId));
-        
-        if (!chat.getParticipants().contains(currentUser)) {
+        // Locked before the counter is read: a concurrent sendMessage increments it either before this point
+        // or after commit, never between the two reads the badge delta is computed from
+        Long unreadBefore = chatParticipantRepository.findUnreadCountForUpdate(chatId, currentUser.getId());
+        if (unreadBefore == null) {
             throw new RuntimeException("You are not a participant in this chat");
         }
         
-        ChatMessage latestMessage = chatMessageRepository.findLatestMessageByChat(chat)
-                .orElse(null);
-                
-        if (latestMessage == null) {
+        Long latestMessageId = chatMessageRepository.findLatestMessageId(chatId);
+        if (latestMessageId == null) {
             return;
         }
         
-        List<ChatParticipant> participants = chatParticipantRepository.findByChatAndUser(chat, currentUser);
-        if (!participants.isEmpty()) {
-            ChatParticipant participant = participants.get(0);
-            participant.setLastReadMessageId(latestMessage.getId());
-            chatParticipantRepository.save(participant);
-        }
-        
-        List<ChatMessage> unreadMessages = chatMessageRepository.findByChatOrderByTimestampAsc(chat)
-                .stream()
-                .filter(msg -> !msg.getSender().equals(currentUser) && !msg.isRead())
-                .collect(Collectors.toList());
-                
-        for (ChatMessage message : unreadMessages) {
-            message.setRead(true);
-            chatMessageRepository.save(message);
+        // Read state is the watermark alone: one UPDATE however many messages it covers
+        if (chatParticipantRepository.advanceLastReadMessageId(chatId, currentUser.getId(), latestMessageId) == 0) {
+            return;
         }
 
         // Broadcast updated unread count to the user who marked as read
-        int unreadCount = chatMessageRepository.countTotalUnreadMessages(currentUser);
-        Map<String, Object> unreadUpdate = new HashMap<>();
-        unreadUpdate.put("unreadCount", unreadCount);
-        unreadUpdate.put("chatId", chatId);
-        messagingTemplate.convertAndSend("/topic/chat/unread/" + currentUser.getId(), unreadUpdate);
+        Long unreadAfter = chatParticipantRepository.findUnreadCount(chatId, currentUser.getId());
+        int delta = (int) ((unreadAfter != null ? unreadAfter : 0L) - unreadBefore);
+        unreadCounterService.chatRead(chatId, currentUser.getId(), delta);
     }
     
     @Override
     public int countUnreadMessages(User currentUser) {
-        return chatMessageRepository.countTotalUnreadMessages(currentUser);
+        return unreadCounterService.getUnreadCount(currentUser.getId());
     }
     
     @Override
@@ -195,7 +212,7 @@ public class ChatServiceImpl implements ChatService {
         
         List<Chat> existingChats = chatRepository.findByTwoParticipants(currentUser, otherUser);
         if (!existingChats.isEmpty()) {
-            return convertToDTO(existingChats.get(0), currentUser);
+            return loadChatDTO(existingChats.get(0).getId(), currentUser);
         }
         
         Chat chat = new Chat();
@@ -212,51 +229,111 @@ public class ChatServiceImpl implements ChatService {
         otherUserParticipant.setUser(otherUser);
         chatParticipantRepository.save(otherUserParticipant);
         
-        return convertToDTO(savedChat, currentUser);
+        return loadChatDTO(savedChat.getId(), currentUser);
+    }
+    
+    private ChatDTO loadChatDTO(Long chatId, User currentUser) {
+        return chatRepository.findChatListRow(currentUser, chatId)
+                .map(row -> convertToDTO(row, encryptionService.decrypt(row.getLastMessageContent()), currentUser))
+                .orElseThrow(() -> new RuntimeException("Chat not found with id: " + chatId));
+    }
+    
+    // Previews are decrypted in one batch
+    private List<ChatDTO> convertToDTOs(List<ChatListRow> rows, User currentUser) {
+        List<String> previews = encryptionService.decryptAll(rows.stream()
+                .map(ChatListRow::getLastMessageContent)
+                .collect(Collectors.toList()));
+        
+        List<ChatDTO> dtos = new ArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            dtos.add(convertToDTO(rows.get(i), previews.get(i), currentUser));
+        }
+        return dtos;
     }
     
-    private ChatDTO convertToDTO(Chat chat, User currentUser) {
+    // Built from the denormalized columns alone; preview is the decrypted last message
+    private ChatDTO convertToDTO(ChatListRow row, String preview, User currentUser) {
         ChatDTO dto = new ChatDTO();
-        dto.setId(chat.getId());
-        dto.setCreatedAt(chat.getCreatedAt());
-        dto.setUpdatedAt(chat.getUpdatedAt());
+        dto.setId(row.getChatId());
+        dto.setCreatedAt(row.getCreatedAt());
+        dto.setUpdatedAt(row.getUpdatedAt());
         
-        User otherParticipant = chat.getParticipants().stream()
-                .filter(user -> !user.equals(currentUser))
-                .findFirst()
-                .orElse(null);
-                
-        if (otherParticipant != null) {
+        if (row.getOtherUserId() != null) {
             UserDTO otherParticipantDTO = new UserDTO();
-            otherParticipantDTO.setId(otherParticipant.getId());
-            otherParticipantDTO.setName(otherParticipant.getName());
-            otherParticipantDTO.setEmail(otherParticipant.getEmail());
-            otherParticipantDTO.setRole(otherParticipant.getRole().name());
-            otherParticipantDTO.setOnline(userPresenceService.isUserOnline(otherParticipant.getId()));
-            otherParticipantDTO.setLastSeen(otherParticipant.getLastSeen());
+            otherParticipantDTO.setId(row.getOtherUserId());
+            otherParticipantDTO.setName(row.getOtherName());
+            otherParticipantDTO.setEmail(row.getOtherEmail());
+            otherParticipantDTO.setRole(row.getOtherRole() != null ? row.getOtherRole().name() : null);
+            otherParticipantDTO.setOnline(userPresenceService.isUserOnline(row.getOtherUserId()));
+            otherParticipantDTO.setLastSeen(userPresenceService.getLastSeen(row.getOtherUserId(), row.getOtherLastSeen()));
             dto.setOtherParticipant(otherParticipantDTO);
         }
         
-        ChatMessage latestMessage = chatMessageRepository.findLatestMessageByChat(chat)
-                .orElse(null);
-                
-        if (latestMessage != null) {
-            dto.setLastMessage(convertToMessageDTO(latestMessage));
+        if (row.getLastMessageId() != null) {
+            boolean sentByCurrentUser = currentUser.getId().equals(row.getLastMessageSenderId());
+            // Read once the participant who did not send it has read past it
+            Long recipientWatermark = sentByCurrentUser ? row.getOtherLastReadMessageId() : row.getLastReadMessageId();
+            
+            ChatMessageDTO lastMessage = new ChatMessageDTO();
+            lastMessage.setId(row.getLastMessageId());
+            lastMessage.setContent(preview);
+            lastMessage.setTimestamp(row.getLastMessageAt());
+            lastMessage.setRead(recipientWatermark != null && recipientWatermark >= row.getLastMessageId());
+            lastMessage.setSenderId(row.getLastMessageSenderId());
+            lastMessage.setSenderName(sentByCurrentUser ? currentUser.getName() : row.getOtherName());
+            dto.setLastMessage(lastMessage);
         }
         
-        int unreadCount = chatMessageRepository.countUnreadMessagesByChat(chat, currentUser);
-        dto.setHasUnread(unreadCount > 0);
+        dto.setUnreadCount(row.getUnreadCount());
+        dto.setHasUnread(row.getUnreadCount() > 0);
         
         return dto;
     }
     
-    private ChatMessageDTO convertToMessageDTO(ChatMessage message) {
+    // Last read message ID by participant ID
+    private Map<Long, Long> getReadWatermarks(Long chatId) {
+        Map<Long, Long> watermarks = new HashMap<>();
+        for (Object[] row : chatParticipantRepository.findReadWatermarks(chatId)) {
+            watermarks.merge((Long) row[0], row[1] != null ? (Long) row[1] : 0L, Math::max);
+        }
+        return watermarks;
+    }
+    
+    // A message is read once every participant other than its sender has read past it
+    private static boolean isRead(ChatMessage message, Map<Long, Long> watermarks) {
+        Long senderId = message.getSender() != null ? message.getSender().getId() : null;
+        boolean hasRecipient = false;
+        for (Map.Entry<Long, Long> entry : watermarks.entrySet()) {
+            if (entry.getKey().equals(senderId)) {
+                continue;
+            }
+            hasRecipient = true;
+            if (entry.getValue() < message.getId()) {
+                return false;
+            }
+        }
+        return hasRecipient;
+    }
+    
+    // Decrypts the contents in one batch, in parallel for long histories
+    private List<ChatMessageDTO> convertToMessageDTOs(List<ChatMessage> messages, Map<Long, Long> watermarks) {
+        List<String> contents = encryptionService.decryptAll(messages.stream()
+                .map(ChatMessage::getContent)
+                .collect(Collectors.toList()));
+        
+        List<ChatMessageDTO> dtos = new ArrayList<>(messages.size());
+        for (int i = 0; i < messages.size(); i++) {
+            dtos.add(convertToMessageDTO(messages.get(i), contents.get(i), watermarks));
+        }
+        return dtos;
+    }
+    
+    private ChatMessageDTO convertToMessageDTO(ChatMessage message, String content, Map<Long, Long> watermarks) {
         ChatMessageDTO dto = new ChatMessageDTO();
         dto.setId(message.getId());
-        // Decrypt message content when retrieving
-        dto.setContent(encryptionService.decrypt(message.getContent()));
+        dto.setContent(content);
         dto.setTimestamp(message.getTimestamp());
-        dto.setRead(message.isRead());
+        dto.setRead(isRead(message, watermarks));
 
         if (message.getSender() != null) {
             dto.setSenderId(message.getSender().getId());
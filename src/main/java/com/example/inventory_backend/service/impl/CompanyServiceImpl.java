@@ -22,6 +22,11 @@ public class CompanyServiceImpl implements CompanyService {
                 .orElseThrow(() -> new RuntimeException("Company not found with id: " + id));
     }
 
+    @Override
+    public Company getCompanyReference(Long id) {
+        return companyRepository.getReferenceById(id);
+    }
+
     @Override
     public Company saveCompany(Company company) {
         return companyRepository.save(company);
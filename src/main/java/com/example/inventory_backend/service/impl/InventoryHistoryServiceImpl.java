@@ -2,12 +2,12 @@ package com.example.inventory_backend.service.impl;
 
 import com.example.inventory_backend.dto.InventoryHistoryDTO;
 import com.example.inventory_backend.model.Company;
-import com.example.inventory_backend.model.Inventory;
 import com.example.inventory_backend.model.InventoryHistory;
 import com.example.inventory_backend.model.Product;
 import com.example.inventory_backend.repository.InventoryHistoryRepository;
-import com.example.inventory_backend.repository.InventoryRepository;
 import com.example.inventory_backend.service.InventoryHistoryService;
+import com.example.inventory_backend.service.InventoryHistoryWriter;
+import com.example.inventory_backend.service.StatsCounterService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
@@ -23,23 +23,26 @@ public class InventoryHistoryServiceImpl implements InventoryHistoryService {
     private InventoryHistoryRepository historyRepository;
     
     @Autowired
-    private InventoryRepository inventoryRepository;
+    private InventoryHistoryWriter historyWriter;
+    
+    @Autowired
+    private StatsCounterService statsCounterService;
     
     @Override
     public void recordInventoryState(Company company) {
-        int totalQuantity = calculateTotalQuantity(company);
+        int totalQuantity = statsCounterService.getTotalQuantity(company);
         
         InventoryHistory history = new InventoryHistory();
         history.setTimestamp(LocalDateTime.now());
         history.setTotalQuantity(totalQuantity);
         history.setCompany(company);
         
-        historyRepository.save(history);
+        historyWriter.submit(history);
     }
     
     @Override
     public void recordProductChange(Product product, Integer quantityChange, String reason, Company company) {
-        int totalQuantity = calculateTotalQuantity(company);
+        int totalQuantity = statsCounterService.getTotalQuantity(company);
         
         InventoryHistory history = new InventoryHistory();
         history.setTimestamp(LocalDateTime.now());
@@ -49,7 +52,7 @@ public class InventoryHistoryServiceImpl implements InventoryHistoryService {
         history.setChangeReason(reason);
         history.setCompany(company);
         
-        historyRepository.save(history);
+        historyWriter.submit(history);
     }
     
     @Override
@@ -79,10 +82,4 @@ public class InventoryHistoryServiceImpl implements InventoryHistoryService {
                 })
                 .collect(Collectors.toList());
     }
-    
-    private int calculateTotalQuantity(Company company) {
-        return inventoryRepository.findByCompany(company).stream()
-                .mapToInt(Inventory::getQuantity)
-                .sum();
-    }
 }
@@ -1,5 +1,6 @@
 package com.example.inventory_backend.service.impl;
 
+import com.example.inventory_backend.dto.InventoryDTO;
 import com.example.inventory_backend.model.Company;
 import com.example.inventory_backend.model.Inventory;
 import com.example.inventory_backend.model.Product;
@@ -7,12 +8,17 @@ import com.example.inventory_backend.repository.InventoryRepository;
 import com.example.inventory_backend.repository.ProductRepository;
 import com.example.inventory_backend.service.InventoryHistoryService;
 import com.example.inventory_backend.service.InventoryService;
+import com.example.inventory_backend.service.StatsCounterService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Service
 public class InventoryServiceImpl implements InventoryService {
@@ -23,6 +29,12 @@ public class InventoryServiceImpl implements InventoryService {
     @Autowired
     private InventoryHistoryService historyService;
     
+    @Autowired
+    private StatsCounterService statsCounterService;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
     @Autowired
     public InventoryServiceImpl(InventoryRepository inventoryRepository, ProductRepository productRepository) {
         this.inventoryRepository = inventoryRepository;
@@ -34,6 +46,16 @@ public class InventoryServiceImpl implements InventoryService {
         return inventoryRepository.findByCompany(company);
     }
     
+    @Override
+    public List<InventoryDTO> getAllInventoryDTOs(Company company) {
+        return inventoryRepository.findDTOsByCompanyId(company.getId());
+    }
+    
+    @Override
+    public Stream<Inventory> streamAllInventory(Company company) {
+        return inventoryRepository.streamByCompanyId(company.getId());
+    }
+    
     @Override
     public Inventory getInventoryById(Long id, Company company) {
         Inventory inventory = inventoryRepository.findById(id)
@@ -63,13 +85,31 @@ public class InventoryServiceImpl implements InventoryService {
         return inventoryRepository.findLowStockItemsByCompany(company);
     }
     
+    @Override
+    public List<InventoryDTO> getLowStockItemDTOs(Company company) {
+        return inventoryRepository.findLowStockDTOsByCompanyId(company.getId());
+    }
+    
     @Override
     public Inventory saveInventory(Inventory inventory, Company company) {
         boolean isNewInventory = inventory.getId() == null;
+        Integer previousQuantity = inventory.getPersistedQuantity();
+        Integer previousReorderLevel = inventory.getPersistedReorderLevel();
         inventory.setCompany(company);
         inventory.setLastUpdated(LocalDateTime.now());
         Inventory savedInventory = inventoryRepository.save(inventory);
         
+        BigDecimal price = savedInventory.getProduct() != null ? savedInventory.getProduct().getPrice() : null;
+        if (isNewInventory || previousQuantity != null) {
+            statsCounterService.inventoryChanged(company, previousQuantity, previousReorderLevel,
+                    savedInventory.getQuantity(), savedInventory.getReorderLevel(), price);
+        } else {
+            // Detached entity, the previous state is unknown
+            statsCounterService.invalidate(company);
+        }
+        savedInventory.setPersistedQuantity(savedInventory.getQuantity());
+        savedInventory.setPersistedReorderLevel(savedInventory.getReorderLevel());
+        
         if (isNewInventory) {
             historyService.recordProductChange(inventory.getProduct(), inventory.getQuantity(), "Initial inventory", company);
         } else {
@@ -82,25 +122,32 @@ public class InventoryServiceImpl implements InventoryService {
     @Override
     @Transactional
     public Inventory updateQuantity(Long productId, Integer quantityChange, Company company) {
-        Product product = productRepository.findById(productId)
-                .orElseThrow(() -> new RuntimeException("Product not found with id: " + productId));
+        Integer newQuantity = inventoryRepository
+                .applyQuantityDelta(productId, company.getId(), quantityChange, LocalDateTime.now())
+                .orElse(null);
         
-        if (!product.getCompany().getId().equals(company.getId())) {
-            throw new RuntimeException("Product not found with id: " + productId);
-        }
+        // An empty result means the row is missing or the delta would take the stock below zero.
+        // Reloading the row tells the two apart and gives the caller the updated state.
+        Inventory inventory = inventoryRepository.findByProductIdAndCompanyId(productId, company.getId())
+                .orElseThrow(() -> new RuntimeException("Inventory not found for product id: " + productId));
         
-        Inventory inventory = inventoryRepository.findByProduct(product)
-                .orElseThrow(() -> new RuntimeException("Inventory not found for product: " + product.getName()));
+        if (newQuantity == null) {
+            throw new IllegalArgumentException("Insufficient stock for product: " + inventory.getProduct().getName());
+        }
         
-        inventory.setQuantity(inventory.getQuantity() + quantityChange);
-        inventory.setLastUpdated(LocalDateTime.now());
+        // The native update bypasses the persistence context, so a row already loaded in this request
+        // (open-in-view) still holds the old quantity; the row stays locked by our update until commit
+        if (!newQuantity.equals(inventory.getQuantity())) {
+            entityManager.refresh(inventory);
+        }
         
-        Inventory updatedInventory = inventoryRepository.save(inventory);
+        statsCounterService.inventoryChanged(company, newQuantity - quantityChange, inventory.getReorderLevel(),
+                newQuantity, inventory.getReorderLevel(), inventory.getProduct().getPrice());
         
-        historyService.recordProductChange(product, quantityChange, 
+        historyService.recordProductChange(inventory.getProduct(), quantityChange, 
                 quantityChange > 0 ? "Stock increase" : "Stock decrease", company);
         
-        return updatedInventory;
+        return inventory;
     }
     
     @Override
@@ -125,6 +172,9 @@ public class InventoryServiceImpl implements InventoryService {
         
         inventoryRepository.deleteById(id);
         
+        statsCounterService.inventoryChanged(company, inventory.getQuantity(), inventory.getReorderLevel(),
+                null, null, product != null ? product.getPrice() : null);
+        
         historyService.recordProductChange(product, -inventory.getQuantity(), "Inventory deleted", company);
     }
 }
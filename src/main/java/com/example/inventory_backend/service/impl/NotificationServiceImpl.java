@@ -3,177 +3,238 @@ package com.example.inventory_backend.service.impl;
 import com.example.inventory_backend.dto.NotificationDTO;
 import com.example.inventory_backend.model.Company;
 import com.example.inventory_backend.model.Notification;
+import com.example.inventory_backend.model.NotificationCounter;
+import com.example.inventory_backend.model.NotificationReadState;
+import com.example.inventory_backend.model.NotificationReceipt;
 import com.example.inventory_backend.model.User;
+import com.example.inventory_backend.repository.NotificationCounterRepository;
+import com.example.inventory_backend.repository.NotificationReadStateRepository;
+import com.example.inventory_backend.repository.NotificationReceiptRepository;
 import com.example.inventory_backend.repository.NotificationRepository;
 import com.example.inventory_backend.repository.UserRepository;
+import com.example.inventory_backend.service.NotificationPushService;
 import com.example.inventory_backend.service.NotificationService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.Set;
 import java.util.stream.Collectors;
 
+// Company events are stored once and shared by every user of the company; each user's read state is a
+// watermark (NotificationReadState) plus receipts for notifications read or dismissed individually
 @Service
 public class NotificationServiceImpl implements NotificationService {
 
     @Autowired
     private NotificationRepository notificationRepository;
     
+    @Autowired
+    private NotificationReadStateRepository readStateRepository;
+    
+    @Autowired
+    private NotificationReceiptRepository receiptRepository;
+    
+    @Autowired
+    private NotificationCounterRepository counterRepository;
+    
     @Autowired
     private UserRepository userRepository;
     
+    @Autowired
+    private NotificationPushService pushService;
+    
     @Override
+    @Transactional
     public List<NotificationDTO> getUserNotifications(Long userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found with id: " + userId));
+        User user = getUser(userId);
+        NotificationReadState state = getReadState(user, false);
         
-        return notificationRepository.findByUserOrderByTimestampDesc(user).stream()
-                .map(this::convertToDTO)
+        Set<Long> readAbove = new HashSet<>(
+                receiptRepository.findReadNotificationIds(userId, state.getLastReadId()));
+        
+        return notificationRepository.findVisible(user.getCompany().getId(), userId, state.getFirstVisibleId()).stream()
+                .map(n -> convertToDTO(n, n.getId() <= state.getLastReadId() || readAbove.contains(n.getId())))
                 .collect(Collectors.toList());
     }
     
     @Override
+    @Transactional
     public List<NotificationDTO> getUnreadNotifications(Long userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found with id: " + userId));
+        User user = getUser(userId);
+        NotificationReadState state = getReadState(user, false);
         
-        return notificationRepository.findByUserAndReadOrderByTimestampDesc(user, false).stream()
-                .map(this::convertToDTO)
+        return notificationRepository.findUnread(user.getCompany().getId(), userId, state.getLastReadId()).stream()
+                .map(n -> convertToDTO(n, false))
                 .collect(Collectors.toList());
     }
     
     @Override
+    @Transactional
     public int countUnreadNotifications(Long userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found with id: " + userId));
-        
-        return notificationRepository.countByUserAndRead(user, false);
+        // Held in memory for connected users, otherwise computed from the read state counters
+        OptionalInt count = pushService.getUnreadCount(userId);
+        if (count.isEmpty()) {
+            getReadState(getUser(userId), false);
+            count = pushService.getUnreadCount(userId);
+        }
+        return count.orElse(0);
     }
     
     @Override
     @Transactional
-    public void markAsRead(Long notificationId) {
-        Notification notification = notificationRepository.findById(notificationId)
-                .orElseThrow(() -> new RuntimeException("Notification not found with id: " + notificationId));
+    public void markAsRead(Long notificationId, Long userId) {
+        User user = getUser(userId);
+        Notification notification = getVisibleNotification(notificationId, user);
+        NotificationReadState state = getReadState(user, true);
+        
+        if (notification.getId() <= state.getLastReadId()
+                || receiptRepository.findByUserIdAndNotificationId(userId, notificationId).isPresent()) {
+            return;
+        }
         
-        notification.setRead(true);
-        notificationRepository.save(notification);
+        NotificationReceipt receipt = new NotificationReceipt();
+        receipt.setUser(user);
+        receipt.setNotification(notification);
+        receipt.setDismissed(false);
+        receiptRepository.save(receipt);
+        state.setReadAbove(state.getReadAbove() + 1);
+        pushService.notificationRead(userId);
     }
     
     @Override
     @Transactional
     public void markAllAsRead(Long userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found with id: " + userId));
+        User user = getUser(userId);
+        NotificationReadState state = getReadState(user, true);
+        
+        // Publishers hold the counter row while inserting, so nothing below its last id is still in flight
+        Optional<NotificationCounter> counter = counterRepository.findById(user.getCompany().getId());
+        long lastId = counter.map(NotificationCounter::getLastId).orElse(0L);
+        
+        state.setLastReadId(Math.max(state.getLastReadId(), lastId));
+        state.setSharedSeen(counter.map(NotificationCounter::getSharedTotal).orElse(0L));
+        state.setPersonalSeen(state.getPersonalTotal());
+        state.setReadAbove(0);
+        receiptRepository.deleteReadByUserId(userId);
+        pushService.allNotificationsRead(userId);
+    }
+    
+    @Override
+    @Transactional
+    public void deleteNotification(Long notificationId, Long userId) {
+        // Shared rows belong to the whole company, so deleting only hides the notification for this user
+        User user = getUser(userId);
+        Notification notification = getVisibleNotification(notificationId, user);
+        NotificationReadState state = getReadState(user, true);
         
-        List<Notification> notifications = notificationRepository.findByUserAndReadOrderByTimestampDesc(user, false);
-        notifications.forEach(n -> n.setRead(true));
-        notificationRepository.saveAll(notifications);
+        Optional<NotificationReceipt> existing = receiptRepository.findByUserIdAndNotificationId(userId, notificationId);
+        if (existing.isPresent()) {
+            existing.get().setDismissed(true);
+            return;
+        }
+        
+        NotificationReceipt receipt = new NotificationReceipt();
+        receipt.setUser(user);
+        receipt.setNotification(notification);
+        receipt.setDismissed(true);
+        receiptRepository.save(receipt);
+        if (notification.getId() > state.getLastReadId()) {
+            state.setReadAbove(state.getReadAbove() + 1);
+            pushService.notificationRead(userId);
+        }
     }
     
     @Override
     @Transactional
-    public void deleteNotification(Long notificationId) {
-        notificationRepository.deleteById(notificationId);
+    public void initializeReadState(User user) {
+        readStateRepository.insertIfAbsent(user.getId(), user.getCompany().getId());
     }
     
     @Override
     @Transactional
     public void notifyNewProduct(Long productId, String productName, Company company) {
-        // Only notify users in the same company
-        List<User> users = userRepository.findByCompany(company);
+        Notification notification = new Notification();
+        notification.setTitle("New Product Added");
+        notification.setMessage("Product \"" + productName + "\" has been added to inventory");
+        notification.setType("info");
+        notification.setTimestamp(LocalDateTime.now());
+        notification.setEntityType("product");
+        notification.setEntityId(productId);
+        notification.setCompany(company);
         
-        for (User user : users) {
-            Notification notification = new Notification();
-            notification.setTitle("New Product Added");
-            notification.setMessage("Product \"" + productName + "\" has been added to inventory");
-            notification.setType("info");
-            notification.setTimestamp(LocalDateTime.now());
-            notification.setEntityType("product");
-            notification.setEntityId(productId);
-            notification.setUser(user);
-            notification.setCompany(company);
-            notification.setRead(false);
-            
-            notification.setIconName("ShoppingCart");
-            notification.setIconColor("#3498db");
-            notification.setAvatarColor("rgba(52, 152, 219, 0.2)");
-            notification.setBgColor("rgba(52, 152, 219, 0.1)");
-            notification.setBorderColor("rgba(52, 152, 219, 0.2)");
-            
-            notificationRepository.save(notification);
-        }
+        notification.setIconName("ShoppingCart");
+        notification.setIconColor("#3498db");
+        notification.setAvatarColor("rgba(52, 152, 219, 0.2)");
+        notification.setBgColor("rgba(52, 152, 219, 0.1)");
+        notification.setBorderColor("rgba(52, 152, 219, 0.2)");
+        
+        publishShared(notification);
     }
     
     @Override
     @Transactional
     public void notifyNewCategory(Long categoryId, String categoryName, Company company) {
-        List<User> users = userRepository.findByCompany(company);
+        Notification notification = new Notification();
+        notification.setTitle("New Category Added");
+        notification.setMessage("Category \"" + categoryName + "\" has been created");
+        notification.setType("info");
+        notification.setTimestamp(LocalDateTime.now());
+        notification.setEntityType("category");
+        notification.setEntityId(categoryId);
+        notification.setCompany(company);
         
-        for (User user : users) {
-            Notification notification = new Notification();
-            notification.setTitle("New Category Added");
-            notification.setMessage("Category \"" + categoryName + "\" has been created");
-            notification.setType("info");
-            notification.setTimestamp(LocalDateTime.now());
-            notification.setEntityType("category");
-            notification.setEntityId(categoryId);
-            notification.setUser(user);
-            notification.setCompany(company);
-            notification.setRead(false);
-            
-            notification.setIconName("Category");
-            notification.setIconColor("#2ecc71");
-            notification.setAvatarColor("rgba(46, 204, 113, 0.2)");
-            notification.setBgColor("rgba(46, 204, 113, 0.1)");
-            notification.setBorderColor("rgba(46, 204, 113, 0.2)");
-            
-            notificationRepository.save(notification);
-        }
+        notification.setIconName("Category");
+        notification.setIconColor("#2ecc71");
+        notification.setAvatarColor("rgba(46, 204, 113, 0.2)");
+        notification.setBgColor("rgba(46, 204, 113, 0.1)");
+        notification.setBorderColor("rgba(46, 204, 113, 0.2)");
+        
+        publishShared(notification);
     }
     
     @Override
     @Transactional
     public void notifyNewSupplier(Long supplierId, String supplierName, Company company) {
-        List<User> users = userRepository.findByCompany(company);
+        Notification notification = new Notification();
+        notification.setTitle("New Supplier Added");
+        notification.setMessage("Supplier \"" + supplierName + "\" has been added");
+        notification.setType("info");
+        notification.setTimestamp(LocalDateTime.now());
+        notification.setEntityType("supplier");
+        notification.setEntityId(supplierId);
+        notification.setCompany(company);
         
-        for (User user : users) {
-            Notification notification = new Notification();
-            notification.setTitle("New Supplier Added");
-            notification.setMessage("Supplier \"" + supplierName + "\" has been added");
-            notification.setType("info");
-            notification.setTimestamp(LocalDateTime.now());
-            notification.setEntityType("supplier");
-            notification.setEntityId(supplierId);
-            notification.setUser(user);
-            notification.setCompany(company);
-            notification.setRead(false);
-            
-            notification.setIconName("LocalShipping");
-            notification.setIconColor("#9b59b6");
-            notification.setAvatarColor("rgba(155, 89, 182, 0.2)");
-            notification.setBgColor("rgba(155, 89, 182, 0.1)");
-            notification.setBorderColor("rgba(155, 89, 182, 0.2)");
-            
-            notificationRepository.save(notification);
-        }
+        notification.setIconName("LocalShipping");
+        notification.setIconColor("#9b59b6");
+        notification.setAvatarColor("rgba(155, 89, 182, 0.2)");
+        notification.setBgColor("rgba(155, 89, 182, 0.1)");
+        notification.setBorderColor("rgba(155, 89, 182, 0.2)");
+        
+        publishShared(notification);
     }
     
     @Override
     @Transactional
     public void notifyNewUser(Long userId, String userName, String role, Company company) {
-        // Only notify admins in the same company
+        // Only notify admins in the same company; admins are few, so each gets a personal row.
+        // Sorted so that concurrent publishers lock read states in the same order.
         List<User> admins = userRepository.findByCompany(company).stream()
-                .filter(u -> u.getRole() == User.Role.ADMIN)
+                .filter(u -> u.getRole() == User.Role.ADMIN && !u.getId().equals(userId))
+                .sorted(Comparator.comparing(User::getId))
                 .collect(Collectors.toList());
+        if (admins.isEmpty()) {
+            return;
+        }
         
+        reserve(company.getId(), 0);
         for (User admin : admins) {
-            if (admin.getId().equals(userId)) {
-                continue;
-            }
-            
             Notification notification = new Notification();
             notification.setTitle("New User Account");
             notification.setMessage("User \"" + userName + "\" has been created with " + role + " role");
@@ -183,7 +244,6 @@ public class NotificationServiceImpl implements NotificationService {
             notification.setEntityId(userId);
             notification.setUser(admin);
             notification.setCompany(company);
-            notification.setRead(false);
             
             notification.setIconName("Person");
             notification.setIconColor("#e74c3c");
@@ -191,11 +251,78 @@ public class NotificationServiceImpl implements NotificationService {
             notification.setBgColor("rgba(231, 76, 60, 0.1)");
             notification.setBorderColor("rgba(231, 76, 60, 0.2)");
             
-            notificationRepository.save(notification);
+            readStateRepository.insertIfAbsent(admin.getId(), company.getId());
+            readStateRepository.incrementPersonalTotal(admin.getId());
+            Notification saved = notificationRepository.save(notification);
+            counterRepository.updateLastId(company.getId(), saved.getId());
+            pushService.personalNotificationCreated(admin.getId(), convertToDTO(saved, false));
+        }
+    }
+    
+    @Override
+    @Transactional
+    public void notifyProductImport(int created, int updated, int failed, Company company) {
+        // One summary for the whole file instead of a notification per imported product
+        Notification notification = new Notification();
+        notification.setTitle("Product Import Completed");
+        notification.setMessage("Product import finished: " + created + " added, " + updated + " updated"
+                + (failed > 0 ? ", " + failed + " rows failed" : ""));
+        notification.setType("info");
+        notification.setTimestamp(LocalDateTime.now());
+        notification.setEntityType("product");
+        notification.setCompany(company);
+        
+        notification.setIconName("ShoppingCart");
+        notification.setIconColor("#3498db");
+        notification.setAvatarColor("rgba(52, 152, 219, 0.2)");
+        notification.setBgColor("rgba(52, 152, 219, 0.1)");
+        notification.setBorderColor("rgba(52, 152, 219, 0.2)");
+        
+        publishShared(notification);
+    }
+    
+    // One row for the whole company, counted against every user's watermark
+    private void publishShared(Notification notification) {
+        Long companyId = notification.getCompany().getId();
+        reserve(companyId, 1);
+        Notification saved = notificationRepository.save(notification);
+        counterRepository.updateLastId(companyId, saved.getId());
+        pushService.sharedNotificationCreated(companyId, convertToDTO(saved, false));
+    }
+    
+    // Locks the company's counter row until commit
+    private void reserve(Long companyId, int sharedCount) {
+        counterRepository.insertIfAbsent(companyId);
+        counterRepository.reserve(companyId, sharedCount);
+    }
+    
+    private User getUser(Long userId) {
+        return userRepository.findById(userId)
+                .orElseThrow(() -> new RuntimeException("User not found with id: " + userId));
+    }
+    
+    // Read state is created on first use for users that predate it
+    private NotificationReadState getReadState(User user, boolean forUpdate) {
+        Optional<NotificationReadState> state = findReadState(user.getId(), forUpdate);
+        if (state.isEmpty()) {
+            readStateRepository.insertIfAbsent(user.getId(), user.getCompany().getId());
+            state = findReadState(user.getId(), forUpdate);
         }
+        return state.orElseThrow(() -> new RuntimeException("Notification state not found for user: " + user.getId()));
+    }
+    
+    private Optional<NotificationReadState> findReadState(Long userId, boolean forUpdate) {
+        return forUpdate ? readStateRepository.findByIdForUpdate(userId) : readStateRepository.findById(userId);
+    }
+    
+    private Notification getVisibleNotification(Long notificationId, User user) {
+        return notificationRepository.findById(notificationId)
+                .filter(n -> n.getCompany().getId().equals(user.getCompany().getId()))
+                .filter(n -> n.getUser() == null || n.getUser().getId().equals(user.getId()))
+                .orElseThrow(() -> new RuntimeException("Notification not found with id: " + notificationId));
     }
     
-    private NotificationDTO convertToDTO(Notification notification) {
+    private NotificationDTO convertToDTO(Notification notification, boolean read) {
         NotificationDTO dto = new NotificationDTO();
         dto.setId(notification.getId());
         dto.setTitle(notification.getTitle());
@@ -209,7 +336,7 @@ public class NotificationServiceImpl implements NotificationService {
         dto.setAvatarColor(notification.getAvatarColor());
         dto.setBgColor(notification.getBgColor());
         dto.setBorderColor(notification.getBorderColor());
-        dto.setRead(notification.isRead());
+        dto.setRead(read);
         return dto;
     }
 }
@@ -1,5 +1,6 @@
 package com.example.inventory_backend.service.impl;
 
+import com.example.inventory_backend.dto.ProductDTO;
 import com.example.inventory_backend.model.Category;
 import com.example.inventory_backend.model.Company;
 import com.example.inventory_backend.model.Product;
@@ -9,12 +10,14 @@ import com.example.inventory_backend.repository.ProductRepository;
 import com.example.inventory_backend.repository.InventoryHistoryRepository;
 import com.example.inventory_backend.repository.TransactionRepository;
 import com.example.inventory_backend.service.ProductService;
+import com.example.inventory_backend.service.StatsCounterService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Service
 public class ProductServiceImpl implements ProductService {
@@ -24,6 +27,9 @@ public class ProductServiceImpl implements ProductService {
     private final InventoryHistoryRepository inventoryHistoryRepository;
     private final TransactionRepository transactionRepository;
     
+    @Autowired
+    private StatsCounterService statsCounterService;
+    
     @Autowired
     public ProductServiceImpl(ProductRepository productRepository, 
                               InventoryRepository inventoryRepository,
@@ -40,6 +46,16 @@ public class ProductServiceImpl implements ProductService {
         return productRepository.findByCompany(company);
     }
     
+    @Override
+    public List<ProductDTO> getAllProductDTOs(Company company) {
+        return productRepository.findDTOsByCompanyId(company.getId());
+    }
+    
+    @Override
+    public Stream<Product> streamAllProducts(Company company) {
+        return productRepository.streamByCompanyId(company.getId());
+    }
+    
     @Override
     public Product getProductById(Long id, Company company) {
         Product product = productRepository.findById(id)
@@ -80,8 +96,21 @@ public class ProductServiceImpl implements ProductService {
     
     @Override
     public Product saveProduct(Product product, Company company) {
+        boolean isNewProduct = product.getId() == null;
+        boolean priceChanged = !isNewProduct && (product.getPersistedPrice() == null || product.getPrice() == null
+                || product.getPersistedPrice().compareTo(product.getPrice()) != 0);
         product.setCompany(company);
-        return productRepository.save(product);
+        Product savedProduct = productRepository.save(product);
+        
+        if (isNewProduct) {
+            statsCounterService.productAdded(company);
+        } else if (priceChanged) {
+            // Revalues the product's stock, which is cheaper to recount than to track here
+            statsCounterService.invalidate(company);
+        }
+        savedProduct.setPersistedPrice(savedProduct.getPrice());
+        
+        return savedProduct;
     }
     
     @Override
@@ -92,9 +121,13 @@ public class ProductServiceImpl implements ProductService {
         // Delete all related records first
         inventoryHistoryRepository.deleteByProductId(product.getId());
         transactionRepository.deleteByProductId(product.getId());
+        inventoryRepository.findByProduct(product)
+                .ifPresent(inventory -> statsCounterService.inventoryChanged(company,
+                        inventory.getQuantity(), inventory.getReorderLevel(), null, null, product.getPrice()));
         inventoryRepository.deleteByProductId(product.getId());
         
         // Now delete the product
         productRepository.deleteById(product.getId());
+        statsCounterService.productRemoved(company);
     }
 }
\ No newline at end of file
@@ -4,16 +4,21 @@ import com.example.inventory_backend.model.Company;
 import com.example.inventory_backend.model.Supplier;
 import com.example.inventory_backend.repository.SupplierRepository;
 import com.example.inventory_backend.service.SupplierService;
+import com.example.inventory_backend.service.StatsCounterService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 @Service
 public class SupplierServiceImpl implements SupplierService {
 
     private final SupplierRepository supplierRepository;
     
+    @Autowired
+    private StatsCounterService statsCounterService;
+    
     @Autowired
     public SupplierServiceImpl(SupplierRepository supplierRepository) {
         this.supplierRepository = supplierRepository;
@@ -24,6 +29,11 @@ public class SupplierServiceImpl implements SupplierService {
         return supplierRepository.findByCompany(company);
     }
     
+    @Override
+    public Stream<Supplier> streamAllSuppliers(Company company) {
+        return supplierRepository.streamByCompanyId(company.getId());
+    }
+    
     @Override
     public Supplier getSupplierById(Long id, Company company) {
         Supplier supplier = supplierRepository.findById(id)
@@ -43,13 +53,21 @@ public class SupplierServiceImpl implements SupplierService {
     
     @Override
     public Supplier saveSupplier(Supplier supplier, Company company) {
+        boolean isNewSupplier = supplier.getId() == null;
         supplier.setCompany(company);
-        return supplierRepository.save(supplier);
+        Supplier savedSupplier = supplierRepository.save(supplier);
+        
+        if (isNewSupplier) {
+            statsCounterService.supplierAdded(company);
+        }
+        
+        return savedSupplier;
     }
     
     @Override
     public void deleteSupplier(Long id, Company company) {
         Supplier supplier = getSupplierById(id, company);
         supplierRepository.deleteById(supplier.getId());
+        statsCounterService.supplierRemoved(company);
     }
 }
@@ -1,22 +1,41 @@
 package com.example.inventory_backend.service.impl;
 
+import com.example.inventory_backend.dto.CursorPageDTO;
+import com.example.inventory_backend.dto.TransactionBatchItemResultDTO;
+import com.example.inventory_backend.dto.TransactionBatchRequestDTO;
+import com.example.inventory_backend.dto.TransactionBatchResponseDTO;
 import com.example.inventory_backend.dto.TransactionDTO;
+import com.example.inventory_backend.dto.TransactionFilterDTO;
 import com.example.inventory_backend.model.Company;
 import com.example.inventory_backend.model.Transaction;
 import com.example.inventory_backend.model.Product;
 import com.example.inventory_backend.model.User;
+import com.example.inventory_backend.repository.InventoryRepository;
 import com.example.inventory_backend.repository.TransactionRepository;
 import com.example.inventory_backend.repository.ProductRepository;
 import com.example.inventory_backend.repository.UserRepository;
 import com.example.inventory_backend.service.TransactionService;
+import com.example.inventory_backend.service.InventoryHistoryService;
 import com.example.inventory_backend.service.InventoryService;
+import com.example.inventory_backend.service.StatsCounterService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class TransactionServiceImpl implements TransactionService {
@@ -32,12 +51,60 @@ public class TransactionServiceImpl implements TransactionService {
     
     @Autowired
     private InventoryService inventoryService;
+    
+    @Autowired
+    private InventoryRepository inventoryRepository;
+    
+    @Autowired
+    private InventoryHistoryService historyService;
+    
+    @Autowired
+    private StatsCounterService statsCounterService;
 
     @Override
     public List<Transaction> getAllTransactions(Company company) {
         return transactionRepository.findByCompany(company);
     }
 
+    @Override
+    public List<TransactionDTO> getAllTransactionDTOs(Company company) {
+        return transactionRepository.findDTOsByCompanyId(company.getId());
+    }
+
+    @Override
+    public Stream<Transaction> streamAllTransactions(Company company) {
+        return transactionRepository.streamByCompanyId(company.getId());
+    }
+
+    @Override
+    public Stream<Transaction> streamTransactions(TransactionFilterDTO filter, Company company) {
+        return transactionRepository.streamFiltered(company.getId(), filter);
+    }
+
+    @Override
+    public CursorPageDTO<Transaction> getTransactionPage(TransactionFilterDTO filter, String cursor, int limit,
+                                                         Company company) {
+        LocalDateTime afterDate = null;
+        Long afterId = null;
+        if (cursor != null && !cursor.isBlank()) {
+            Object[] position = decodeCursor(cursor);
+            afterDate = (LocalDateTime) position[0];
+            afterId = (Long) position[1];
+        }
+        
+        // Fetch one extra row to know whether another page exists
+        List<Transaction> transactions = transactionRepository.findPage(company.getId(), filter, afterDate, afterId, limit + 1);
+        
+        String nextCursor = null;
+        if (transactions.size() > limit) {
+            transactions = transactions.subList(0, limit);
+            Transaction last = transactions.get(limit - 1);
+            nextCursor = encodeCursor(last.getTransactionDate(), last.getId());
+        }
+        
+        return new CursorPageDTO<>(transactions, nextCursor);
+    }
+
     @Override
     public Transaction getTransactionById(Long id, Company company) {
         Transaction transaction = transactionRepository.findById(id)
@@ -75,8 +142,6 @@ public class TransactionServiceImpl implements TransactionService {
     @Override
     @Transactional
     public Transaction saveTransaction(TransactionDTO transactionDTO, Company company) {
-        Transaction transaction = new Transaction();
-        
         Product product = productRepository.findById(transactionDTO.getProductId())
                 .orElseThrow(() -> new RuntimeException("Product not found with id: " + transactionDTO.getProductId()));
         
@@ -84,13 +149,149 @@ public class TransactionServiceImpl implements TransactionService {
             throw new RuntimeException("Product not found with id: " + transactionDTO.getProductId());
         }
         
+        // Stock for SALEs is checked by the conditional update in updateInventory, not by a separate read
         Transaction.TransactionType type = Transaction.TransactionType.valueOf(transactionDTO.getTransactionType());
-        if (type == Transaction.TransactionType.SALE) {
-            if (!inventoryService.isInStock(product.getId(), transactionDTO.getQuantity(), company)) {
-                throw new IllegalArgumentException("Insufficient stock for product: " + product.getName());
+        
+        User user = null;
+        if (transactionDTO.getUserId() != null) {
+            user = userRepository.findById(transactionDTO.getUserId())
+                    .orElseThrow(() -> new RuntimeException("User not found with id: " + transactionDTO.getUserId()));
+        }
+        
+        Transaction transaction = buildTransaction(transactionDTO, type, product, user, company);
+        
+        updateInventory(transaction, company);
+        
+        return transactionRepository.save(transaction);
+    }
+
+    @Override
+    @Transactional
+    public TransactionBatchResponseDTO saveTransactions(List<TransactionDTO> transactionDTOs,
+                                                        TransactionBatchRequestDTO.Mode mode, Company company) {
+        int size = transactionDTOs.size();
+        TransactionBatchItemResultDTO[] results = new TransactionBatchItemResultDTO[size];
+        Transaction.TransactionType[] types = new Transaction.TransactionType[size];
+        
+        // Validate every item up front so bad input never reaches the database
+        Set<Long> productIds = new HashSet<>();
+        Set<Long> userIds = new HashSet<>();
+        for (int i = 0; i < size; i++) {
+            TransactionDTO dto = transactionDTOs.get(i);
+            String error = validateBatchItem(dto);
+            if (error != null) {
+                results[i] = TransactionBatchItemResultDTO.failed(i, error);
+                continue;
+            }
+            types[i] = Transaction.TransactionType.valueOf(dto.getTransactionType());
+            productIds.add(dto.getProductId());
+            if (dto.getUserId() != null) {
+                userIds.add(dto.getUserId());
+            }
+        }
+        
+        // One query each for all referenced products and users
+        Map<Long, Product> products = productIds.isEmpty() ? Map.of() :
+                productRepository.findByIdInAndCompanyId(productIds, company.getId()).stream()
+                        .collect(Collectors.toMap(Product::getId, Function.identity()));
+        Map<Long, User> users = userIds.isEmpty() ? Map.of() :
+                userRepository.findByIdInAndCompanyId(userIds, company.getId()).stream()
+                        .collect(Collectors.toMap(User::getId, Function.identity()));
+        
+        // Lock the affected inventory rows, then replay the batch in order against the locked quantities
+        Map<Long, Integer> available = products.isEmpty() ? Map.of() :
+                inventoryRepository.lockQuantities(company.getId(), products.keySet());
+        Map<Long, Integer> deltas = new LinkedHashMap<>();
+        List<Transaction> accepted = new ArrayList<>();
+        List<Integer> acceptedIndexes = new ArrayList<>();
+        
+        for (int i = 0; i < size; i++) {
+            if (results[i] != null) {
+                continue;
+            }
+            
+            TransactionDTO dto = transactionDTOs.get(i);
+            Product product = products.get(dto.getProductId());
+            if (product == null) {
+                results[i] = TransactionBatchItemResultDTO.failed(i, "Product not found with id: " + dto.getProductId());
+                continue;
+            }
+            
+            User user = null;
+            if (dto.getUserId() != null) {
+                user = users.get(dto.getUserId());
+                if (user == null) {
+                    results[i] = TransactionBatchItemResultDTO.failed(i, "User not found with id: " + dto.getUserId());
+                    continue;
+                }
+            }
+            
+            int quantityChange = quantityChange(types[i], dto.getQuantity());
+            if (quantityChange != 0) {
+                Integer quantity = available.get(product.getId());
+                if (quantity == null) {
+                    results[i] = TransactionBatchItemResultDTO.failed(i, "Inventory not found for product id: " + product.getId());
+                    continue;
+                }
+                if (quantity + quantityChange < 0) {
+                    results[i] = TransactionBatchItemResultDTO.failed(i, "Insufficient stock for product: " + product.getName());
+                    continue;
+                }
+                available.put(product.getId(), quantity + quantityChange);
+                deltas.merge(product.getId(), quantityChange, Integer::sum);
+            }
+            
+            accepted.add(buildTransaction(dto, types[i], product, user, company));
+            acceptedIndexes.add(i);
+        }
+        
+        if (mode == TransactionBatchRequestDTO.Mode.ALL_OR_NOTHING && accepted.size() < size) {
+            // Nothing has been written, committing only releases the row locks
+            for (int i : acceptedIndexes) {
+                results[i] = TransactionBatchItemResultDTO.failed(i, "Not saved because other items in the batch failed");
+            }
+            return batchResponse(results, 0);
+        }
+        
+        // Transactions that cancel each other out leave the row untouched
+        deltas.values().removeIf(delta -> delta == 0);
+        if (!deltas.isEmpty()) {
+            int updated = inventoryRepository.applyQuantityDeltas(company.getId(), deltas, LocalDateTime.now());
+            if (updated != deltas.size()) {
+                throw new IllegalStateException("Inventory changed while applying transaction batch");
             }
         }
+        
+        transactionRepository.insertBatch(accepted);
+        for (int k = 0; k < accepted.size(); k++) {
+            int i = acceptedIndexes.get(k);
+            results[i] = TransactionBatchItemResultDTO.saved(i, accepted.get(k).getId());
+        }
+        
+        // Low-stock transitions are not known for the bulk update, so the counters are recounted
+        if (!deltas.isEmpty()) {
+            statsCounterService.invalidate(company);
+        }
+        
+        // One history record per product for its net change
+        for (Map.Entry<Long, Integer> entry : deltas.entrySet()) {
+            int delta = entry.getValue();
+            historyService.recordProductChange(products.get(entry.getKey()), delta,
+                    delta > 0 ? "Stock increase" : "Stock decrease", company);
+        }
+        
+        return batchResponse(results, accepted.size());
+    }
 
+    @Override
+    public void deleteTransaction(Long id, Company company) {
+        Transaction transaction = getTransactionById(id, company);
+        transactionRepository.deleteById(transaction.getId());
+    }
+    
+    private Transaction buildTransaction(TransactionDTO transactionDTO, Transaction.TransactionType type,
+                                         Product product, User user, Company company) {
+        Transaction transaction = new Transaction();
         transaction.setProduct(product);
         transaction.setType(type);
         transaction.setQuantity(transactionDTO.getQuantity());
@@ -109,44 +310,90 @@ public class TransactionServiceImpl implements TransactionService {
         transaction.setNotes(transactionDTO.getNotes());
         transaction.setReferenceNumber(transactionDTO.getReferenceNumber());
         transaction.setCompany(company);
-        
-        if (transactionDTO.getUserId() != null) {
-            User user = userRepository.findById(transactionDTO.getUserId())
-                    .orElseThrow(() -> new RuntimeException("User not found with id: " + transactionDTO.getUserId()));
-            transaction.setCreatedBy(user);
+        transaction.setCreatedBy(user);
+        return transaction;
+    }
+    
+    private String encodeCursor(LocalDateTime transactionDate, Long id) {
+        String position = transactionDate + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    private Object[] decodeCursor(String cursor) {
+        try {
+            String position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = position.indexOf('|');
+            return new Object[] {
+                    LocalDateTime.parse(position.substring(0, separator)),
+                    Long.parseLong(position.substring(separator + 1))
+            };
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor, e);
+        }
+    }
+    
+    private TransactionBatchResponseDTO batchResponse(TransactionBatchItemResultDTO[] results, int saved) {
+        TransactionBatchResponseDTO response = new TransactionBatchResponseDTO();
+        response.setReceived(results.length);
+        response.setSaved(saved);
+        response.setFailed(results.length - saved);
+        response.setResults(Arrays.asList(results));
+        return response;
+    }
+    
+    private String validateBatchItem(TransactionDTO dto) {
+        if (dto == null) {
+            return "Transaction is empty";
+        }
+        if (dto.getProductId() == null) {
+            return "Product id is required";
+        }
+        if (dto.getQuantity() == null) {
+            return "Quantity is required";
+        }
+        if (dto.getTransactionType() == null) {
+            return "Transaction type is required";
         }
         
-        updateInventory(transaction, company);
+        Transaction.TransactionType type;
+        try {
+            type = Transaction.TransactionType.valueOf(dto.getTransactionType());
+        } catch (IllegalArgumentException e) {
+            return "Unknown transaction type: " + dto.getTransactionType();
+        }
         
-        return transactionRepository.save(transaction);
-    }
-
-    @Override
-    public void deleteTransaction(Long id, Company company) {
-        Transaction transaction = getTransactionById(id, company);
-        transactionRepository.deleteById(transaction.getId());
+        if (type != Transaction.TransactionType.ADJUSTMENT && dto.getQuantity() <= 0) {
+            return "Quantity must be positive";
+        }
+        return null;
     }
     
     private void updateInventory(Transaction transaction, Company company) {
+        int quantityChange = quantityChange(transaction.getType(), transaction.getQuantity());
+        
+        if (quantityChange != 0) {
+            inventoryService.updateQuantity(transaction.getProduct().getId(), quantityChange, company);
+        }
+    }
+    
+    private int quantityChange(Transaction.TransactionType type, int quantity) {
         int quantityChange = 0;
         
-        switch (transaction.getType()) {
+        switch (type) {
             case PURCHASE:
             case RETURN:
-                quantityChange = transaction.getQuantity();
+                quantityChange = quantity;
                 break;
             case SALE:
-                quantityChange = -transaction.getQuantity();
+                quantityChange = -quantity;
                 break;
             case ADJUSTMENT:
-                quantityChange = transaction.getQuantity();
+                quantityChange = quantity;
                 break;
             case TRANSFER:
                 break;
         }
         
-        if (quantityChange != 0) {
-            inventoryService.updateQuantity(transaction.getProduct().getId(), quantityChange, company);
-        }
+        return quantityChange;
     }
 }
@@ -3,6 +3,8 @@ package com.example.inventory_backend.service.impl;
 import com.example.inventory_backend.model.Company;
 import com.example.inventory_backend.model.User;
 import com.example.inventory_backend.repository.UserRepository;
+import com.example.inventory_backend.security.TokenVersionService;
+import com.example.inventory_backend.service.NotificationService;
 import com.example.inventory_backend.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -13,10 +15,15 @@ import java.util.List;
 public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
+    private final NotificationService notificationService;
+    private final TokenVersionService tokenVersionService;
     
     @Autowired
-    public UserServiceImpl(UserRepository userRepository) {
+    public UserServiceImpl(UserRepository userRepository, NotificationService notificationService,
+                           TokenVersionService tokenVersionService) {
         this.userRepository = userRepository;
+        this.notificationService = notificationService;
+        this.tokenVersionService = tokenVersionService;
     }
     
     @Override
@@ -48,7 +55,13 @@ public class UserServiceImpl implements UserService {
     
     @Override
     public User createUser(User user) {
-        return userRepository.save(user);
+        boolean isNew = user.getId() == null;
+        User savedUser = userRepository.save(user);
+        if (isNew) {
+            // New users see notifications from now on, not the company's history
+            notificationService.initializeReadState(savedUser);
+        }
+        return savedUser;
     }
     
     @Override
@@ -58,13 +71,21 @@ public class UserServiceImpl implements UserService {
         existingUser.setName(user.getName());
         existingUser.setEmail(user.getEmail());
         
+        // Tokens carry the role and are tied to the password, so outstanding ones are revoked on either change
+        boolean revoke = existingUser.getRole() != user.getRole();
         if (user.getPassword() != null && !user.getPassword().isEmpty()) {
             existingUser.setPassword(user.getPassword());
+            revoke = true;
         }
         
         existingUser.setRole(user.getRole());
+        if (revoke) {
+            tokenVersionService.revoke(existingUser);
+        }
         
-        return userRepository.save(existingUser);
+        User savedUser = userRepository.save(existingUser);
+        tokenVersionService.evict(savedUser.getId());
+        return savedUser;
     }
     
     @Override
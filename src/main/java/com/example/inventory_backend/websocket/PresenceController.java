@@ -1,9 +1,11 @@
 package com.example.inventory_backend.websocket;
 
-import com.example.inventory_backend.repository.UserRepository;
+import com.example.inventory_backend.security.StompAuthenticationToken;
+import com.example.inventory_backend.security.UserDetailsImpl;
 import com.example.inventory_backend.service.UserPresenceService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.messaging.handler.annotation.MessageMapping;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
 import org.springframework.stereotype.Controller;
 
 import java.security.Principal;
@@ -14,14 +16,13 @@ public class PresenceController {
     @Autowired
     private UserPresenceService userPresenceService;
 
-    @Autowired
-    private UserRepository userRepository;
-
     @MessageMapping("/presence/heartbeat")
-    public void heartbeat(Principal principal) {
-        if (principal != null) {
-            String email = principal.getName();
-            userRepository.findByEmail(email).ifPresent(userPresenceService::updateHeartbeat);
+    public void heartbeat(Principal principal, SimpMessageHeaderAccessor headerAccessor) {
+        // The principal is named by user ID (see StompAuthenticationToken), not by email
+        if (principal instanceof StompAuthenticationToken token
+                && token.getPrincipal() instanceof UserDetailsImpl userDetails
+                && userDetails.getCompanyId() != null) {
+            userPresenceService.sessionHeartbeat(headerAccessor.getSessionId(), userDetails.getId(), userDetails.getCompanyId());
         }
     }
 }
@@ -1,15 +1,14 @@
 package com.example.inventory_backend.websocket;
 
-import com.example.inventory_backend.model.User;
-import com.example.inventory_backend.repository.UserRepository;
+import com.example.inventory_backend.security.StompAuthenticationToken;
 import com.example.inventory_backend.security.UserDetailsImpl;
+import com.example.inventory_backend.service.NotificationPushService;
 import com.example.inventory_backend.service.UserPresenceService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.event.EventListener;
 import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.stereotype.Component;
 import org.springframework.web.socket.messaging.SessionConnectedEvent;
 import org.springframework.web.socket.messaging.SessionDisconnectEvent;
@@ -25,7 +24,7 @@ public class WebSocketEventListener {
     private UserPresenceService userPresenceService;
 
     @Autowired
-    private UserRepository userRepository;
+    private NotificationPushService notificationPushService;
 
     @EventListener
     public void handleWebSocketConnectListener(SessionConnectedEvent event) {
@@ -34,32 +33,13 @@ public class WebSocketEventListener {
 
         logger.debug("WebSocket connect event received. Principal: {}", principal);
 
-        if (principal != null) {
-            String email = null;
-
-            // Extract email from the authentication token
-            if (principal instanceof UsernamePasswordAuthenticationToken) {
-                UsernamePasswordAuthenticationToken auth = (UsernamePasswordAuthenticationToken) principal;
-                Object principalObj = auth.getPrincipal();
-                if (principalObj instanceof UserDetailsImpl) {
-                    email = ((UserDetailsImpl) principalObj).getEmail();
-                } else {
-                    email = principal.getName();
-                }
-            } else {
-                email = principal.getName();
-            }
-
-            final String userEmail = email;
-            if (userEmail != null) {
-                userRepository.findByEmail(userEmail).ifPresentOrElse(
-                    user -> {
-                        logger.info("User connected via WebSocket: {} (ID: {})", user.getName(), user.getId());
-                        userPresenceService.userConnected(user);
-                    },
-                    () -> logger.warn("User not found for email: {}", userEmail)
-                );
-            }
+        // The principal set by WebSocketAuthInterceptor already carries the user and company IDs
+        UserDetailsImpl userDetails = userDetailsOf(principal);
+        if (userDetails != null) {
+            logger.info("User connected via WebSocket: {} (ID: {}, session: {})",
+                    userDetails.getUsername(), userDetails.getId(), headerAccessor.getSessionId());
+            userPresenceService.sessionConnected(headerAccessor.getSessionId(), userDetails.getId(), userDetails.getCompanyId());
+            notificationPushService.userConnected(userDetails.getId());
         } else {
             logger.warn("WebSocket connection without principal (unauthenticated)");
         }
@@ -67,37 +47,26 @@ public class WebSocketEventListener {
 
     @EventListener
     public void handleWebSocketDisconnectListener(SessionDisconnectEvent event) {
-        StompHeaderAccessor headerAccessor = StompHeaderAccessor.wrap(event.getMessage());
-        Principal principal = headerAccessor.getUser();
+        Principal principal = event.getUser();
 
         logger.debug("WebSocket disconnect event received. Principal: {}", principal);
 
-        if (principal != null) {
-            String email = null;
-
-            // Extract email from the authentication token
-            if (principal instanceof UsernamePasswordAuthenticationToken) {
-                UsernamePasswordAuthenticationToken auth = (UsernamePasswordAuthenticationToken) principal;
-                Object principalObj = auth.getPrincipal();
-                if (principalObj instanceof UserDetailsImpl) {
-                    email = ((UserDetailsImpl) principalObj).getEmail();
-                } else {
-                    email = principal.getName();
-                }
-            } else {
-                email = principal.getName();
+        // Other sessions (e.g. further tabs) keep the user online
+        if (userPresenceService.sessionDisconnected(event.getSessionId())) {
+            UserDetailsImpl userDetails = userDetailsOf(principal);
+            if (userDetails != null) {
+                logger.info("User disconnected from WebSocket: {} (ID: {})", userDetails.getUsername(), userDetails.getId());
+                notificationPushService.userDisconnected(userDetails.getId());
             }
+        }
+    }
 
-            final String userEmail = email;
-            if (userEmail != null) {
-                userRepository.findByEmail(userEmail).ifPresentOrElse(
-                    user -> {
-                        logger.info("User disconnected from WebSocket: {} (ID: {})", user.getName(), user.getId());
-                        userPresenceService.userDisconnected(user);
-                    },
-                    () -> logger.warn("User not found for email: {}", userEmail)
-                );
-            }
+    private static UserDetailsImpl userDetailsOf(Principal principal) {
+        if (principal instanceof StompAuthenticationToken token
+                && token.getPrincipal() instanceof UserDetailsImpl userDetails
+                && userDetails.getCompanyId() != null) {
+            return userDetails;
         }
+        return null;
     }
 }
@@ -0,0 +1,25 @@
+package com.example.inventory_backend.benchmark;
+
+import com.example.inventory_backend.InventoryBackendApplication;
+import com.example.inventory_backend.support.EmbeddedDatabase;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+// Starts the full application against the embedded PostgreSQL for benchmarks that measure a service
+// path end to end (JMH runs each benchmark in a forked JVM, so there is one context per fork).
+final class BenchmarkApplication {
+
+    private BenchmarkApplication() {
+    }
+
+    static ConfigurableApplicationContext start() {
+        return new SpringApplicationBuilder(InventoryBackendApplication.class)
+                .profiles("test")
+                // Command line arguments, so they win over application.properties
+                .run("--spring.datasource.url=" + EmbeddedDatabase.jdbcUrl(),
+                        "--spring.datasource.username=" + EmbeddedDatabase.username(),
+                        "--server.port=0",
+                        "--spring.main.banner-mode=off",
+                        "--logging.level.root=WARN");
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.inventory_backend.benchmark;
+
+import com.example.inventory_backend.model.Company;
+import com.example.inventory_backend.model.User;
+import com.example.inventory_backend.repository.UserRepository;
+import com.example.inventory_backend.service.ChatService;
+import com.example.inventory_backend.support.TestData;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.TimeUnit;
+
+// Chat messages per second through sendMessage: encrypt, insert, update the chat list columns and
+// counters, broadcast. "send" is one sender alone; the "conversation" group sends while the recipient
+// keeps marking the chat read, so the participant row lock taken by markChatAsRead is contended.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+public class ChatBenchmark {
+
+    private ConfigurableApplicationContext context;
+    private ChatService chatService;
+    private UserRepository userRepository;
+    private TransactionTemplate transactionTemplate;
+    private Long chatId;
+    private Long senderId;
+    private Long readerId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        chatService = context.getBean(ChatService.class);
+        userRepository = context.getBean(UserRepository.class);
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        TestData testData = context.getBean(TestData.class);
+
+        Company company = testData.company();
+        User sender = testData.user(company, User.Role.EMPLOYEE);
+        User reader = testData.user(company, User.Role.EMPLOYEE);
+        senderId = sender.getId();
+        readerId = reader.getId();
+        chatId = chatService.createNewChat(sender, readerId).getId();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Object send() {
+        return sendMessage();
+    }
+
+    @Benchmark
+    @Group("conversation")
+    @GroupThreads(2)
+    public Object conversationSend() {
+        return sendMessage();
+    }
+
+    @Benchmark
+    @Group("conversation")
+    @GroupThreads(1)
+    public void conversationRead() {
+        // Loaded in the request's session, as the controllers do
+        transactionTemplate.executeWithoutResult(status ->
+                chatService.markChatAsRead(chatId, userRepository.findById(readerId).orElseThrow()));
+    }
+
+    private Object sendMessage() {
+        return transactionTemplate.execute(status ->
+                chatService.sendMessage(chatId, "Is the pallet for order 4711 ready to ship?",
+                        userRepository.findById(senderId).orElseThrow()));
+    }
+}
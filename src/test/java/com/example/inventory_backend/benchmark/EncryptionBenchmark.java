@@ -0,0 +1,139 @@
+package com.example.inventory_backend.benchmark;
+
+import com.example.inventory_backend.service.EncryptionService;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Chat messages per second through EncryptionService. The legacy methods are the previous implementation:
+// key spec, SecureRandom and Cipher created per message, IV and ciphertext copied between arrays.
+// encryptAll/decryptAll cover a page (50) and a long history (1000), where the "messages" counter is the
+// messages-per-second figure. Run with -prof gc for the allocation per message.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class EncryptionBenchmark {
+
+    private static final String KEY = "benchmark-encryption-key-32-bytes";
+    private static final String ALGORITHM = "AES/GCM/NoPadding";
+    private static final int GCM_IV_LENGTH = 12;
+    private static final int GCM_TAG_LENGTH = 128;
+    // A typical chat line
+    private static final String MESSAGE = "Is the pallet for order 4711 ready to ship? The driver is here at 3pm.";
+
+    private EncryptionService encryptionService;
+    private String encrypted;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Messages {
+        public long messages;
+    }
+
+    @State(Scope.Benchmark)
+    public static class Batch {
+        @Param({"50", "1000"})
+        private int size;
+
+        private List<String> plainTexts;
+        private List<String> encryptedTexts;
+
+        @Setup(Level.Trial)
+        public void setUp(EncryptionBenchmark benchmark) {
+            plainTexts = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                plainTexts.add(MESSAGE + " #" + i);
+            }
+            encryptedTexts = benchmark.encryptionService.encryptAll(plainTexts);
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        encryptionService = new EncryptionService();
+        ReflectionTestUtils.setField(encryptionService, "encryptionKey", KEY);
+        encryptionService.init();
+        encrypted = encryptionService.encrypt(MESSAGE);
+    }
+
+    @Benchmark
+    public String legacyEncrypt() throws GeneralSecurityException {
+        byte[] iv = new byte[GCM_IV_LENGTH];
+        SecretKeySpec secretKey = new SecretKeySpec(keyBytes(), "AES");
+        new SecureRandom().nextBytes(iv);
+        Cipher cipher = Cipher.getInstance(ALGORITHM);
+        cipher.init(Cipher.ENCRYPT_MODE, secretKey, new GCMParameterSpec(GCM_TAG_LENGTH, iv));
+        byte[] encryptedBytes = cipher.doFinal(MESSAGE.getBytes(StandardCharsets.UTF_8));
+        byte[] combined = new byte[iv.length + encryptedBytes.length];
+        System.arraycopy(iv, 0, combined, 0, iv.length);
+        System.arraycopy(encryptedBytes, 0, combined, iv.length, encryptedBytes.length);
+        return Base64.getEncoder().encodeToString(combined);
+    }
+
+    @Benchmark
+    public String legacyDecrypt() throws GeneralSecurityException {
+        byte[] combined = Base64.getDecoder().decode(encrypted);
+        SecretKeySpec secretKey = new SecretKeySpec(keyBytes(), "AES");
+        byte[] iv = new byte[GCM_IV_LENGTH];
+        byte[] encryptedBytes = new byte[combined.length - GCM_IV_LENGTH];
+        System.arraycopy(combined, 0, iv, 0, iv.length);
+        System.arraycopy(combined, iv.length, encryptedBytes, 0, encryptedBytes.length);
+        Cipher cipher = Cipher.getInstance(ALGORITHM);
+        cipher.init(Cipher.DECRYPT_MODE, secretKey, new GCMParameterSpec(GCM_TAG_LENGTH, iv));
+        return new String(cipher.doFinal(encryptedBytes), StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public String encrypt() {
+        return encryptionService.encrypt(MESSAGE);
+    }
+
+    @Benchmark
+    public String decrypt() {
+        return encryptionService.decrypt(encrypted);
+    }
+
+    @Benchmark
+    public List<String> encryptAll(Batch batch, Messages counter) {
+        counter.messages += batch.size;
+        return encryptionService.encryptAll(batch.plainTexts);
+    }
+
+    @Benchmark
+    public List<String> decryptAll(Batch batch, Messages counter) {
+        counter.messages += batch.size;
+        return encryptionService.decryptAll(batch.encryptedTexts);
+    }
+
+    private static byte[] keyBytes() {
+        byte[] keyBytes = KEY.getBytes(StandardCharsets.UTF_8);
+        byte[] key = new byte[32];
+        System.arraycopy(keyBytes, 0, key, 0, Math.min(keyBytes.length, 32));
+        return key;
+    }
+}
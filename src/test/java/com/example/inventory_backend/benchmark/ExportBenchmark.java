@@ -0,0 +1,96 @@
+package com.example.inventory_backend.benchmark;
+
+import com.example.inventory_backend.model.Category;
+import com.example.inventory_backend.model.Company;
+import com.example.inventory_backend.model.Supplier;
+import com.example.inventory_backend.service.CsvExportService;
+import com.example.inventory_backend.service.ExportService;
+import com.example.inventory_backend.support.TestData;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+// Product export of one large tenant as streaming XLSX and as CSV / gzip CSV, written to a discarding
+// stream. The "rows" counter is the rows-per-second figure to compare between formats. The fork runs
+// with a 256 MB heap so a 1M-row XLSX export (-p rows=1000000) also proves memory stays bounded; add
+// -prof gc for the allocation per export.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 1, time = 10)
+@Measurement(iterations = 3, time = 10)
+@Fork(value = 1, jvmArgsAppend = "-Xmx256m")
+public class ExportBenchmark {
+
+    @Param("100000")
+    private int rows;
+
+    private ConfigurableApplicationContext context;
+    private ExportService exportService;
+    private CsvExportService csvExportService;
+    private Company company;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Rows {
+        public long rows;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        exportService = context.getBean(ExportService.class);
+        csvExportService = context.getBean(CsvExportService.class);
+        TestData testData = context.getBean(TestData.class);
+
+        company = testData.company();
+        Category category = testData.category(company, "Benchmark category");
+        Supplier supplier = testData.supplier(company, "Benchmark supplier");
+        // Seeded in the database, since going through the services would take longer than the export
+        context.getBean(JdbcTemplate.class).update(
+                "INSERT INTO products (name, description, sku, price, company_id, category_id, supplier_id) " +
+                "SELECT 'Product ' || g, 'Benchmark product, \"quoted\"', 'SKU-' || g, 9.99, ?, ?, ? " +
+                "FROM generate_series(1, ?) AS g",
+                company.getId(), category.getId(), supplier.getId(), rows);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void xlsx(Rows counter) throws IOException {
+        exportService.export(ExportService.ExportType.PRODUCTS, company, OutputStream.nullOutputStream());
+        counter.rows += rows;
+    }
+
+    @Benchmark
+    public void csv(Rows counter) throws IOException {
+        csvExportService.export(ExportService.ExportType.PRODUCTS, company, OutputStream.nullOutputStream(), false);
+        counter.rows += rows;
+    }
+
+    @Benchmark
+    public void csvGzip(Rows counter) throws IOException {
+        csvExportService.export(ExportService.ExportType.PRODUCTS, company, OutputStream.nullOutputStream(), true);
+        counter.rows += rows;
+    }
+}
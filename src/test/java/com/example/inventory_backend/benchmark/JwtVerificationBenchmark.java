@@ -0,0 +1,89 @@
+package com.example.inventory_backend.benchmark;
+
+import com.example.inventory_backend.security.JwtUtils;
+import com.example.inventory_backend.security.UserDetailsImpl;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.security.Key;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Requests per second authenticated from a bearer token. The legacy path builds a new key and
+// parser per call and parses every token twice (validate, then read the principal); the current path
+// verifies once with the shared parser and serves repeats from the verified-token cache. Runs on several
+// threads so contention on the cache shows up.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(4)
+@Fork(1)
+public class JwtVerificationBenchmark {
+
+    private static final String SECRET = "benchmark-secret-that-is-long-enough-for-hs256";
+    // Distinct active users, i.e. tokens in rotation
+    private static final int TOKENS = 1000;
+
+    private JwtUtils jwtUtils;
+    private String[] tokens;
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        private int next;
+
+        String token(String[] tokens) {
+            next = (next + 1) % tokens.length;
+            return tokens[next];
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        jwtUtils = new JwtUtils();
+        ReflectionTestUtils.setField(jwtUtils, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(jwtUtils, "jwtExpirationMs", 3_600_000);
+        ReflectionTestUtils.setField(jwtUtils, "verifiedCacheSize", 10_000);
+        jwtUtils.init();
+
+        tokens = new String[TOKENS];
+        for (int i = 0; i < TOKENS; i++) {
+            UserDetailsImpl user = new UserDetailsImpl((long) i, "User " + i, "user" + i + "@example.com", null,
+                    List.of(new SimpleGrantedAuthority("ROLE_EMPLOYEE")), 1L, "Benchmark company", 0);
+            tokens[i] = jwtUtils.generateJwtToken(new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+        }
+    }
+
+    @Benchmark
+    public UserDetailsImpl legacy(Cursor cursor) {
+        String token = cursor.token(tokens);
+        Key key = Keys.hmacShaKeyFor(SECRET.getBytes());
+        Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token);
+        Claims claims = Jwts.parserBuilder().setSigningKey(Keys.hmacShaKeyFor(SECRET.getBytes())).build()
+                .parseClaimsJws(token).getBody();
+        return jwtUtils.getUserDetailsFromClaims(claims);
+    }
+
+    @Benchmark
+    public UserDetailsImpl cached(Cursor cursor) {
+        Claims claims = jwtUtils.parseVerifiedClaims(cursor.token(tokens));
+        return jwtUtils.getUserDetailsFromClaims(claims);
+    }
+}
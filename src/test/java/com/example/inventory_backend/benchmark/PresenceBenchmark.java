@@ -0,0 +1,97 @@
+package com.example.inventory_backend.benchmark;
+
+import com.example.inventory_backend.service.UserPresenceService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// The presence registry under load: 100k registered sessions spread over 1000 companies, with heartbeats,
+// online checks and connect/disconnect churn from several threads, and the time one sweep tick takes.
+// Broadcasts go to a discarding channel. Run with -prof gc for the allocation per call.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(4)
+@Fork(1)
+public class PresenceBenchmark {
+
+    private static final int COMPANIES = 1000;
+
+    @Param("100000")
+    private int sessions;
+
+    private UserPresenceService presenceService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        presenceService = newService();
+        for (int i = 0; i < sessions; i++) {
+            presenceService.sessionConnected(sessionId(i), (long) i, company(i));
+        }
+        presenceService.broadcastPresenceChanges();
+    }
+
+    @Benchmark
+    public void heartbeat() {
+        int i = ThreadLocalRandom.current().nextInt(sessions);
+        presenceService.sessionHeartbeat(sessionId(i), (long) i, company(i));
+    }
+
+    @Benchmark
+    public boolean isUserOnline() {
+        // Half of the checked users are offline
+        return presenceService.isUserOnline((long) ThreadLocalRandom.current().nextInt(sessions * 2));
+    }
+
+    // A second tab of an online user opened and closed, so the user stays online
+    @Benchmark
+    public boolean connectDisconnect() {
+        int i = ThreadLocalRandom.current().nextInt(sessions);
+        String sessionId = "extra-" + Thread.currentThread().threadId() + "-" + i;
+        presenceService.sessionConnected(sessionId, (long) i, company(i));
+        return presenceService.sessionDisconnected(sessionId);
+    }
+
+    // One timer wheel tick: every session in the due bucket is still alive and gets re-filed
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Threads(1)
+    public void sweep() {
+        presenceService.sweepExpiredSessions();
+    }
+
+    private static UserPresenceService newService() {
+        UserPresenceService service = new UserPresenceService();
+        ReflectionTestUtils.setField(service, "sessionTtlMs", 90_000L);
+        ReflectionTestUtils.setField(service, "sweepIntervalMs", 5_000L);
+        ReflectionTestUtils.setField(service, "messagingTemplate", new SimpMessagingTemplate((message, timeout) -> true));
+        service.init();
+        return service;
+    }
+
+    private static String sessionId(int i) {
+        return "session-" + i;
+    }
+
+    private static long company(int i) {
+        return i % COMPANIES;
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.inventory_backend.benchmark;
+
+import com.example.inventory_backend.model.Company;
+import com.example.inventory_backend.service.ProductImportService;
+import com.example.inventory_backend.support.TestData;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+// Rows per second through the bulk product import, from CSV and from XLSX. Every invocation
+// imports the whole catalog into a new company, so all rows are inserts with their inventory, categories
+// and suppliers resolved by name. The "rows" counter is the rows-per-second figure.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+public class ProductImportBenchmark {
+
+    private static final String[] HEADER = {"SKU", "Name", "Description", "Price", "Category", "Supplier",
+            "Quantity", "Reorder Level", "Reorder Quantity", "Location"};
+
+    @Param("20000")
+    private int rows;
+
+    private ConfigurableApplicationContext context;
+    private ProductImportService importService;
+    private TestData testData;
+    private byte[] csv;
+    private byte[] xlsx;
+    private Company company;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Rows {
+        public long rows;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        context = BenchmarkApplication.start();
+        importService = context.getBean(ProductImportService.class);
+        testData = context.getBean(TestData.class);
+
+        StringBuilder csvText = new StringBuilder(String.join(",", HEADER)).append('\n');
+        for (int i = 0; i < rows; i++) {
+            csvText.append(String.join(",", cells(i))).append('\n');
+        }
+        csv = csvText.toString().getBytes(StandardCharsets.UTF_8);
+
+        try (SXSSFWorkbook workbook = new SXSSFWorkbook(100); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            var sheet = workbook.createSheet("Products");
+            writeRow(sheet.createRow(0), HEADER);
+            for (int i = 0; i < rows; i++) {
+                writeRow(sheet.createRow(i + 1), cells(i));
+            }
+            workbook.write(out);
+            workbook.dispose();
+            xlsx = out.toByteArray();
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void newCompany() {
+        company = testData.company();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Object csv(Rows counter) throws IOException {
+        counter.rows += rows;
+        return importService.importProducts(new ByteArrayInputStream(csv), "products.csv", company);
+    }
+
+    @Benchmark
+    public Object xlsx(Rows counter) throws IOException {
+        counter.rows += rows;
+        return importService.importProducts(new ByteArrayInputStream(xlsx), "products.xlsx", company);
+    }
+
+    // A catalog with 50 categories and 20 suppliers, like a typical onboarding file
+    private static String[] cells(int i) {
+        return new String[]{"SKU-" + i, "Product " + i, "Imported product " + i, (i % 1000) + ".99",
+                "Category " + (i % 50), "Supplier " + (i % 20), String.valueOf(i % 500), "10", "50", "Aisle " + (i % 30)};
+    }
+
+    private static void writeRow(Row row, String[] cells) {
+        for (int c = 0; c < cells.length; c++) {
+            row.createCell(c).setCellValue(cells[c]);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.inventory_backend.benchmark;
+
+import com.example.inventory_backend.dto.TransactionBatchRequestDTO;
+import com.example.inventory_backend.dto.TransactionDTO;
+import com.example.inventory_backend.model.Company;
+import com.example.inventory_backend.model.Product;
+import com.example.inventory_backend.model.Transaction;
+import com.example.inventory_backend.service.TransactionService;
+import com.example.inventory_backend.support.TestData;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Transactions per second through POST /api/transactions/batch (one saveTransactions call) against the
+// same shift sent as individual POST /api/transactions calls (one saveTransaction each).
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class TransactionIngestBenchmark {
+
+    private static final int SHIFT_SIZE = 500;
+    private static final int PRODUCTS = 50;
+
+    private ConfigurableApplicationContext context;
+    private TransactionService transactionService;
+    private Company company;
+    private List<TransactionDTO> shift;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        transactionService = context.getBean(TransactionService.class);
+        TestData testData = context.getBean(TestData.class);
+
+        company = testData.company();
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < PRODUCTS; i++) {
+            Product product = testData.product(company, "Product " + i);
+            testData.inventory(product, 1_000_000);
+            products.add(product);
+        }
+
+        // A mix of sales and purchases spread over the catalog, so stock stays roughly level
+        shift = new ArrayList<>(SHIFT_SIZE);
+        for (int i = 0; i < SHIFT_SIZE; i++) {
+            TransactionDTO dto = new TransactionDTO();
+            dto.setProductId(products.get(i % PRODUCTS).getId());
+            dto.setTransactionType(i % 2 == 0 ? Transaction.TransactionType.SALE.name() : Transaction.TransactionType.PURCHASE.name());
+            dto.setQuantity(1);
+            shift.add(dto);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SHIFT_SIZE)
+    public Object singleItemCalls() {
+        Object last = null;
+        for (TransactionDTO dto : shift) {
+            last = transactionService.saveTransaction(dto, company);
+        }
+        return last;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SHIFT_SIZE)
+    public Object batchCall() {
+        return transactionService.saveTransactions(shift, TransactionBatchRequestDTO.Mode.ALL_OR_NOTHING, company);
+    }
+}
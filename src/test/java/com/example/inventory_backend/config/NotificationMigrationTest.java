@@ -0,0 +1,161 @@
+package com.example.inventory_backend.config;
+
+import com.example.inventory_backend.support.EmbeddedDatabase;
+import com.example.inventory_backend.support.IntegrationTestBase;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+// The move from one notification row per user to shared rows, run against a legacy schema in its own
+// PostgreSQL schema (the application's tables are already migrated). Every user must see the same
+// notifications with the same unread count afterwards, and the legacy data stays until dropped on request.
+class NotificationMigrationTest extends IntegrationTestBase {
+
+    private static final String SCHEMA = "notification_migration_test";
+
+    private static final String UNREAD_SQL =
+            "SELECT s.user_id, COALESCE(c.shared_total, 0) - s.shared_seen + s.personal_total - s.personal_seen - s.read_above " +
+            "FROM notification_read_state s LEFT JOIN notification_counters c ON c.company_id = s.company_id";
+
+    private SingleConnectionDataSource dataSource;
+
+    private JdbcTemplate jdbcTemplate;
+
+    private NotificationMigration migration;
+
+    @BeforeEach
+    void createLegacySchema() {
+        dataSource = new SingleConnectionDataSource(EmbeddedDatabase.jdbcUrl(), EmbeddedDatabase.username(), "", true);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE SCHEMA " + SCHEMA);
+        jdbcTemplate.execute("SET search_path TO " + SCHEMA);
+
+        jdbcTemplate.execute("CREATE TABLE users (id bigint PRIMARY KEY, company_id bigint NOT NULL)");
+        for (String table : List.of("notifications", "notification_counters", "notification_read_state", "notification_receipts")) {
+            jdbcTemplate.execute("CREATE TABLE " + table + " (LIKE public." + table + " INCLUDING ALL)");
+        }
+        jdbcTemplate.execute("ALTER TABLE notifications ADD COLUMN read boolean NOT NULL");
+
+        migration = new NotificationMigration();
+        ReflectionTestUtils.setField(migration, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(migration, "transactionManager", new DataSourceTransactionManager(dataSource));
+    }
+
+    @AfterEach
+    void dropLegacySchema() {
+        jdbcTemplate.execute("DROP SCHEMA " + SCHEMA + " CASCADE");
+        dataSource.destroy();
+    }
+
+    @Test
+    void copiesBecomeSharedRowsWithTheSameUnreadCounts() {
+        seedLegacyNotifications();
+        Map<Long, Long> unreadBefore = unreadIn("notifications");
+
+        migration.migrate();
+
+        // The oldest copy of each event is kept for the company; the personal row stays with its user
+        assertThat(jdbcTemplate.queryForList("SELECT id FROM notifications WHERE user_id IS NULL ORDER BY id", Long.class))
+                .containsExactly(1L, 4L, 7L, 11L, 13L);
+        assertThat(jdbcTemplate.queryForList("SELECT id FROM notifications WHERE user_id = 2", Long.class))
+                .containsExactly(10L);
+        assertThat(jdbcTemplate.queryForList("SELECT COUNT(*) FROM notifications", Long.class)).containsExactly(6L);
+        assertThat(rows("SELECT company_id, shared_total || '/' || last_id FROM notification_counters"))
+                .containsOnly(entry(1L, "4/11"), entry(2L, "1/13"));
+
+        // first_visible_id/last_read_id: the watermark sits below the oldest unread one; the user without
+        // rows starts at the newest notification like a new user
+        assertThat(rows("SELECT user_id, first_visible_id || '/' || last_read_id FROM notification_read_state"))
+                .containsOnly(entry(1L, "0/6"), entry(2L, "0/3"), entry(3L, "11/11"), entry(4L, "0/6"), entry(5L, "12/12"));
+
+        // Read rows above the watermark get receipts, the shared row user 4 had deleted a dismissal
+        assertThat(jdbcTemplate.queryForList(
+                "SELECT user_id || ':' || notification_id || ':' || dismissed FROM notification_receipts", String.class))
+                .containsExactlyInAnyOrder("1:11:false", "2:7:false", "4:11:true");
+
+        assertThat(rows(UNREAD_SQL))
+                .containsOnly(entry(1L, 1L), entry(2L, 3L), entry(3L, 0L), entry(4L, 1L), entry(5L, 1L))
+                .containsAllEntriesOf(unreadBefore);
+    }
+
+    @Test
+    void legacyDataIsKeptUntilDroppedOnRequest() {
+        seedLegacyNotifications();
+        migration.migrate();
+
+        assertThat(legacyColumnExists()).isTrue();
+        assertThat(unreadIn("notifications_legacy")).containsOnly(entry(1L, 1L), entry(2L, 3L), entry(4L, 1L), entry(5L, 1L));
+        // Rows written after the migration leave the column out
+        jdbcTemplate.update("INSERT INTO notifications (id, company_id, timestamp, title) VALUES (14, 1, now(), 'New')");
+
+        // A restart with the copy in place does not migrate again
+        migration.migrate();
+        assertThat(jdbcTemplate.queryForList("SELECT COUNT(*) FROM notification_receipts", Long.class)).containsExactly(3L);
+        assertThat(jdbcTemplate.queryForList("SELECT COUNT(*) FROM notifications", Long.class)).containsExactly(7L);
+
+        ReflectionTestUtils.setField(migration, "dropLegacyData", true);
+        migration.migrate();
+
+        assertThat(legacyColumnExists()).isFalse();
+        assertThat(jdbcTemplate.queryForObject("SELECT to_regclass('notifications_legacy') IS NULL", Boolean.class)).isTrue();
+        assertThat(jdbcTemplate.queryForList("SELECT COUNT(*) FROM notifications", Long.class)).containsExactly(7L);
+    }
+
+    // Company 1 has users 1, 2 and 4 with a copy of each event (user 3 has none, user 4 deleted their copy
+    // of the last one) and two identical import summaries; company 2 has one event for user 5
+    private void seedLegacyNotifications() {
+        for (long user : new long[] {1, 2, 3, 4}) {
+            jdbcTemplate.update("INSERT INTO users (id, company_id) VALUES (?, 1)", user);
+        }
+        jdbcTemplate.update("INSERT INTO users (id, company_id) VALUES (5, 2)");
+
+        notification(1, 1, 1, "product", 10L, "Product created", true);
+        notification(2, 1, 2, "product", 10L, "Product created", true);
+        notification(3, 1, 4, "product", 10L, "Product created", true);
+        notification(4, 1, 1, "import", null, "Import finished", true);
+        notification(5, 1, 2, "import", null, "Import finished", false);
+        notification(6, 1, 4, "import", null, "Import finished", true);
+        notification(7, 1, 1, "import", null, "Import finished", false);
+        notification(8, 1, 2, "import", null, "Import finished", true);
+        notification(9, 1, 4, "import", null, "Import finished", false);
+        notification(10, 1, 2, "user", 2L, "Role changed", false);
+        notification(11, 1, 1, "product", 10L, "Product updated", true);
+        notification(12, 1, 2, "product", 10L, "Product updated", false);
+        notification(13, 2, 5, "product", 20L, "Product created", false);
+    }
+
+    private void notification(long id, long companyId, long userId, String entityType, Long entityId, String title, boolean read) {
+        jdbcTemplate.update("INSERT INTO notifications (id, company_id, user_id, entity_type, entity_id, title, message, " +
+                "timestamp, read) VALUES (?, ?, ?, ?, ?, ?, ?, now(), ?)",
+                id, companyId, userId, entityType, entityId, title, title + " message", read);
+    }
+
+    private Map<Long, Long> unreadIn(String table) {
+        return rows("SELECT user_id, COUNT(*) FILTER (WHERE NOT read) FROM " + table + " GROUP BY user_id");
+    }
+
+    private boolean legacyColumnExists() {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject("SELECT EXISTS (SELECT 1 FROM information_schema.columns " +
+                "WHERE table_schema = ? AND table_name = 'notifications' AND column_name = 'read')", Boolean.class, SCHEMA));
+    }
+
+    @SuppressWarnings("unchecked")
+    private <V> Map<Long, V> rows(String sql) {
+        Map<Long, V> rows = new HashMap<>();
+        jdbcTemplate.query(sql, rs -> {
+            rows.put(rs.getLong(1), (V) rs.getObject(2));
+        });
+        return rows;
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.inventory_backend.controller;
+
+import com.example.inventory_backend.model.Company;
+import com.example.inventory_backend.model.Product;
+import com.example.inventory_backend.model.Transaction;
+import com.example.inventory_backend.model.User;
+import com.example.inventory_backend.security.JwtUtils;
+import com.example.inventory_backend.security.UserDetailsImpl;
+import com.example.inventory_backend.support.IntegrationTestBase;
+import com.example.inventory_backend.support.TestData;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// List endpoints load their rows with one projection query, so the number of statements
+// per request must not grow with the number of rows or of distinct categories, suppliers and users.
+class ListQueryCountTest extends IntegrationTestBase {
+
+    private static final int FEW = 1;
+    private static final int MANY = 40;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TestData testData;
+
+    @Autowired
+    private JwtUtils jwtUtils;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void enableStatistics() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"/api/products", "/api/inventory", "/api/inventory/low-stock", "/api/transactions"})
+    void statementCountDoesNotDependOnRowCount(String endpoint) throws Exception {
+        long fewStatements = statementsFor(endpoint, FEW);
+        long manyStatements = statementsFor(endpoint, MANY);
+
+        assertThat(manyStatements).isEqualTo(fewStatements);
+        assertThat(fewStatements).isLessThanOrEqualTo(2);
+    }
+
+    // Seeds a new company with the given number of rows and returns the statements one listing takes
+    private long statementsFor(String endpoint, int rows) throws Exception {
+        Company company = testData.company();
+        User user = testData.user(company, User.Role.ADMIN);
+        for (int i = 0; i < rows; i++) {
+            Product product = testData.product(company, "Product " + i,
+                    testData.category(company, "Category " + i), testData.supplier(company, "Supplier " + i));
+            // Zero stock at a zero reorder level also puts every row on the low-stock list
+            testData.inventory(product, 0);
+            testData.transaction(product, testData.user(company, User.Role.EMPLOYEE), Transaction.TransactionType.SALE, 1);
+        }
+        String token = jwtUtils.generateJwtToken(new UsernamePasswordAuthenticationToken(
+                UserDetailsImpl.build(user), null, UserDetailsImpl.build(user).getAuthorities()));
+
+        // The first request also warms per-user caches such as the token version, which are not under test
+        list(endpoint, token, rows);
+        statistics.clear();
+        list(endpoint, token, rows);
+        return statistics.getPrepareStatementCount();
+    }
+
+    private void list(String endpoint, String token, int rows) throws Exception {
+        mockMvc.perform(get(endpoint).header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(rows));
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.inventory_backend.controller;
+
+import com.example.inventory_backend.model.Company;
+import com.example.inventory_backend.model.User;
+import com.example.inventory_backend.repository.UserRepository;
+import com.example.inventory_backend.security.JwtUtils;
+import com.example.inventory_backend.security.UserDetailsImpl;
+import com.example.inventory_backend.support.IntegrationTestBase;
+import com.example.inventory_backend.support.TestData;
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Self-service changes to the password, name or email revoke the caller's earlier tokens and hand back
+// a new one, so the caller stays signed in with current claims while other sessions are signed out
+class UserTokenReissueTest extends IntegrationTestBase {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TestData testData;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private JwtUtils jwtUtils;
+
+    @Test
+    void passwordChangeReturnsATokenForTheNewVersion() throws Exception {
+        User user = userWithPassword("old-secret");
+        String oldToken = token(user);
+
+        String body = mockMvc.perform(put("/api/users/me/password")
+                        .header("Authorization", "Bearer " + oldToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"currentPassword\":\"old-secret\",\"newPassword\":\"new-secret\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(user.getId()))
+                .andReturn().getResponse().getContentAsString();
+        String newToken = JsonPath.read(body, "$.token");
+
+        mockMvc.perform(get("/api/users/me").header("Authorization", "Bearer " + newToken))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/users/me").header("Authorization", "Bearer " + oldToken))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void profileChangeReturnsATokenWithTheNewClaims() throws Exception {
+        User user = userWithPassword("secret");
+        String oldToken = token(user);
+        String email = "renamed-" + user.getId() + "@example.com";
+
+        String body = mockMvc.perform(put("/api/users/me")
+                        .header("Authorization", "Bearer " + oldToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Renamed\",\"email\":\"" + email + "\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.email").value(email))
+                .andReturn().getResponse().getContentAsString();
+        String newToken = JsonPath.read(body, "$.token");
+
+        assertThat(jwtUtils.parseVerifiedClaims(newToken).getSubject()).isEqualTo(email);
+        mockMvc.perform(get("/api/users/me").header("Authorization", "Bearer " + newToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Renamed"));
+        mockMvc.perform(get("/api/users/me").header("Authorization", "Bearer " + oldToken))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void unchangedProfileKeepsTheToken() throws Exception {
+        User user = userWithPassword("secret");
+        String token = token(user);
+
+        mockMvc.perform(put("/api/users/me")
+                        .header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"" + user.getName() + "\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.token").doesNotExist());
+        mockMvc.perform(get("/api/users/me").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk());
+    }
+
+    private User userWithPassword(String password) {
+        Company company = testData.company();
+        User user = testData.user(company, User.Role.EMPLOYEE);
+        user.setPassword(passwordEncoder.encode(password));
+        return userRepository.save(user);
+    }
+
+    private String token(User user) {
+        UserDetailsImpl userDetails = UserDetailsImpl.build(user);
+        return jwtUtils.generateJwtToken(
+                new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities()));
+    }
+}
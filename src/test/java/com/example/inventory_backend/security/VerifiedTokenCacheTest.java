@@ -0,0 +1,55 @@
+package com.example.inventory_backend.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// A full cache of verified tokens drops the ones nobody used lately, not the ones in active use
+class VerifiedTokenCacheTest {
+
+    private static final int MAX_SIZE = 100;
+
+    @Test
+    void tokensInUseSurviveAFullCache() {
+        JwtUtils.VerifiedTokenCache cache = new JwtUtils.VerifiedTokenCache(MAX_SIZE);
+        for (int i = 0; i < MAX_SIZE; i++) {
+            cache.put("token-" + i, claims(60_000));
+        }
+        // The newest tokens are idle, the oldest ones keep making requests
+        for (int i = 0; i < 20; i++) {
+            assertThat(cache.get("token-" + i)).isNotNull();
+        }
+
+        // A reconnect storm of new tokens overflows the cache several times
+        for (int i = 0; i < 5 * MAX_SIZE; i++) {
+            cache.put("storm-" + i, claims(60_000));
+            for (int hot = 0; hot < 20; hot++) {
+                cache.get("token-" + hot);
+            }
+        }
+
+        for (int i = 0; i < 20; i++) {
+            assertThat(cache.get("token-" + i)).isNotNull();
+        }
+        assertThat(cache.get("token-" + (MAX_SIZE - 1))).isNull();
+        assertThat(cache.get("storm-" + (5 * MAX_SIZE - 1))).isNotNull();
+    }
+
+    @Test
+    void expiredTokensAreNeverServed() {
+        JwtUtils.VerifiedTokenCache cache = new JwtUtils.VerifiedTokenCache(MAX_SIZE);
+        cache.put("expired", claims(-1));
+        cache.put("valid", claims(60_000));
+
+        assertThat(cache.get("expired")).isNull();
+        assertThat(cache.get("valid")).isNotNull();
+    }
+
+    private static Claims claims(long expiresInMs) {
+        return Jwts.claims().setExpiration(new Date(System.currentTimeMillis() + expiresInMs));
+    }
+}
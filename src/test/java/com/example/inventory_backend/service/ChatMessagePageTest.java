@@ -0,0 +1,75 @@
+package com.example.inventory_backend.service;
+
+import com.example.inventory_backend.dto.ChatDTO;
+import com.example.inventory_backend.dto.ChatMessageDTO;
+import com.example.inventory_backend.dto.ChatMessagePageDTO;
+import com.example.inventory_backend.model.Company;
+import com.example.inventory_backend.model.User;
+import com.example.inventory_backend.repository.UserRepository;
+import com.example.inventory_backend.support.IntegrationTestBase;
+import com.example.inventory_backend.support.TestData;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Paging through chat history in both directions: hasOlder/hasNewer say whether another page exists on
+// either side of the returned one, whichever cursor the page was fetched with
+class ChatMessagePageTest extends IntegrationTestBase {
+
+    @Autowired
+    private TestData testData;
+
+    @Autowired
+    private ChatService chatService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void pagesKnowWhatLiesOnBothSides() {
+        Company company = testData.company();
+        User sender = testData.user(company, User.Role.EMPLOYEE);
+        User reader = testData.user(company, User.Role.EMPLOYEE);
+        ChatDTO chat = chatService.createNewChat(sender, reader.getId());
+        List<Long> ids = new ArrayList<>();
+        for (int i = 1; i <= 5; i++) {
+            ids.add(send(chat, sender, "Message " + i));
+        }
+
+        assertPage(page(chat, reader, null, null), ids.subList(3, 5), true, false);
+        assertPage(page(chat, reader, ids.get(3), null), ids.subList(1, 3), true, true);
+        assertPage(page(chat, reader, ids.get(1), null), ids.subList(0, 1), false, true);
+
+        assertPage(page(chat, reader, null, 0L), ids.subList(0, 2), false, true);
+        assertPage(page(chat, reader, null, ids.get(0)), ids.subList(1, 3), true, true);
+        assertPage(page(chat, reader, null, ids.get(2)), ids.subList(3, 5), true, false);
+        assertPage(page(chat, reader, null, ids.get(4)), List.of(), true, false);
+    }
+
+    private static void assertPage(ChatMessagePageDTO page, List<Long> ids, boolean hasOlder, boolean hasNewer) {
+        assertThat(page.getMessages()).extracting(ChatMessageDTO::getId).containsExactlyElementsOf(ids);
+        assertThat(page.isHasOlder()).as("hasOlder").isEqualTo(hasOlder);
+        assertThat(page.isHasNewer()).as("hasNewer").isEqualTo(hasNewer);
+    }
+
+    // Like a request: the user is loaded in the same session the chat's participants are
+    private ChatMessagePageDTO page(ChatDTO chat, User user, Long beforeId, Long afterId) {
+        return new TransactionTemplate(transactionManager).execute(status -> chatService.getChatMessagePage(
+                chat.getId(), beforeId, afterId, 2, userRepository.findById(user.getId()).orElseThrow()));
+    }
+
+    private Long send(ChatDTO chat, User sender, String content) {
+        return new TransactionTemplate(transactionManager).execute(status ->
+                chatService.sendMessage(chat.getId(), content, userRepository.findById(sender.getId()).orElseThrow())
+                        .getId());
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.inventory_backend.service;
+
+import com.example.inventory_backend.dto.ChatDTO;
+import com.example.inventory_backend.model.Company;
+import com.example.inventory_backend.model.User;
+import com.example.inventory_backend.repository.ChatParticipantRepository;
+import com.example.inventory_backend.repository.UserRepository;
+import com.example.inventory_backend.support.IntegrationTestBase;
+import com.example.inventory_backend.support.TestData;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// The unread badge is kept from deltas; marking a chat read while messages keep arriving must leave
+// the in-memory total equal to the stored counters.
+class ChatReadConcurrencyTest extends IntegrationTestBase {
+
+    private static final int MESSAGES = 300;
+
+    @Autowired
+    private TestData testData;
+
+    @Autowired
+    private ChatService chatService;
+
+    @Autowired
+    private ChatUnreadCounterService unreadCounterService;
+
+    @Autowired
+    private ChatParticipantRepository chatParticipantRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void readingWhileMessagesArriveKeepsTheBadgeExact() throws Exception {
+        Company company = testData.company();
+        User sender = testData.user(company, User.Role.EMPLOYEE);
+        User reader = testData.user(company, User.Role.EMPLOYEE);
+        ChatDTO chat = chatService.createNewChat(sender, reader.getId());
+        send(chat, sender, "First");
+        // Loads the reader's counter, so from here on it only moves by deltas
+        assertThat(unreadCounterService.getUnreadCount(reader.getId())).isEqualTo(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < MESSAGES; i++) {
+                int index = i;
+                futures.add(executor.submit(() -> send(chat, sender, "Message " + index)));
+                futures.add(executor.submit(() -> markRead(chat, reader)));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        long stored = chatParticipantRepository.sumUnreadCounts(reader.getId());
+        assertThat(unreadCounterService.getUnreadCount(reader.getId())).isEqualTo((int) stored);
+
+        markRead(chat, reader);
+        assertThat(chatParticipantRepository.sumUnreadCounts(reader.getId())).isZero();
+        assertThat(unreadCounterService.getUnreadCount(reader.getId())).isZero();
+    }
+
+    // Like a request: the user is loaded in the same session the chat's participants are
+    private void send(ChatDTO chat, User sender, String content) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                chatService.sendMessage(chat.getId(), content, userRepository.findById(sender.getId()).orElseThrow()));
+    }
+
+    private void markRead(ChatDTO chat, User reader) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                chatService.markChatAsRead(chat.getId(), userRepository.findById(reader.getId()).orElseThrow()));
+    }
+}
@@ -0,0 +1,181 @@
+package com.example.inventory_backend.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageDeliveryException;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Changes buffered between flushes reach clients merged to each entity's final state, in an order they
+// can apply, in as few frames as the batch size allows
+class EntityBroadcastServiceTest {
+
+    private static final long COMPANY = 1L;
+
+    private final List<Message<?>> sent = new ArrayList<>();
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private EntityBroadcastService service;
+
+    private boolean failNextSend;
+
+    @BeforeEach
+    void setUp() {
+        service = new EntityBroadcastService();
+        ReflectionTestUtils.setField(service, "maxBatchSize", 3);
+        ReflectionTestUtils.setField(service, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(service, "messagingTemplate", new SimpMessagingTemplate((message, timeout) -> {
+            if (failNextSend) {
+                failNextSend = false;
+                throw new MessageDeliveryException(message, "Broker unavailable");
+            }
+            sent.add(message);
+            return true;
+        }));
+        service.init();
+    }
+
+    @Test
+    void createThenUpdateSendsTheCreateWithTheFinalState() {
+        service.broadcastCreate(COMPANY, "product", 1L, entity(1, "v1"));
+        service.broadcastUpdate(COMPANY, "product", 1L, entity(1, "v2"));
+        service.flushAll();
+
+        assertThat(frames()).containsExactly(List.of("CREATE product 1 v2"));
+        assertThat(framesSaved()).isEqualTo(1);
+    }
+
+    @Test
+    void updateThenDeleteSendsOnlyTheDelete() {
+        service.broadcastUpdate(COMPANY, "product", 1L, entity(1, "v2"));
+        service.broadcastDelete(COMPANY, "product", 1L);
+        service.flushAll();
+
+        assertThat(frames()).containsExactly(List.of("DELETE product 1"));
+        assertThat(framesSaved()).isEqualTo(1);
+    }
+
+    @Test
+    void createThenDeleteSendsNothing() {
+        service.broadcastCreate(COMPANY, "product", 1L, entity(1, "v1"));
+        service.broadcastDelete(COMPANY, "product", 1L);
+        service.flushAll();
+
+        assertThat(sent).isEmpty();
+        assertThat(framesSaved()).isEqualTo(2);
+    }
+
+    @Test
+    void recreationFollowsTheDelete() {
+        service.broadcastUpdate(COMPANY, "product", 1L, entity(1, "v2"));
+        service.broadcastDelete(COMPANY, "product", 1L);
+        service.broadcastCreate(COMPANY, "product", 1L, entity(1, "v3"));
+        service.broadcastUpdate(COMPANY, "product", 1L, entity(1, "v4"));
+        service.flushAll();
+
+        assertThat(frames()).containsExactly(List.of("DELETE product 1", "CREATE product 1 v4"));
+        assertThat(framesSaved()).isEqualTo(3);
+    }
+
+    // The product's final state points at the category created in between, so it must come after it
+    @Test
+    void mergedUpdateFollowsWhatWasCreatedBeforeIt() {
+        service.broadcastUpdate(COMPANY, "product", 1L, entity(1, "v2"));
+        service.broadcastCreate(COMPANY, "category", 7L, entity(7, "v1"));
+        service.broadcastUpdate(COMPANY, "product", 1L, entity(1, "v3"));
+        service.flushAll();
+
+        assertThat(frames()).containsExactly(List.of("CREATE category 7 v1", "UPDATE product 1 v3"));
+        assertThat(framesSaved()).isEqualTo(2);
+    }
+
+    @Test
+    void fullBufferIsSentWithoutWaitingForTheWindow() {
+        for (long id = 1; id <= 4; id++) {
+            service.broadcastCreate(COMPANY, "product", id, entity(id, "v1"));
+        }
+
+        assertThat(frames()).containsExactly(
+                List.of("CREATE product 1 v1", "CREATE product 2 v1", "CREATE product 3 v1"));
+
+        service.flushAll();
+        assertThat(frames()).hasSize(2);
+        assertThat(frames().get(1)).containsExactly("CREATE product 4 v1");
+        assertThat(framesSaved()).isEqualTo(2);
+    }
+
+    @Test
+    void largeBufferIsSplitIntoFramesInOrder() {
+        ReflectionTestUtils.setField(service, "maxBatchSize", 10);
+        for (long id = 1; id <= 7; id++) {
+            service.broadcastUpdate(COMPANY, "product", id, entity(id, "v1"));
+        }
+        ReflectionTestUtils.setField(service, "maxBatchSize", 3);
+        service.flushAll();
+
+        assertThat(frames()).containsExactly(
+                List.of("UPDATE product 1 v1", "UPDATE product 2 v1", "UPDATE product 3 v1"),
+                List.of("UPDATE product 4 v1", "UPDATE product 5 v1", "UPDATE product 6 v1"),
+                List.of("UPDATE product 7 v1"));
+        assertThat(meterRegistry.get("entity.broadcast.frames").counter().count()).isEqualTo(3);
+        assertThat(framesSaved()).isEqualTo(4);
+    }
+
+    @Test
+    void failedFrameIsCountedAndLaterFramesStillGoOut() {
+        service.broadcastUpdate(COMPANY, "product", 1L, entity(1, "v1"));
+        failNextSend = true;
+        service.flushAll();
+
+        service.broadcastUpdate(COMPANY, "product", 2L, entity(2, "v1"));
+        service.flushAll();
+
+        assertThat(frames()).containsExactly(List.of("UPDATE product 2 v1"));
+        assertThat(meterRegistry.get("entity.broadcast.frames.failed").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("entity.broadcast.frames").counter().count()).isEqualTo(1);
+    }
+
+    private static Map<String, Object> entity(long id, String version) {
+        return Map.of("id", id, "version", version);
+    }
+
+    private double framesSaved() {
+        return meterRegistry.get("entity.broadcast.frames.saved").counter().count();
+    }
+
+    // Each frame as its events, a lone change being a frame of one
+    @SuppressWarnings("unchecked")
+    private List<List<String>> frames() {
+        List<List<String>> frames = new ArrayList<>();
+        for (Message<?> message : sent) {
+            Map<String, Object> payload = (Map<String, Object>) message.getPayload();
+            assertThat(message.getHeaders().get("simpDestination")).isEqualTo("/topic/updates/" + COMPANY);
+            List<String> events = new ArrayList<>();
+            if ("BATCH".equals(payload.get("action"))) {
+                for (Map<String, Object> event : (List<Map<String, Object>>) payload.get("events")) {
+                    events.add(describe(event));
+                }
+            } else {
+                events.add(describe(payload));
+            }
+            frames.add(events);
+        }
+        return frames;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static String describe(Map<String, Object> event) {
+        Map<String, Object> data = (Map<String, Object>) event.get("data");
+        String description = event.get("action") + " " + event.get("entityType") + " " + data.get("id");
+        return data.containsKey("version") ? description + " " + data.get("version") : description;
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.inventory_backend.service;
+
+import com.example.inventory_backend.dto.NotificationDTO;
+import com.example.inventory_backend.model.Company;
+import com.example.inventory_backend.model.User;
+import com.example.inventory_backend.repository.NotificationReadStateRepository;
+import com.example.inventory_backend.repository.NotificationRepository;
+import com.example.inventory_backend.support.IntegrationTestBase;
+import com.example.inventory_backend.support.TestData;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Company notifications are stored once and read state is a per-user watermark plus receipts.
+// The admin is connected, so their count is the in-memory one; the employee's is computed from the
+// read state. Both must match the stored counters at every step.
+class NotificationReadStateTest extends IntegrationTestBase {
+
+    @Autowired
+    private TestData testData;
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private NotificationPushService pushService;
+
+    @Autowired
+    private UserPresenceService userPresenceService;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private NotificationReadStateRepository readStateRepository;
+
+    private final String sessionId = UUID.randomUUID().toString();
+
+    @AfterEach
+    void disconnect() {
+        userPresenceService.sessionDisconnected(sessionId);
+    }
+
+    @Test
+    void unreadCountsFollowTheWatermark() {
+        Company company = testData.company();
+        // Notifications from before a user joined are not theirs to read
+        notificationService.notifyNewCategory(1L, "Before anyone joined", company);
+
+        User admin = newUser(company, User.Role.ADMIN);
+        User employee = newUser(company, User.Role.EMPLOYEE);
+        userPresenceService.sessionConnected(sessionId, admin.getId(), company.getId());
+        pushService.userConnected(admin.getId());
+        assertUnread(admin, 0);
+        assertUnread(employee, 0);
+
+        notificationService.notifyNewProduct(10L, "Drill", company);
+        notificationService.notifyNewProduct(11L, "Saw", company);
+        notificationService.notifyNewSupplier(12L, "Acme", company);
+        assertUnread(admin, 3);
+        assertUnread(employee, 3);
+        // One row per event, not one per user
+        assertThat(notificationRepository.findByCompanyId(company.getId())).hasSize(4);
+        assertThat(notificationService.getUserNotifications(employee.getId())).hasSize(3);
+
+        List<NotificationDTO> unread = notificationService.getUnreadNotifications(admin.getId());
+        notificationService.markAsRead(unread.get(0).getId(), admin.getId());
+        notificationService.markAsRead(unread.get(0).getId(), admin.getId());
+        assertUnread(admin, 2);
+        assertUnread(employee, 3);
+
+        // Dismissing an unread notification also takes it off the count, for that user only
+        notificationService.deleteNotification(unread.get(1).getId(), admin.getId());
+        assertUnread(admin, 1);
+        assertThat(notificationService.getUserNotifications(admin.getId()))
+                .extracting(NotificationDTO::getId).doesNotContain(unread.get(1).getId());
+        assertThat(notificationService.getUserNotifications(employee.getId())).hasSize(3);
+
+        // The new-user notification is personal to admins
+        notificationService.notifyNewUser(999L, "New hire", "EMPLOYEE", company);
+        assertUnread(admin, 2);
+        assertUnread(employee, 3);
+
+        notificationService.markAllAsRead(admin.getId());
+        assertUnread(admin, 0);
+        assertThat(notificationService.getUserNotifications(admin.getId()))
+                .allSatisfy(notification -> assertThat(notification.isRead()).isTrue());
+
+        notificationService.notifyProductImport(5, 0, 0, company);
+        assertUnread(admin, 1);
+        assertUnread(employee, 4);
+
+        notificationService.markAllAsRead(employee.getId());
+        assertUnread(employee, 0);
+        assertUnread(admin, 1);
+    }
+
+    @Test
+    void companiesDoNotSeeEachOthersNotifications() {
+        Company company = testData.company();
+        Company other = testData.company();
+        User user = newUser(company, User.Role.MANAGER);
+        User otherUser = newUser(other, User.Role.MANAGER);
+
+        notificationService.notifyNewProduct(1L, "Drill", other);
+
+        assertUnread(user, 0);
+        assertUnread(otherUser, 1);
+        assertThat(notificationService.getUserNotifications(user.getId())).isEmpty();
+    }
+
+    private User newUser(Company company, User.Role role) {
+        User user = testData.user(company, role);
+        notificationService.initializeReadState(user);
+        return user;
+    }
+
+    private void assertUnread(User user, int expected) {
+        assertThat(notificationService.countUnreadNotifications(user.getId())).isEqualTo(expected);
+        assertThat(readStateRepository.countUnread(user.getId())).contains((long) expected);
+        assertThat(notificationService.getUnreadNotifications(user.getId())).hasSize(expected);
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.inventory_backend.service;
+
+import com.example.inventory_backend.dto.ImportReportDTO;
+import com.example.inventory_backend.model.Company;
+import com.example.inventory_backend.model.Inventory;
+import com.example.inventory_backend.model.Product;
+import com.example.inventory_backend.repository.InventoryRepository;
+import com.example.inventory_backend.repository.ProductRepository;
+import com.example.inventory_backend.support.IntegrationTestBase;
+import com.example.inventory_backend.support.TestData;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Bulk import upserts products by SKU and their inventory in array-bound batches
+class ProductImportTest extends IntegrationTestBase {
+
+    private static final String HEADER = "SKU,Name,Description,Price,Category,Supplier,Quantity,Reorder Level,Location\n";
+
+    @Autowired
+    private TestData testData;
+
+    @Autowired
+    private ProductImportService importService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Test
+    void createsThenUpdatesBySkuKeepingBlankCells() throws IOException {
+        Company company = testData.company();
+
+        ImportReportDTO created = importCsv(company, HEADER +
+                "A-1,Drill,Cordless,99.50,Tools,Acme,10,2,Aisle 1\n" +
+                "A-2,Saw,,15,Tools,Acme,,,\n" +
+                "A-3,,,1,,,,,\n");
+
+        assertThat(created.getCreated()).isEqualTo(2);
+        assertThat(created.getFailed()).isEqualTo(1);
+        assertThat(created.getErrors()).singleElement().satisfies(error -> assertThat(error.getSku()).isEqualTo("A-3"));
+        assertThat(created.getCategoriesCreated()).isEqualTo(1);
+        assertThat(created.getSuppliersCreated()).isEqualTo(1);
+
+        Map<String, Product> products = products(company);
+        assertThat(products.get("A-1").getPrice()).isEqualByComparingTo("99.50");
+        assertThat(products.get("A-1").getCategory().getName()).isEqualTo("Tools");
+        assertThat(products.get("A-2").getSupplier().getName()).isEqualTo("Acme");
+        Inventory drill = inventory(products.get("A-1"));
+        assertThat(drill.getQuantity()).isEqualTo(10);
+        assertThat(drill.getReorderLevel()).isEqualTo(2);
+        assertThat(drill.getLocation()).isEqualTo("Aisle 1");
+        // New products get an inventory row even without stock columns
+        assertThat(inventory(products.get("A-2")).getQuantity()).isZero();
+
+        ImportReportDTO updated = importCsv(company, HEADER +
+                "A-1,,,120,,,4,,\n" +
+                "A-4,Hammer,,7,Hand tools,,1,,\n");
+
+        assertThat(updated.getUpdated()).isEqualTo(1);
+        assertThat(updated.getCreated()).isEqualTo(1);
+        assertThat(updated.getFailed()).isZero();
+
+        products = products(company);
+        assertThat(products).containsOnlyKeys("A-1", "A-2", "A-4");
+        Product drillAfter = products.get("A-1");
+        assertThat(drillAfter.getName()).isEqualTo("Drill");
+        assertThat(drillAfter.getDescription()).isEqualTo("Cordless");
+        assertThat(drillAfter.getPrice()).isEqualByComparingTo("120");
+        assertThat(drillAfter.getCategory().getName()).isEqualTo("Tools");
+        Inventory drillStock = inventory(drillAfter);
+        assertThat(drillStock.getQuantity()).isEqualTo(4);
+        assertThat(drillStock.getReorderLevel()).isEqualTo(2);
+        assertThat(drillStock.getLocation()).isEqualTo("Aisle 1");
+        assertThat(products.get("A-4").getCategory().getName()).isEqualTo("Hand tools");
+        assertThat(inventory(products.get("A-4")).getQuantity()).isEqualTo(1);
+    }
+
+    @Test
+    void importsMoreRowsThanOneBatch() throws IOException {
+        Company company = testData.company();
+        StringBuilder csv = new StringBuilder(HEADER);
+        for (int i = 0; i < 1234; i++) {
+            csv.append("SKU-").append(i).append(",Product ").append(i).append(",,").append(i).append(".5,,,").append(i).append(",,\n");
+        }
+
+        ImportReportDTO report = importCsv(company, csv.toString());
+
+        assertThat(report.getCreated()).isEqualTo(1234);
+        Map<String, Product> products = products(company);
+        assertThat(products).hasSize(1234);
+        Product product = products.get("SKU-777");
+        assertThat(product.getName()).isEqualTo("Product 777");
+        assertThat(product.getPrice()).isEqualByComparingTo("777.5");
+        assertThat(inventory(product).getQuantity()).isEqualTo(777);
+    }
+
+    private ImportReportDTO importCsv(Company company, String csv) throws IOException {
+        return importService.importProducts(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), "products.csv", company);
+    }
+
+    private Map<String, Product> products(Company company) {
+        return productRepository.findByCompanyId(company.getId()).stream()
+                .collect(Collectors.toMap(Product::getSku, Function.identity()));
+    }
+
+    private Inventory inventory(Product product) {
+        return inventoryRepository.findByProductIdAndCompanyId(product.getId(), product.getCompany().getId()).orElseThrow();
+    }
+}
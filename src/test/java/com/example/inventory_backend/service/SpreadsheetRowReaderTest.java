@@ -0,0 +1,50 @@
+package com.example.inventory_backend.service;
+
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Import files are usually saved from Excel with number formats applied; the importer must still get
+// values it can parse.
+class SpreadsheetRowReaderTest {
+
+    @Test
+    void formattedNumbersArriveAsTheirStoredValue() throws IOException {
+        byte[] xlsx;
+        try (XSSFWorkbook workbook = new XSSFWorkbook(); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            CellStyle thousands = workbook.createCellStyle();
+            thousands.setDataFormat(workbook.createDataFormat().getFormat("#,##0.00"));
+            CellStyle currency = workbook.createCellStyle();
+            currency.setDataFormat(workbook.createDataFormat().getFormat("\"$\"#,##0.00"));
+
+            Row row = workbook.createSheet("Products").createRow(0);
+            row.createCell(0).setCellValue("SKU-1");
+            row.createCell(1).setCellValue(1234.5);
+            row.getCell(1).setCellStyle(thousands);
+            row.createCell(2).setCellValue(12);
+            row.getCell(2).setCellStyle(currency);
+            row.createCell(4).setCellValue(0.1);
+            workbook.write(out);
+            xlsx = out.toByteArray();
+        }
+
+        List<List<String>> rows = new ArrayList<>();
+        SpreadsheetRowReader.readXlsx(new ByteArrayInputStream(xlsx), (rowNumber, cells) -> rows.add(cells));
+
+        assertThat(rows).hasSize(1);
+        List<String> cells = rows.get(0);
+        assertThat(cells).containsExactly("SKU-1", "1234.5", "12", null, "0.1");
+        assertThat(new BigDecimal(cells.get(1))).isEqualByComparingTo("1234.50");
+        assertThat(new BigDecimal(cells.get(2)).intValueExact()).isEqualTo(12);
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.inventory_backend.service;
+
+import com.example.inventory_backend.dto.StatsSummaryDTO;
+import com.example.inventory_backend.model.Company;
+import com.example.inventory_backend.support.IntegrationTestBase;
+import com.example.inventory_backend.support.TestData;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Dashboard counters only ever reflect committed data, whichever transaction reads or changes them
+class StatsCounterServiceTest extends IntegrationTestBase {
+
+    @Autowired
+    private TestData testData;
+
+    @Autowired
+    private StatsCounterService statsCounterService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void changesShowOnlyOnceCommitted() {
+        Company company = testData.company();
+        assertThat(products(company)).isZero();
+
+        transaction().executeWithoutResult(status -> {
+            testData.product(company, "Drill");
+            statsCounterService.productAdded(company);
+            // Another request's dashboard
+            assertThat(CompletableFuture.supplyAsync(() -> products(company)).join()).isZero();
+        });
+        assertThat(products(company)).isEqualTo(1);
+
+        transaction().executeWithoutResult(status -> {
+            testData.product(company, "Saw");
+            statsCounterService.productAdded(company);
+            status.setRollbackOnly();
+        });
+        assertThat(products(company)).isEqualTo(1);
+
+        statsCounterService.reconcile();
+        assertThat(products(company)).isEqualTo(1);
+    }
+
+    @Test
+    void firstReadInsideAnOpenTransactionIsNotCached() {
+        Company company = testData.company();
+        testData.product(company, "Committed");
+
+        transaction().executeWithoutResult(status -> {
+            testData.product(company, "Rolled back");
+            // The transaction sees its own row, nobody else may
+            assertThat(products(company)).isEqualTo(2);
+            assertThat(CompletableFuture.supplyAsync(() -> products(company)).join()).isEqualTo(1);
+            status.setRollbackOnly();
+        });
+
+        assertThat(products(company)).isEqualTo(1);
+    }
+
+    @Test
+    void invalidatedCountersReloadAfterCommit() {
+        Company company = testData.company();
+        assertThat(products(company)).isZero();
+
+        transaction().executeWithoutResult(status -> {
+            testData.product(company, "Imported");
+            statsCounterService.invalidate(company);
+            assertThat(products(company)).isZero();
+        });
+
+        assertThat(products(company)).isEqualTo(1);
+    }
+
+    private long products(Company company) {
+        StatsSummaryDTO summary = statsCounterService.getSummary(company);
+        return summary.getTotalProducts();
+    }
+
+    private TransactionTemplate transaction() {
+        return new TransactionTemplate(transactionManager);
+    }
+}
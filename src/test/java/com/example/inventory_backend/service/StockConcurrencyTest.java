@@ -0,0 +1,145 @@
+package com.example.inventory_backend.service;
+
+import com.example.inventory_backend.dto.TransactionDTO;
+import com.example.inventory_backend.model.Company;
+import com.example.inventory_backend.model.Inventory;
+import com.example.inventory_backend.model.Product;
+import com.example.inventory_backend.model.Transaction;
+import com.example.inventory_backend.repository.InventoryRepository;
+import com.example.inventory_backend.repository.TransactionRepository;
+import com.example.inventory_backend.support.IntegrationTestBase;
+import com.example.inventory_backend.support.TestData;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Stock changes go through one conditional UPDATE per transaction; these run many of them
+// in parallel against a single product.
+class StockConcurrencyTest extends IntegrationTestBase {
+
+    private static final int THREADS = 32;
+
+    @Autowired
+    private TestData testData;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void parallelSalesNeverOversell() throws Exception {
+        Company company = testData.company();
+        Product product = testData.product(company, "Scanner item");
+        testData.inventory(product, 1000);
+
+        AtomicInteger sold = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        runInParallel(3000, i -> {
+            try {
+                transactionService.saveTransaction(transaction(product, Transaction.TransactionType.SALE, 1), company);
+                sold.incrementAndGet();
+            } catch (IllegalArgumentException e) {
+                rejected.incrementAndGet();
+            }
+        });
+
+        assertThat(sold.get()).isEqualTo(1000);
+        assertThat(rejected.get()).isEqualTo(2000);
+        assertThat(quantity(product)).isZero();
+        assertThat(transactionRepository.findByProductAndCompany(product, company)).hasSize(1000);
+    }
+
+    @Test
+    void parallelPurchasesAndSalesLoseNoUpdates() throws Exception {
+        Company company = testData.company();
+        Product product = testData.product(company, "Busy item");
+        testData.inventory(product, 5000);
+
+        // Odd calls buy 3, even calls sell 2; the stock never runs out, so every call must count
+        runInParallel(2000, i -> {
+            TransactionDTO dto = i % 2 == 0
+                    ? transaction(product, Transaction.TransactionType.SALE, 2)
+                    : transaction(product, Transaction.TransactionType.PURCHASE, 3);
+            transactionService.saveTransaction(dto, company);
+        });
+
+        assertThat(quantity(product)).isEqualTo(5000 + 1000 * 3 - 1000 * 2);
+    }
+
+    @Test
+    void updateQuantityReturnsCurrentStateForAlreadyLoadedRow() {
+        Company company = testData.company();
+        Product product = testData.product(company, "Loaded item");
+        testData.inventory(product, 10);
+
+        // Like open-in-view: the row is already in the persistence context when the native update runs
+        Inventory updated = new TransactionTemplate(transactionManager).execute(status -> {
+            inventoryRepository.findByProductIdAndCompanyId(product.getId(), company.getId()).orElseThrow();
+            return inventoryService.updateQuantity(product.getId(), -4, company);
+        });
+
+        assertThat(updated.getQuantity()).isEqualTo(6);
+        assertThat(quantity(product)).isEqualTo(6);
+    }
+
+    private TransactionDTO transaction(Product product, Transaction.TransactionType type, int quantity) {
+        TransactionDTO dto = new TransactionDTO();
+        dto.setProductId(product.getId());
+        dto.setTransactionType(type.name());
+        dto.setQuantity(quantity);
+        return dto;
+    }
+
+    private int quantity(Product product) {
+        return inventoryRepository.findByProductIdAndCompanyId(product.getId(), product.getCompany().getId())
+                .orElseThrow()
+                .getQuantity();
+    }
+
+    private void runInParallel(int calls, IndexedCall call) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<Void>> futures = new ArrayList<>(calls);
+            for (int i = 0; i < calls; i++) {
+                int index = i;
+                Callable<Void> task = () -> {
+                    call.run(index);
+                    return null;
+                };
+                futures.add(executor.submit(task));
+            }
+            for (Future<Void> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @FunctionalInterface
+    private interface IndexedCall {
+        void run(int index) throws Exception;
+    }
+}
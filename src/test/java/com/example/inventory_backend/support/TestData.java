@@ -0,0 +1,117 @@
+package com.example.inventory_backend.support;
+
+import com.example.inventory_backend.model.Category;
+import com.example.inventory_backend.model.Company;
+import com.example.inventory_backend.model.Inventory;
+import com.example.inventory_backend.model.Product;
+import com.example.inventory_backend.model.Supplier;
+import com.example.inventory_backend.model.Transaction;
+import com.example.inventory_backend.model.User;
+import com.example.inventory_backend.repository.CategoryRepository;
+import com.example.inventory_backend.repository.CompanyRepository;
+import com.example.inventory_backend.repository.InventoryRepository;
+import com.example.inventory_backend.repository.ProductRepository;
+import com.example.inventory_backend.repository.SupplierRepository;
+import com.example.inventory_backend.repository.TransactionRepository;
+import com.example.inventory_backend.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// Fixture rows for integration tests. Every company is new, so tests never see each other's data.
+@Component
+public class TestData {
+
+    @Autowired
+    private CompanyRepository companyRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private SupplierRepository supplierRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    public Company company() {
+        Company company = new Company();
+        company.setName("Test company");
+        company.setCui(UUID.randomUUID().toString());
+        return companyRepository.save(company);
+    }
+
+    public User user(Company company, User.Role role) {
+        User user = new User();
+        user.setName("Test " + role.name().toLowerCase());
+        user.setEmail(UUID.randomUUID() + "@example.com");
+        user.setPassword("not-a-real-hash");
+        user.setRole(role);
+        user.setCompany(company);
+        return userRepository.save(user);
+    }
+
+    public Product product(Company company, String name) {
+        return product(company, name, null, null);
+    }
+
+    public Product product(Company company, String name, Category category, Supplier supplier) {
+        Product product = new Product();
+        product.setName(name);
+        product.setSku(UUID.randomUUID().toString());
+        product.setPrice(new BigDecimal("9.99"));
+        product.setCategory(category);
+        product.setSupplier(supplier);
+        product.setCompany(company);
+        return productRepository.save(product);
+    }
+
+    public Inventory inventory(Product product, int quantity) {
+        Inventory inventory = new Inventory();
+        inventory.setProduct(product);
+        inventory.setCompany(product.getCompany());
+        inventory.setQuantity(quantity);
+        inventory.setReorderLevel(0);
+        inventory.setLastUpdated(LocalDateTime.now());
+        return inventoryRepository.save(inventory);
+    }
+
+    public Category category(Company company, String name) {
+        Category category = new Category();
+        category.setName(name);
+        category.setCompany(company);
+        return categoryRepository.save(category);
+    }
+
+    public Supplier supplier(Company company, String name) {
+        Supplier supplier = new Supplier();
+        supplier.setName(name);
+        supplier.setCompany(company);
+        return supplierRepository.save(supplier);
+    }
+
+    public Transaction transaction(Product product, User user, Transaction.TransactionType type, int quantity) {
+        Transaction transaction = new Transaction();
+        transaction.setProduct(product);
+        transaction.setCompany(product.getCompany());
+        transaction.setCreatedBy(user);
+        transaction.setType(type);
+        transaction.setQuantity(quantity);
+        transaction.setUnitPrice(product.getPrice());
+        transaction.setTotalAmount(product.getPrice().multiply(BigDecimal.valueOf(quantity)));
+        transaction.setTransactionDate(LocalDateTime.now());
+        return transactionRepository.save(transaction);
+    }
+}